@@ -52,6 +52,11 @@ native_test() {
   errcheck $?
 }
 
+bench() {
+  mvn -Pbench test-compile exec:exec -Dbench="$1"
+  errcheck $?
+}
+
 deploy() {
   mvn deploy
   errcheck $?
@@ -93,6 +98,9 @@ else
     'native-test')
       native_test
       ;;
+    bench)
+      bench "$2"
+      ;;
     deploy)
       deploy
       ;;
@@ -0,0 +1,612 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Is the annotation processor which generates the binder of each option store class, which has
+ * fields with the {@code com.github.sttk.cliargs.annotations.Opt} annotation.
+ * <p>
+ * A generated binder is a subclass of {@code com.github.sttk.cliargs.OptStoreBinder}, and it
+ * has the option configurations of which names and default values are already divided, and sets
+ * option arguments to the fields with direct assignments.
+ * A field of a type which is not converted natively, e.g. an enum or {@code java.nio.file.Path},
+ * is converted with the converter in {@code com.github.sttk.cliargs.validators.Converters} at
+ * runtime.
+ * {@code Cmd#parseFor} finds the binder by its name and uses it instead of reflection.
+ * <p>
+ * A binder is not generated for an option store class which the binder cannot access directly,
+ * e.g. a private class, a non-static inner class, a generic class, or a class which has a
+ * private field or a final instance field.
+ * Such a class is processed by reflection at runtime as before.
+ */
+public class OptStoreBinderProcessor extends AbstractProcessor {
+
+  static final String OPT = "com.github.sttk.cliargs.annotations.Opt";
+  static final String SUFFIX = "_OptStoreBinder";
+
+  private static final String OPT_STORE_BINDER = "com.github.sttk.cliargs.OptStoreBinder";
+  private static final String OPT_CFG = "com.github.sttk.cliargs.OptCfg";
+  private static final String BAD_FIELD_TYPE = "com.github.sttk.cliargs.exceptions.BadFieldType";
+  private static final String CLIARGS_PACKAGE = "com.github.sttk.cliargs";
+
+  // Is the conversion of the types which are converted with the converters in
+  // com.github.sttk.cliargs.validators.Converters at runtime.
+  private static final String CONVERTER = "convert";
+
+  private final Set<String> generated = new HashSet<>();
+
+  /**
+   * Is the constructor which is called by a compiler.
+   */
+  public OptStoreBinderProcessor() {}
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Set.of(OPT);
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (var annotation : annotations) {
+      var stores = new LinkedHashSet<TypeElement>();
+      for (var elem : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (elem.getKind() == ElementKind.FIELD) {
+          stores.add((TypeElement) elem.getEnclosingElement());
+        }
+      }
+      for (var store : stores) {
+        if (this.generated.add(store.getQualifiedName().toString())) {
+          generate(store);
+        }
+      }
+    }
+    // Does not claim @Opt so that other processors can also process it.
+    return false;
+  }
+
+  // Is the information of a field of an option store class.
+  private record FieldInfo(
+    VariableElement field, TypeElement owner, String cfg, String desc, String arg, String sep
+  ) {}
+
+  private void generate(TypeElement store) {
+    var reason = checkStoreClass(store);
+
+    var fields = new ArrayList<FieldInfo>();
+    if (reason == null) {
+      reason = collectFields(store, fields);
+    }
+
+    if (reason != null) {
+      note(store, "No binder is generated for " + store.getQualifiedName() + " because " +
+        reason + ", so it is processed by reflection.");
+      return;
+    }
+
+    var pkg = processingEnv.getElementUtils().getPackageOf(store);
+    var binderName = binderNameOf(store);
+    var qualifiedName = pkg.isUnnamed() ? binderName : pkg.getQualifiedName() + "." + binderName;
+
+    try {
+      var file = processingEnv.getFiler().createSourceFile(qualifiedName, store);
+      try (var out = new PrintWriter(file.openWriter())) {
+        write(out, pkg, binderName, store, fields);
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+        "Failed to generate " + qualifiedName + ": " + e, store);
+    }
+  }
+
+  // Returns the reason why a binder cannot be generated for the class, or null.
+  private String checkStoreClass(TypeElement store) {
+    if (store.getKind() != ElementKind.CLASS) {
+      return "it is not a class";
+    }
+    for (Element e = store; e instanceof TypeElement t; e = e.getEnclosingElement()) {
+      if (t.getModifiers().contains(Modifier.PRIVATE)) {
+        return "it is private";
+      }
+      if (! t.getTypeParameters().isEmpty()) {
+        return "it is generic";
+      }
+      if (t.getNestingKind() == NestingKind.MEMBER) {
+        if (! t.getModifiers().contains(Modifier.STATIC)) {
+          return "it is an inner class";
+        }
+      } else if (t.getNestingKind() != NestingKind.TOP_LEVEL) {
+        return "it is a local or anonymous class";
+      }
+    }
+    return null;
+  }
+
+  // Collects the fields in the same order as the reflection at runtime, which is the order of
+  // declaration from the class to its superclasses, and returns the reason why a binder cannot be
+  // generated, or null.
+  private String collectFields(TypeElement store, List<FieldInfo> fields) {
+    var elements = processingEnv.getElementUtils();
+    var pkg = elements.getPackageOf(store);
+
+    for (var owner = store; owner != null; owner = superclassOf(owner)) {
+      var samePackage = elements.getPackageOf(owner).equals(pkg);
+
+      for (var fld : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+        var mods = fld.getModifiers();
+        if (mods.contains(Modifier.PRIVATE)) {
+          return "the field " + fld.getSimpleName() + " is private";
+        }
+        if (mods.contains(Modifier.FINAL) && ! mods.contains(Modifier.STATIC)) {
+          return "the field " + fld.getSimpleName() + " is final";
+        }
+        if (! mods.contains(Modifier.PUBLIC) && ! samePackage) {
+          return "the field " + fld.getSimpleName() + " is not accessible";
+        }
+        if (! isAccessible(erasure(fld.asType()))) {
+          return "the type of the field " + fld.getSimpleName() + " is not accessible";
+        }
+
+        String cfg = "", desc = "", arg = "", sep = "";
+        for (var mirror : fld.getAnnotationMirrors()) {
+          if (isOpt(mirror)) {
+            cfg = valueOf(mirror, "cfg");
+            desc = valueOf(mirror, "desc");
+            arg = valueOf(mirror, "arg");
+            sep = valueOf(mirror, "sep");
+          }
+        }
+        fields.add(new FieldInfo(fld, owner, cfg, desc, arg, sep));
+      }
+    }
+    return null;
+  }
+
+  private TypeElement superclassOf(TypeElement type) {
+    var sup = type.getSuperclass();
+    if (sup.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    var elem = (TypeElement) ((DeclaredType) sup).asElement();
+    if (elem.getQualifiedName().contentEquals("java.lang.Object")) {
+      return null;
+    }
+    return elem;
+  }
+
+  private boolean isAccessible(TypeMirror type) {
+    if (type instanceof ArrayType a) {
+      return isAccessible(a.getComponentType());
+    }
+    if (type instanceof DeclaredType d) {
+      for (var e = d.asElement(); e instanceof TypeElement t; e = e.getEnclosingElement()) {
+        if (t.getModifiers().contains(Modifier.PRIVATE)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isOpt(AnnotationMirror mirror) {
+    var elem = (TypeElement) mirror.getAnnotationType().asElement();
+    return elem.getQualifiedName().contentEquals(OPT);
+  }
+
+  private String valueOf(AnnotationMirror mirror, String name) {
+    var values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+    for (var ent : values.entrySet()) {
+      if (ent.getKey().getSimpleName().contentEquals(name)) {
+        return String.valueOf(ent.getValue().getValue());
+      }
+    }
+    return "";
+  }
+
+  private TypeMirror erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type);
+  }
+
+  private void note(Element elem, String msg) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, msg, elem);
+  }
+
+  // Returns the simple name of the binder, which is the name of the class whose nested class
+  // names are joined with '_' and suffixed.
+  static String binderNameOf(TypeElement store) {
+    var name = store.getSimpleName().toString();
+    for (var e = store.getEnclosingElement(); e instanceof TypeElement t;
+      e = e.getEnclosingElement()) {
+      name = t.getSimpleName() + "_" + name;
+    }
+    return name + SUFFIX;
+  }
+
+  private void write(
+    PrintWriter out, PackageElement pkg, String binderName, TypeElement store,
+    List<FieldInfo> fields
+  ) {
+    var storeName = store.getQualifiedName().toString();
+
+    if (! pkg.isUnnamed()) {
+      out.println("package " + pkg.getQualifiedName() + ";");
+      out.println();
+    }
+    out.println("/**");
+    out.println(" * Is the binder of {@link " + storeName + "}, which is generated by");
+    out.println(" * {@code " + getClass().getName() + "}.");
+    out.println(" */");
+    out.println("public final class " + binderName + " extends " + OPT_STORE_BINDER + "<" +
+      storeName + "> {");
+    out.println();
+    out.println("  /**");
+    out.println("   * Is the constructor which is called by {@code Cmd#parseFor}.");
+    out.println("   */");
+    out.println("  public " + binderName + "() {");
+    out.println("    super(" + storeName + ".class);");
+    out.println("  }");
+    out.println();
+
+    out.println("  @Override");
+    out.println("  protected " + OPT_CFG + "[] optCfgs() {");
+    out.println("    return new " + OPT_CFG + "[] {");
+    for (int i = 0; i < fields.size(); i++) {
+      var f = fields.get(i);
+      var sep = f.sep();
+      var namesAndDefaults = f.cfg().split("=", 2);
+      var names = parseNames(namesAndDefaults[0]);
+      var defaults = (namesAndDefaults.length < 2) ? null :
+        parseDefaults(namesAndDefaults[1], sep);
+
+      var elemType = collectionElementOf(f.field().asType());
+      out.println("      optCfg(" + i + ", " + literal(f.field().getSimpleName().toString()) +
+        ", " + erasure(f.field().asType()) + ".class," +
+        ((elemType == null) ? "" : " " + elemType + ".class,"));
+      out.println("        " + listOf(names) + ", " +
+        ((defaults == null) ? "null" : listOf(defaults)) + ",");
+      out.println("        " + literal(f.desc()) + ", " + literal(f.arg()) + ", " + literal(sep) +
+        "),");
+    }
+    out.println("    };");
+    out.println("  }");
+    out.println();
+
+    out.println("  @Override");
+    out.println("  @SuppressWarnings(\"unchecked\")");
+    out.println("  protected void setFieldValue(" + storeName +
+      " optStore, int index,");
+    out.println("    java.util.List<java.lang.String> optArgs) throws java.lang.Exception");
+    out.println("  {");
+    out.println("    switch (index) {");
+    for (int i = 0; i < fields.size(); i++) {
+      writeSetFieldValue(out, i, fields.get(i), storeName);
+    }
+    out.println("      default -> {}");
+    out.println("    }");
+    out.println("  }");
+    out.println();
+
+    out.println("  @Override");
+    out.println("  @SuppressWarnings(\"unchecked\")");
+    out.println("  protected void setConvertedValue(" + storeName +
+      " optStore, int index,");
+    out.println("    java.lang.Object value) throws java.lang.Exception");
+    out.println("  {");
+    out.println("    switch (index) {");
+    for (int i = 0; i < fields.size(); i++) {
+      var f = fields.get(i);
+      var type = f.field().asType();
+      if (isStaticFinal(f)) {
+        writeThrowStaticFinal(out, i, f);
+      } else if (conversionOf(type instanceof ArrayType a ? a.getComponentType() : type) != null) {
+        out.println("      case " + i + " -> " + target(f, storeName) + " = (" + erasure(type) +
+          ") value;");
+      }
+    }
+    out.println("      default -> throw new java.lang.IllegalArgumentException(" +
+      "\"index: \" + index);");
+    out.println("    }");
+    out.println("  }");
+    out.println("}");
+  }
+
+  private void writeSetFieldValue(PrintWriter out, int i, FieldInfo f, String storeName) {
+    var type = f.field().asType();
+    var target = target(f, storeName);
+    var name = literal(f.field().getSimpleName().toString());
+
+    if (isStaticFinal(f)) {
+      writeThrowStaticFinal(out, i, f);
+      return;
+    }
+
+    if (isBoolean(type)) {
+      out.println("      case " + i + " -> " + target + " = true;");
+      return;
+    }
+
+    var primitive = primitiveListElementOf(type);
+    if (primitive != null) {
+      out.println("      case " + i + " -> {");
+      out.println("        var arr = new " + primitive + "[optArgs.size()];");
+      out.println("        for (int i = 0; i < arr.length; i++) {");
+      out.println("          arr[i] = " + conversionOf(primitive).formatted("optArgs.get(i)") +
+        ";");
+      out.println("        }");
+      out.println("        " + target + " = " + erasure(type) + ".of(arr);");
+      out.println("      }");
+      return;
+    }
+
+    var elemType = collectionElementOf(type);
+    if (elemType != null) {
+      var convert = isClass(type, "java.util.Set") ? "convertToSet" : "convertToList";
+      out.println("      case " + i + " -> " + target + " = " + convert + "(" + elemType +
+        ".class, " + name + ", optArgs);");
+      return;
+    }
+
+    if (type instanceof ArrayType a) {
+      var comp = a.getComponentType();
+      var conv = conversionOf(comp);
+      if (conv == null) {
+        out.println("      case " + i + " -> throw new " + BAD_FIELD_TYPE + "(" + name + ", " +
+          erasure(comp) + ".class);");
+        return;
+      }
+      if (conv == CONVERTER) {
+        out.println("      case " + i + " -> " + target + " = convertAll(" + erasure(comp) +
+          ".class, " + name + ", optArgs);");
+        return;
+      }
+      out.println("      case " + i + " -> {");
+      out.println("        var arr = new " + erasure(comp) + "[optArgs.size()];");
+      out.println("        for (int i = 0; i < arr.length; i++) {");
+      out.println("          arr[i] = " + conv.formatted("optArgs.get(i)") + ";");
+      out.println("        }");
+      out.println("        " + target + " = arr;");
+      out.println("      }");
+      return;
+    }
+
+    var conv = conversionOf(type);
+    if (conv == null) {
+      out.println("      case " + i + " -> {");
+      out.println("        if (! optArgs.isEmpty()) {");
+      out.println("          throw new " + BAD_FIELD_TYPE + "(" + name + ", " + erasure(type) +
+        ".class);");
+      out.println("        }");
+      out.println("      }");
+      return;
+    }
+    if (conv == CONVERTER) {
+      conv = "convert(" + erasure(type) + ".class, " + name + ", %s)";
+    }
+    out.println("      case " + i + " -> {");
+    out.println("        if (! optArgs.isEmpty()) {");
+    out.println("          " + target + " = " + conv.formatted("optArgs.get(0)") + ";");
+    out.println("        }");
+    out.println("      }");
+  }
+
+  // Returns the expression to assign to the field: a static field is qualified with the class
+  // name, and a field of a superclass is accessed through a cast not to be hidden.
+  private static String target(FieldInfo f, String storeName) {
+    var name = f.field().getSimpleName();
+    var owner = f.owner().getQualifiedName().toString();
+    if (f.field().getModifiers().contains(Modifier.STATIC)) {
+      return owner + "." + name;
+    }
+    if (! owner.equals(storeName)) {
+      return "((" + owner + ") optStore)." + name;
+    }
+    return "optStore." + name;
+  }
+
+  private static boolean isStaticFinal(FieldInfo f) {
+    var mods = f.field().getModifiers();
+    return mods.contains(Modifier.STATIC) && mods.contains(Modifier.FINAL);
+  }
+
+  // A static final field cannot be set even by reflection, which throws the same exception.
+  private static void writeThrowStaticFinal(PrintWriter out, int i, FieldInfo f) {
+    out.println("      case " + i + " -> throw new java.lang.IllegalAccessException(" +
+      literal("Can not set static final field " + f.owner().getQualifiedName() + "." +
+        f.field().getSimpleName()) + ");");
+  }
+
+  // Returns the element type of IntList, LongList or DoubleList, or null if the type is not them.
+  private TypeMirror primitiveListElementOf(TypeMirror type) {
+    TypeKind kind;
+    if (isClass(type, CLIARGS_PACKAGE + ".IntList")) {
+      kind = TypeKind.INT;
+    } else if (isClass(type, CLIARGS_PACKAGE + ".LongList")) {
+      kind = TypeKind.LONG;
+    } else if (isClass(type, CLIARGS_PACKAGE + ".DoubleList")) {
+      kind = TypeKind.DOUBLE;
+    } else {
+      return null;
+    }
+    return processingEnv.getTypeUtils().getPrimitiveType(kind);
+  }
+
+  // Returns the erasure of the element type of a List, Set or Collection type, which is String for
+  // a raw type, or null if the type is not those types.
+  private String collectionElementOf(TypeMirror type) {
+    if (! isClass(type, "java.util.List") && ! isClass(type, "java.util.Set") &&
+      ! isClass(type, "java.util.Collection")) {
+      return null;
+    }
+    var args = ((DeclaredType) type).getTypeArguments();
+    if (args.isEmpty()) {
+      return "java.lang.String";
+    }
+    var arg = args.get(0);
+    if (arg instanceof WildcardType w) {
+      arg = w.getExtendsBound();
+      if (arg == null) {
+        return "java.lang.Object";
+      }
+    }
+    return erasure(arg).toString();
+  }
+
+  private static boolean isBoolean(TypeMirror type) {
+    return type.getKind() == TypeKind.BOOLEAN || isClass(type, "java.lang.Boolean");
+  }
+
+  private static boolean isClass(TypeMirror type, String name) {
+    return type instanceof DeclaredType d &&
+      ((TypeElement) d.asElement()).getQualifiedName().contentEquals(name);
+  }
+
+  // Returns the format of the expression which converts a string to a value of the type,
+  // CONVERTER if the value is converted with the converter in Converters at runtime, or null if
+  // the type is not supported.
+  private static String conversionOf(TypeMirror type) {
+    switch (type.getKind()) {
+      case INT: return "java.lang.Integer.parseInt(%s)";
+      case LONG: return "java.lang.Long.parseLong(%s)";
+      case DOUBLE: return "java.lang.Double.parseDouble(%s)";
+      case FLOAT: return "java.lang.Float.parseFloat(%s)";
+      case SHORT: return "java.lang.Short.parseShort(%s)";
+      case BYTE: return "java.lang.Byte.parseByte(%s)";
+      case DECLARED: break;
+      default: return null;
+    }
+
+    var name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    switch (name) {
+      case "java.lang.String": return "%s";
+      case "java.lang.Integer": return "java.lang.Integer.valueOf(%s)";
+      case "java.lang.Long": return "java.lang.Long.valueOf(%s)";
+      case "java.lang.Double": return "java.lang.Double.valueOf(%s)";
+      case "java.lang.Float": return "java.lang.Float.valueOf(%s)";
+      case "java.lang.Short": return "java.lang.Short.valueOf(%s)";
+      case "java.lang.Byte": return "java.lang.Byte.valueOf(%s)";
+      case "java.math.BigDecimal": return "new java.math.BigDecimal(%s)";
+      case "java.math.BigInteger": return "new java.math.BigInteger(%s)";
+      default: return CONVERTER;
+    }
+  }
+
+  // Divides the option names in the same way as at runtime.
+  static List<String> parseNames(String namesStr) {
+    if (namesStr.isEmpty()) {
+      return List.of();
+    }
+    return List.of(namesStr.split(","));
+  }
+
+  // Divides the default values in the same way as at runtime.
+  static List<String> parseDefaults(String defaultsStr, String sep) {
+    int len = defaultsStr.length();
+
+    if (defaultsStr.endsWith("]")) {
+      if (defaultsStr.startsWith("[")) {
+        return splitDefaults(defaultsStr, 1, len-1, ",");
+      } else if (len >= 3 && defaultsStr.charAt(1) == '[') {
+        return splitDefaults(defaultsStr, 2, len-1, defaultsStr.substring(0, 1));
+      }
+    }
+
+    if (! sep.isEmpty()) {
+      var list = new ArrayList<String>();
+      for (int i = 0; ; ) {
+        int j = indexOfSeparator(defaultsStr, i, len, sep);
+        list.add(defaultsStr.substring(i, j));
+        if (j == len) {
+          return list;
+        }
+        i = j + sep.length();
+      }
+    }
+
+    return List.of(defaultsStr);
+  }
+
+  private static List<String> splitDefaults(String s, int start, int end, String sep) {
+    int n = sep.length();
+    while (end - start >= n && s.startsWith(sep, end - n)) {
+      end -= n;
+    }
+
+    var list = new ArrayList<String>();
+    for (int i = start; i < end; ) {
+      int j = indexOfSeparator(s, i, end, sep);
+      list.add(s.substring(i, j));
+      i = (j == end) ? end : j + n;
+    }
+    return list;
+  }
+
+  private static int indexOfSeparator(String s, int from, int end, String sep) {
+    int i = s.indexOf(sep, from);
+    return (i < 0 || i + sep.length() > end) ? end : i;
+  }
+
+  private static String listOf(List<String> list) {
+    var sb = new StringBuilder("java.util.List.of(");
+    for (int i = 0; i < list.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(literal(list.get(i)));
+    }
+    return sb.append(")").toString();
+  }
+
+  static String literal(String s) {
+    var sb = new StringBuilder("\"");
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"': sb.append("\\\""); break;
+        case '\\': sb.append("\\\\"); break;
+        case '\n': sb.append("\\n"); break;
+        case '\r': sb.append("\\r"); break;
+        case '\t': sb.append("\\t"); break;
+        default:
+          if (c < 0x20 || c > 0x7e) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append("\"").toString();
+  }
+}
@@ -0,0 +1,213 @@
+package com.github.sttk.cliargs.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.github.sttk.cliargs.Cmd;
+import com.github.sttk.cliargs.OptCfg;
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class OptStoreBinderProcessorTest {
+
+  static final String SOURCE = """
+    package com.example;
+
+    import com.github.sttk.cliargs.annotations.Opt;
+    import java.math.BigDecimal;
+
+    public class App {
+      public static class Base {
+        @Opt(cfg="base=7")
+        public int base;
+      }
+
+      public static class Options extends Base {
+        @Opt(cfg="host,h=localhost", desc="The \\"host\\".")
+        public String host;
+        @Opt(cfg="port,p=8080")
+        int port;
+        @Opt(cfg="id", sep=",")
+        public int[] ids;
+        @Opt(cfg="tag=/[a/b/]")
+        String[] tags;
+        @Opt(cfg="v")
+        boolean verbose;
+        @Opt(cfg="price")
+        BigDecimal price;
+        @Opt(cfg="timeout=PT1S")
+        java.time.Duration timeout;
+        @Opt(cfg="dir")
+        java.nio.file.Path[] dirs;
+        @Opt(cfg="num", sep=",")
+        java.util.List<Integer> nums;
+        @Opt(cfg="name=[a,b,a]")
+        java.util.Set<String> names;
+        @Opt(cfg="count=[1,2]")
+        com.github.sttk.cliargs.IntList counts;
+      }
+
+      public static class PrivateOptions {
+        @Opt(cfg="x")
+        private int x;
+      }
+    }
+    """;
+
+  Path compile(Path dir) throws Exception {
+    var src = dir.resolve("src/com/example/App.java");
+    Files.createDirectories(src.getParent());
+    Files.writeString(src, SOURCE);
+
+    var out = dir.resolve("out");
+    var gen = dir.resolve("gen");
+    Files.createDirectories(out);
+    Files.createDirectories(gen);
+
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    var diags = new DiagnosticCollector<JavaFileObject>();
+    try (var fm = compiler.getStandardFileManager(diags, null, null)) {
+      var task = compiler.getTask(null, fm, diags,
+        List.of("-d", out.toString(), "-s", gen.toString(),
+          "-cp", System.getProperty("java.class.path")),
+        null, fm.getJavaFileObjects(src.toFile()));
+      task.setProcessors(List.of(new OptStoreBinderProcessor()));
+      assertThat(task.call()).as(diags.getDiagnostics().toString()).isTrue();
+    }
+    return dir;
+  }
+
+  @Test
+  void should_generate_binders_only_for_accessible_option_stores(@TempDir Path dir) {
+    try {
+      var gen = compile(dir).resolve("gen/com/example");
+      assertThat(gen.resolve("App_Options_OptStoreBinder.java")).exists();
+      assertThat(gen.resolve("App_Base_OptStoreBinder.java")).exists();
+      assertThat(gen.resolve("App_PrivateOptions_OptStoreBinder.java")).doesNotExist();
+
+      var src = Files.readString(gen.resolve("App_Options_OptStoreBinder.java"));
+      assertThat(src).contains(
+        "java.util.List.of(\"host\", \"h\"), java.util.List.of(\"localhost\")",
+        "\"The \\\"host\\\".\"",
+        "java.util.List.of(\"tag\"), java.util.List.of(\"a\", \"b\")",
+        "optStore.port = java.lang.Integer.parseInt(optArgs.get(0));",
+        "((com.example.App.Base) optStore).base = (int) value;",
+        "optStore.timeout = convert(java.time.Duration.class, \"timeout\", optArgs.get(0));",
+        "optStore.dirs = convertAll(java.nio.file.Path.class, \"dirs\", optArgs);",
+        "java.util.List.class, java.lang.Integer.class,",
+        "optStore.names = convertToSet(java.lang.String.class, \"names\", optArgs);",
+        "optStore.counts = com.github.sttk.cliargs.IntList.of(arr);");
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_parse_for_option_stores_with_generated_binders(@TempDir Path dir) {
+    try {
+      var out = compile(dir).resolve("out");
+      var urls = new java.net.URL[] { out.toUri().toURL() };
+      try (var loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+        var cls = loader.loadClass("com.example.App$Options");
+        var store = cls.getConstructor().newInstance();
+
+        var cmd = new Cmd("app", "-p", "9", "--id=1,2", "-v", "--price=1.5", "--dir=a",
+          "--num=3,4", "--count=5");
+        cmd.parseFor(store);
+
+        assertThat(cls.getField("host").get(store)).isEqualTo("localhost");
+        assertThat(field(cls, "port").get(store)).isEqualTo(9);
+        assertThat(cls.getField("ids").get(store)).isEqualTo(new int[] { 1, 2 });
+        assertThat(field(cls, "tags").get(store)).isEqualTo(new String[] { "a", "b" });
+        assertThat(field(cls, "verbose").get(store)).isEqualTo(true);
+        assertThat(field(cls, "price").get(store)).isEqualTo(new java.math.BigDecimal("1.5"));
+        assertThat(field(cls, "timeout").get(store)).isEqualTo(java.time.Duration.ofSeconds(1));
+        assertThat(field(cls, "dirs").get(store)).isEqualTo(new Path[] { Path.of("a") });
+        assertThat(field(cls, "nums").get(store)).isEqualTo(List.of(3, 4));
+        assertThat(field(cls, "names").get(store)).isEqualTo(java.util.Set.of("a", "b"));
+        assertThat(field(cls, "counts").get(store))
+          .isEqualTo(com.github.sttk.cliargs.IntList.of(5));
+        assertThat(cls.getField("base").get(store)).isEqualTo(7);
+        assertThat(cmd.optCfgs()).hasSize(12);
+      }
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  static java.lang.reflect.Field field(Class<?> cls, String name) throws Exception {
+    var fld = cls.getDeclaredField(name);
+    fld.setAccessible(true);
+    return fld;
+  }
+
+  @Test
+  void should_divide_default_values_in_the_same_way_as_at_runtime() {
+    assertThat(OptStoreBinderProcessor.parseDefaults("abc", "")).containsExactly("abc");
+    assertThat(OptStoreBinderProcessor.parseDefaults("", "")).containsExactly("");
+    assertThat(OptStoreBinderProcessor.parseDefaults("[]", "")).isEmpty();
+    assertThat(OptStoreBinderProcessor.parseDefaults("[1,2,,]", "")).containsExactly("1", "2");
+    assertThat(OptStoreBinderProcessor.parseDefaults("/[1/2]", "")).containsExactly("1", "2");
+    assertThat(OptStoreBinderProcessor.parseDefaults("1::2", "::")).containsExactly("1", "2");
+    assertThat(OptStoreBinderProcessor.parseDefaults("1,,2,", ",")).containsExactly("1", "", "2", "");
+    assertThat(OptStoreBinderProcessor.parseNames("")).isEmpty();
+    assertThat(OptStoreBinderProcessor.parseNames("foo-bar,f")).containsExactly("foo-bar", "f");
+  }
+
+  public static class DefaultsStore {
+    @Opt(cfg="a=[]") public String[] a;
+    @Opt(cfg="b=[,]") public String[] b;
+    @Opt(cfg="c=[a,]") public String[] c;
+    @Opt(cfg="d=/[a/b/]") public String[] d;
+    @Opt(cfg="e=[a,,b]") public String[] e;
+    @Opt(cfg="f=[a]x") public String[] f;
+    @Opt(cfg="g=:[a:b]", sep=":") public String[] g;
+    @Opt(cfg="h=a::b::", sep="::") public String[] h;
+    @Opt(cfg="i=", sep=",") public String[] i;
+    @Opt(cfg="j=[]") public String j;
+    @Opt(cfg="k=a=b") public String k;
+    @Opt(cfg="foo-bar,l=x") public String l;
+    @Opt(cfg="=x") public String m;
+    @Opt public String n;
+  }
+
+  @Test
+  void should_divide_names_and_default_values_same_as_runtime() {
+    var cfgs = OptCfg.makeOptCfgsFor(new DefaultsStore());
+    assertThat(cfgs).hasSize(DefaultsStore.class.getDeclaredFields().length);
+
+    for (var cfg : cfgs) {
+      try {
+        var opt = DefaultsStore.class.getField(cfg.storeKey).getAnnotation(Opt.class);
+        var namesAndDefaults = opt.cfg().split("=", 2);
+        assertThat(OptStoreBinderProcessor.parseNames(namesAndDefaults[0]))
+          .as(opt.cfg()).isEqualTo(cfg.names);
+        if (namesAndDefaults.length < 2) {
+          assertThat(cfg.defaults).as(opt.cfg()).isEmpty();
+        } else {
+          assertThat(OptStoreBinderProcessor.parseDefaults(namesAndDefaults[1], opt.sep()))
+            .as(opt.cfg()).isEqualTo(cfg.defaults.get());
+        }
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Test
+  void should_escape_string_literals() {
+    assertThat(OptStoreBinderProcessor.literal("a\"b\\c\né"))
+      .isEqualTo("\"a\\\"b\\\\c\\n\\u00e9\"");
+  }
+}
@@ -0,0 +1,92 @@
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cmd#parseFor} with an array option which is repeated many times, like
+ * {@code --id 1 --id 2 ...}, for the fields of primitive arrays, primitive lists and lists of
+ * boxed values.
+ * Run with {@code -prof gc} to see the bytes allocated per parsing: {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayOptionBench {
+
+  static final int VALUE_COUNT = 200_000;
+
+  public static class Options {
+    @Opt(cfg="id")
+    public int[] ids;
+
+    @Opt(cfg="w")
+    public long[] weights;
+  }
+
+  public static class ListOptions {
+    @Opt(cfg="id")
+    public IntList ids;
+
+    @Opt(cfg="w")
+    public LongList weights;
+  }
+
+  public static class BoxedListOptions {
+    @Opt(cfg="id")
+    public List<Integer> ids;
+
+    @Opt(cfg="w")
+    public List<Long> weights;
+  }
+
+  String[] osArgs;
+
+  @Setup
+  public void setup() {
+    this.osArgs = new String[VALUE_COUNT * 2];
+    for (int i = 0; i < VALUE_COUNT; i += 2) {
+      this.osArgs[i * 2] = "--id";
+      this.osArgs[i * 2 + 1] = Integer.toString(i * 7919);
+      this.osArgs[i * 2 + 2] = "-w";
+      this.osArgs[i * 2 + 3] = Long.toString(i * 1_000_003L);
+    }
+  }
+
+  @Benchmark
+  public Options parseFor() throws Exception {
+    var options = new Options();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+
+  @Benchmark
+  public ListOptions parseForPrimitiveLists() throws Exception {
+    var options = new ListOptions();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+
+  @Benchmark
+  public BoxedListOptions parseForBoxedLists() throws Exception {
+    var options = new BoxedListOptions();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the scaling of {@link Batch} over the number of threads, where 0 means all available
+ * processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBench {
+
+  @Param({"1", "4", "0"})
+  int threads;
+
+  static final int CMD_LINE_COUNT = 20_000;
+
+  CompiledSpec spec;
+  List<List<String>> cmdLines;
+
+  @Setup
+  public void setup() throws Exception {
+    this.spec = new CompiledSpec(new OptCfg[] {
+      new OptCfg(names("verbose", "v")),
+      new OptCfg(names("jobs", "j"), hasArg(true)),
+      new OptCfg(names("include", "I"), hasArg(true), isArray(true)),
+      new OptCfg(names("output", "o"), hasArg(true), defaults("a.out")),
+      new OptCfg(names("dry-run", "n")),
+    });
+
+    this.cmdLines = new ArrayList<>(CMD_LINE_COUNT);
+    for (int i = 0; i < CMD_LINE_COUNT; i++) {
+      this.cmdLines.add(List.of(
+        "/usr/bin/job", "-v", "--jobs=" + (i % 16), "-I", "/usr/include", "--include=/opt/inc",
+        "-o", "out" + i, "src" + i + ".c", "lib" + i + ".c"));
+    }
+
+    if (this.threads == 0) {
+      this.threads = Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  @Benchmark
+  public List<Batch.Item> parse() {
+    return Batch.parseWith(this.spec, this.cmdLines, this.threads);
+  }
+}
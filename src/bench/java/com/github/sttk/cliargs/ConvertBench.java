@@ -0,0 +1,61 @@
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cmd#parseFor} with array options of {@link BigDecimal} and {@link Integer},
+ * whose option arguments are validated and converted to the field values.
+ * Run with {@code -prof gc} to see the bytes allocated per parsing: {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertBench {
+
+  static final int VALUE_COUNT = 200_000;
+
+  public static class Options {
+    @Opt(cfg="id")
+    public Integer[] ids;
+
+    @Opt(cfg="p")
+    public BigDecimal[] prices;
+  }
+
+  String[] osArgs;
+
+  @Setup
+  public void setup() {
+    this.osArgs = new String[VALUE_COUNT * 2];
+    for (int i = 0; i < VALUE_COUNT; i += 2) {
+      this.osArgs[i * 2] = "--id";
+      this.osArgs[i * 2 + 1] = Integer.toString(i * 7919);
+      this.osArgs[i * 2 + 2] = "-p";
+      this.osArgs[i * 2 + 3] = i + "." + (i % 100);
+    }
+  }
+
+  @Benchmark
+  public Options parseFor() throws Exception {
+    var options = new Options();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+}
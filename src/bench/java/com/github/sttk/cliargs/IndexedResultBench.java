@@ -0,0 +1,61 @@
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ParseResult} with {@link IndexedResult} for a command line which has tens of
+ * thousands of arguments.
+ * Run with {@code -prof gc} to see the bytes allocated per parsing: {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexedResultBench {
+
+  static final int ARG_COUNT = 50_000;
+
+  Parser parser;
+  List<String> osArgs;
+
+  @Setup
+  public void setup() throws Exception {
+    this.parser = new Parser(new CompiledSpec(new OptCfg[] {
+      new OptCfg(names("define", "D"), hasArg(true), isArray(true)),
+      new OptCfg(names("verbose", "v")),
+    }));
+
+    this.osArgs = new ArrayList<>(ARG_COUNT);
+    for (int i = 0; i < ARG_COUNT; i += 2) {
+      this.osArgs.add("--define=key" + i + "=value" + i);
+      this.osArgs.add("file" + i + ".txt");
+    }
+  }
+
+  @Benchmark
+  public ParseResult parse() throws Exception {
+    return this.parser.parse(this.osArgs);
+  }
+
+  @Benchmark
+  public IndexedResult parseIndexed() throws Exception {
+    return this.parser.parseIndexed(this.osArgs);
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.sttk.cliargs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the lookup of option names in command line arguments like {@code --name=value}
+ * between {@link HashMap} with substring keys and {@link NameIndex} with regions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameIndexBench {
+
+  @Param({"10", "100", "5000"})
+  int optCount;
+
+  static final int ARG_COUNT = 1024;
+
+  Map<String, Integer> map;
+  NameIndex index;
+  String[] args;
+  int[] nameEnds;
+
+  @Setup
+  public void setup() {
+    var rnd = new Random(12345);
+
+    var names = new String[optCount];
+    this.map = new HashMap<>();
+    for (int i = 0; i < optCount; i++) {
+      names[i] = randomName(rnd);
+      this.map.put(names[i], i);
+    }
+    this.index = new NameIndex(this.map);
+
+    this.args = new String[ARG_COUNT];
+    this.nameEnds = new int[ARG_COUNT];
+    for (int i = 0; i < ARG_COUNT; i++) {
+      var name = names[rnd.nextInt(optCount)];
+      if (rnd.nextInt(8) == 0) {
+        name = randomName(rnd); // unconfigured
+      }
+      this.args[i] = "--" + name + "=value";
+      this.nameEnds[i] = 2 + name.length();
+    }
+  }
+
+  private static String randomName(Random rnd) {
+    var sb = new StringBuilder();
+    int n = 3 + rnd.nextInt(14);
+    sb.append((char) ('a' + rnd.nextInt(26)));
+    for (int i = 1; i < n; i++) {
+      int c = rnd.nextInt(37);
+      sb.append(c < 26 ? (char) ('a' + c) : (c < 36 ? (char) ('0' + c - 26) : '-'));
+    }
+    return sb.toString();
+  }
+
+  @Benchmark
+  public int hashMap() {
+    int sum = 0;
+    for (int i = 0; i < ARG_COUNT; i++) {
+      Integer idx = this.map.get(this.args[i].substring(2, this.nameEnds[i]));
+      if (idx != null) {
+        sum += idx;
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int nameIndex() {
+    int sum = 0;
+    for (int i = 0; i < ARG_COUNT; i++) {
+      int idx = this.index.get(this.args[i], 2, this.nameEnds[i]);
+      if (idx >= 0) {
+        sum += idx;
+      }
+    }
+    return sum;
+  }
+}
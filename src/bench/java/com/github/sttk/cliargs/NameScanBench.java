@@ -0,0 +1,123 @@
+package com.github.sttk.cliargs;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-token cost of scanning option names between the code point path with branch
+ * chains (the former implementation, kept here as the reference) and the ASCII class table path
+ * of {@link Tokenizer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameScanBench {
+
+  static final List<String> ARGS = List.of(
+    "--foo-bar", "--verbose", "--output-file=out.txt", "-abc", "-vvvv", "--level=3",
+    "--include-hidden-files", "-x=1", "--no-color", "--max-count=100"
+  );
+  static final int TOKENS = 22;
+
+  static final Tokenizer.TakesArg NO_ARG = (s, start, end) -> false;
+
+  @Benchmark
+  @OperationsPerInvocation(TOKENS)
+  public int asciiTable() {
+    var t = new Tokenizer(ARGS.iterator(), NO_ARG, false);
+    int sum = 0;
+    for (int kind = t.next(); kind != Tokenizer.END; kind = t.next()) {
+      sum += t.end - t.start;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TOKENS)
+  public int codePoint() {
+    int sum = 0;
+    for (var arg : ARGS) {
+      if (arg.startsWith("--")) {
+        sum += scanLong(arg);
+      } else {
+        sum += scanShort(arg);
+      }
+    }
+    return sum;
+  }
+
+  private static int scanLong(String arg) {
+    int i = 2, len = arg.length();
+    while (i < len) {
+      int cp = arg.codePointAt(i);
+      int cw = Character.charCount(cp);
+      if (i > 2) {
+        if (cp == 0x3d) {
+          return i - 2;
+        }
+        if (! isAllowedCodePoint(cp)) {
+          return 0;
+        }
+      } else if (! isAllowedFirstCodePoint(cp)) {
+        return 0;
+      }
+      i += cw;
+    }
+    return len - 2;
+  }
+
+  private static int scanShort(String arg) {
+    int n = 0;
+    int i = 1, len = arg.length();
+    while (i < len) {
+      int cp = arg.codePointAt(i);
+      int cw = Character.charCount(cp);
+      if (i > 1 && cp == 0x3d) {
+        return n;
+      }
+      if (isAllowedFirstCodePoint(cp)) {
+        n++;
+      }
+      i += cw;
+    }
+    return n;
+  }
+
+  private static boolean isAllowedFirstCodePoint(int cp) {
+    if (0x41 <= cp && cp <= 0x5a) {
+      return true;
+    } else if (0x61 <= cp && cp <= 0x7a) {
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private static boolean isAllowedCodePoint(int cp) {
+    if (cp == 0x2d) {
+      return true;
+    } else if (0x30 <= cp && cp <= 0x39) {
+      return true;
+    } else if (0x41 <= cp && cp <= 0x5a) {
+      return true;
+    } else if (0x61 <= cp && cp <= 0x7a) {
+      return true;
+    } else {
+      return false;
+    }
+  }
+}
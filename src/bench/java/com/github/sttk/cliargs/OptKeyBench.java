@@ -0,0 +1,69 @@
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares re-reading option values by names and conversions with reading them by the typed
+ * accessors with names and by {@link OptKey} handles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptKeyBench {
+
+  ParseResult result;
+  OptKey.OfInt port;
+  OptKey.OfLong timeout;
+  OptKey.OfDouble ratio;
+
+  @Setup
+  public void setup() throws Exception {
+    var spec = new CompiledSpec(new OptCfg[] {
+      new OptCfg(names("port"), hasArg(true)),
+      new OptCfg(names("timeout"), hasArg(true)),
+      new OptCfg(names("ratio"), hasArg(true), defaults("0.75")),
+      new OptCfg(names("verbose", "v")),
+    });
+    this.port = spec.intKey("port");
+    this.timeout = spec.longKey("timeout");
+    this.ratio = spec.doubleKey("ratio");
+    this.result = new Parser(spec).parse(List.of("--port=8080", "--timeout=30000", "-v"));
+  }
+
+  @Benchmark
+  public double byNames() {
+    var r = this.result;
+    return Integer.parseInt(r.optArg("port").get()) +
+      Long.parseLong(r.optArg("timeout").get()) +
+      Double.parseDouble(r.optArg("ratio").get());
+  }
+
+  @Benchmark
+  public double byTypedNames() throws Exception {
+    var r = this.result;
+    return r.optInt("port", 0) + r.optLong("timeout", 0L) + r.optDouble("ratio", 0.0);
+  }
+
+  @Benchmark
+  public double byKeys() throws Exception {
+    var r = this.result;
+    return r.optInt(this.port, 0) + r.optLong(this.timeout, 0L) + r.optDouble(this.ratio, 0.0);
+  }
+}
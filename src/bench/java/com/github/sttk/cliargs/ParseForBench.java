@@ -0,0 +1,91 @@
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cmd#parseFor} with a fresh option store for every parsing, like a daemon which
+ * parses the command line of every request.
+ * {@link #parseForRecord} creates a record with the same options instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseForBench {
+
+  public static class Options {
+    @Opt(cfg="host,h=localhost", desc="The host name.")
+    public String host;
+
+    @Opt(cfg="port,p=8080", desc="The port number.")
+    public int port;
+
+    @Opt(cfg="timeout,t=30000")
+    public long timeout;
+
+    @Opt(cfg="ratio=0.75")
+    public double ratio;
+
+    @Opt(cfg="price")
+    public BigDecimal price;
+
+    @Opt(cfg="tag=[a,b]")
+    public String[] tags;
+
+    @Opt(cfg="id")
+    public int[] ids;
+
+    @Opt(cfg="verbose,v")
+    public boolean verbose;
+
+    @Opt(cfg="quiet,q")
+    public boolean quiet;
+
+    @Opt(cfg="dry-run")
+    public boolean dryRun;
+  }
+
+  public record Config(
+    @Opt(cfg="host,h=localhost", desc="The host name.") String host,
+    @Opt(cfg="port,p=8080", desc="The port number.") int port,
+    @Opt(cfg="timeout,t=30000") long timeout,
+    @Opt(cfg="ratio=0.75") double ratio,
+    @Opt(cfg="price") BigDecimal price,
+    @Opt(cfg="tag=[a,b]") String[] tags,
+    @Opt(cfg="id") int[] ids,
+    @Opt(cfg="verbose,v") boolean verbose,
+    @Opt(cfg="quiet,q") boolean quiet,
+    @Opt(cfg="dry-run") boolean dryRun
+  ) {}
+
+  final String[] osArgs = {
+    "--host=example.com", "-p", "443", "--price=12.5", "--id=1", "--id=2", "-v", "file.txt",
+  };
+
+  @Benchmark
+  public Options parseFor() throws Exception {
+    var options = new Options();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+
+  @Benchmark
+  public Config parseForRecord() throws Exception {
+    return new Cmd("/bin/app", this.osArgs).parseFor(Config.class);
+  }
+}
@@ -0,0 +1,79 @@
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a reused {@link Parser} with a new {@link Cmd} per parsing.
+ * Run with {@code -prof gc} to see the bytes allocated per parsing: {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBench {
+
+  static final ArgVisitor NOP_VISITOR = new ArgVisitor() {
+    @Override
+    public void onOption(int nameIndex, CharSequence value) {}
+    @Override
+    public void onPositional(CharSequence arg) {}
+  };
+
+  CompiledSpec spec;
+  Parser parser;
+  String cmdPath;
+  String[] cmdArgs;
+  List<String> osArgs;
+
+  @Setup
+  public void setup() throws Exception {
+    this.spec = new CompiledSpec(new OptCfg[] {
+      new OptCfg(names("verbose", "v")),
+      new OptCfg(names("jobs", "j"), hasArg(true)),
+      new OptCfg(names("include", "I"), hasArg(true), isArray(true)),
+      new OptCfg(names("output", "o"), hasArg(true), defaults("a.out")),
+      new OptCfg(names("dry-run", "n")),
+    });
+    this.parser = new Parser(this.spec);
+
+    this.cmdPath = "/usr/bin/job";
+    this.cmdArgs = new String[] {
+      "-v", "--jobs=8", "-I", "/usr/include", "--include=/opt/inc", "src.c", "lib.c",
+    };
+    this.osArgs = List.of(this.cmdArgs);
+  }
+
+  @Benchmark
+  public Cmd newCmd() throws Exception {
+    var cmd = new Cmd(this.cmdPath, this.cmdArgs);
+    cmd.parseWith(this.spec);
+    return cmd;
+  }
+
+  @Benchmark
+  public ParseResult reusedParser() throws Exception {
+    return this.parser.parse(this.osArgs);
+  }
+
+  @Benchmark
+  public Parser reusedParserVisit() throws Exception {
+    this.parser.visit(this.osArgs, NOP_VISITOR);
+    return this.parser;
+  }
+}
@@ -0,0 +1,60 @@
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cmd#parseFor} with an option argument which has many values divided by a
+ * separator, like {@code --ids=1,2,3,...}.
+ * The time and the bytes allocated per value should not depend on the number of values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeparatorBench {
+
+  @Param({"10000", "1000000"})
+  int valueCount;
+
+  public static class Options {
+    @Opt(cfg="ids", sep=",")
+    public int[] ids;
+  }
+
+  String[] osArgs;
+
+  @Setup
+  public void setup() {
+    var sb = new StringBuilder("--ids=");
+    for (int i = 0; i < this.valueCount; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(i * 7919);
+    }
+    this.osArgs = new String[]{ sb.toString() };
+  }
+
+  @Benchmark
+  public Options parseFor() throws Exception {
+    var options = new Options();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+}
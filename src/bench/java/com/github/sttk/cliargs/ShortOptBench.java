@@ -0,0 +1,74 @@
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of single-character option names in clusters of short options like
+ * {@code -vvvvxzf}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortOptBench {
+
+  static final ArgVisitor NOP_VISITOR = new ArgVisitor() {
+    @Override
+    public void onOption(int nameIndex, CharSequence value) {}
+    @Override
+    public void onPositional(CharSequence arg) {}
+  };
+
+  Parser parser;
+  NameIndex index;
+  List<String> osArgs;
+
+  @Setup
+  public void setup() throws Exception {
+    var spec = new CompiledSpec(new OptCfg[] {
+      new OptCfg(names("verbose", "v")),
+      new OptCfg(names("extract", "x")),
+      new OptCfg(names("gzip", "z")),
+      new OptCfg(names("file", "f"), hasArg(true)),
+      new OptCfg(names("list", "t")),
+      new OptCfg(names("create", "c")),
+      new OptCfg(names("preserve", "p")),
+      new OptCfg(names("keep", "k")),
+    });
+    this.parser = new Parser(spec);
+    this.index = spec.nameIndex;
+    this.osArgs = List.of("-vvvvxzf", "a.tgz", "-tckp", "-vvvvvvvv", "-xzvk", "b.tgz");
+  }
+
+  @Benchmark
+  public Parser parseClusters() throws Exception {
+    this.parser.visit(this.osArgs, NOP_VISITOR);
+    return this.parser;
+  }
+
+  @Benchmark
+  public int lookupChars() {
+    var s = "-vvvvxzftckp";
+    int sum = 0;
+    for (int i = 1, n = s.length(); i < n; i++) {
+      sum += this.index.get(s, i, i + 1);
+    }
+    return sum;
+  }
+}
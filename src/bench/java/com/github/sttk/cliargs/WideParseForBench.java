@@ -0,0 +1,664 @@
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cmd#parseFor} with an option store of 200 fields, which are set from
+ * 20 specified options and the default values of about 80 fields at every parsing.
+ * {@link #setFieldValues} measures only setting the fields from the result of parsing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideParseForBench {
+
+  public static class Options {
+    @Opt(cfg="o0=s0")
+    public String o0;
+
+    @Opt(cfg="o1")
+    public int o1;
+
+    @Opt(cfg="o2=2")
+    public long o2;
+
+    @Opt(cfg="o3")
+    public double o3;
+
+    @Opt(cfg="o4")
+    public boolean o4;
+
+    @Opt(cfg="o5")
+    public String o5;
+
+    @Opt(cfg="o6=6")
+    public int o6;
+
+    @Opt(cfg="o7")
+    public long o7;
+
+    @Opt(cfg="o8=8.5")
+    public double o8;
+
+    @Opt(cfg="o9")
+    public boolean o9;
+
+    @Opt(cfg="o10=s10")
+    public String o10;
+
+    @Opt(cfg="o11")
+    public int o11;
+
+    @Opt(cfg="o12=12")
+    public long o12;
+
+    @Opt(cfg="o13")
+    public double o13;
+
+    @Opt(cfg="o14")
+    public boolean o14;
+
+    @Opt(cfg="o15")
+    public String o15;
+
+    @Opt(cfg="o16=16")
+    public int o16;
+
+    @Opt(cfg="o17")
+    public long o17;
+
+    @Opt(cfg="o18=18.5")
+    public double o18;
+
+    @Opt(cfg="o19")
+    public boolean o19;
+
+    @Opt(cfg="o20=s20")
+    public String o20;
+
+    @Opt(cfg="o21")
+    public int o21;
+
+    @Opt(cfg="o22=22")
+    public long o22;
+
+    @Opt(cfg="o23")
+    public double o23;
+
+    @Opt(cfg="o24")
+    public boolean o24;
+
+    @Opt(cfg="o25")
+    public String o25;
+
+    @Opt(cfg="o26=26")
+    public int o26;
+
+    @Opt(cfg="o27")
+    public long o27;
+
+    @Opt(cfg="o28=28.5")
+    public double o28;
+
+    @Opt(cfg="o29")
+    public boolean o29;
+
+    @Opt(cfg="o30=s30")
+    public String o30;
+
+    @Opt(cfg="o31")
+    public int o31;
+
+    @Opt(cfg="o32=32")
+    public long o32;
+
+    @Opt(cfg="o33")
+    public double o33;
+
+    @Opt(cfg="o34")
+    public boolean o34;
+
+    @Opt(cfg="o35")
+    public String o35;
+
+    @Opt(cfg="o36=36")
+    public int o36;
+
+    @Opt(cfg="o37")
+    public long o37;
+
+    @Opt(cfg="o38=38.5")
+    public double o38;
+
+    @Opt(cfg="o39")
+    public boolean o39;
+
+    @Opt(cfg="o40=s40")
+    public String o40;
+
+    @Opt(cfg="o41")
+    public int o41;
+
+    @Opt(cfg="o42=42")
+    public long o42;
+
+    @Opt(cfg="o43")
+    public double o43;
+
+    @Opt(cfg="o44")
+    public boolean o44;
+
+    @Opt(cfg="o45")
+    public String o45;
+
+    @Opt(cfg="o46=46")
+    public int o46;
+
+    @Opt(cfg="o47")
+    public long o47;
+
+    @Opt(cfg="o48=48.5")
+    public double o48;
+
+    @Opt(cfg="o49")
+    public boolean o49;
+
+    @Opt(cfg="o50=s50")
+    public String o50;
+
+    @Opt(cfg="o51")
+    public int o51;
+
+    @Opt(cfg="o52=52")
+    public long o52;
+
+    @Opt(cfg="o53")
+    public double o53;
+
+    @Opt(cfg="o54")
+    public boolean o54;
+
+    @Opt(cfg="o55")
+    public String o55;
+
+    @Opt(cfg="o56=56")
+    public int o56;
+
+    @Opt(cfg="o57")
+    public long o57;
+
+    @Opt(cfg="o58=58.5")
+    public double o58;
+
+    @Opt(cfg="o59")
+    public boolean o59;
+
+    @Opt(cfg="o60=s60")
+    public String o60;
+
+    @Opt(cfg="o61")
+    public int o61;
+
+    @Opt(cfg="o62=62")
+    public long o62;
+
+    @Opt(cfg="o63")
+    public double o63;
+
+    @Opt(cfg="o64")
+    public boolean o64;
+
+    @Opt(cfg="o65")
+    public String o65;
+
+    @Opt(cfg="o66=66")
+    public int o66;
+
+    @Opt(cfg="o67")
+    public long o67;
+
+    @Opt(cfg="o68=68.5")
+    public double o68;
+
+    @Opt(cfg="o69")
+    public boolean o69;
+
+    @Opt(cfg="o70=s70")
+    public String o70;
+
+    @Opt(cfg="o71")
+    public int o71;
+
+    @Opt(cfg="o72=72")
+    public long o72;
+
+    @Opt(cfg="o73")
+    public double o73;
+
+    @Opt(cfg="o74")
+    public boolean o74;
+
+    @Opt(cfg="o75")
+    public String o75;
+
+    @Opt(cfg="o76=76")
+    public int o76;
+
+    @Opt(cfg="o77")
+    public long o77;
+
+    @Opt(cfg="o78=78.5")
+    public double o78;
+
+    @Opt(cfg="o79")
+    public boolean o79;
+
+    @Opt(cfg="o80=s80")
+    public String o80;
+
+    @Opt(cfg="o81")
+    public int o81;
+
+    @Opt(cfg="o82=82")
+    public long o82;
+
+    @Opt(cfg="o83")
+    public double o83;
+
+    @Opt(cfg="o84")
+    public boolean o84;
+
+    @Opt(cfg="o85")
+    public String o85;
+
+    @Opt(cfg="o86=86")
+    public int o86;
+
+    @Opt(cfg="o87")
+    public long o87;
+
+    @Opt(cfg="o88=88.5")
+    public double o88;
+
+    @Opt(cfg="o89")
+    public boolean o89;
+
+    @Opt(cfg="o90=s90")
+    public String o90;
+
+    @Opt(cfg="o91")
+    public int o91;
+
+    @Opt(cfg="o92=92")
+    public long o92;
+
+    @Opt(cfg="o93")
+    public double o93;
+
+    @Opt(cfg="o94")
+    public boolean o94;
+
+    @Opt(cfg="o95")
+    public String o95;
+
+    @Opt(cfg="o96=96")
+    public int o96;
+
+    @Opt(cfg="o97")
+    public long o97;
+
+    @Opt(cfg="o98=98.5")
+    public double o98;
+
+    @Opt(cfg="o99")
+    public boolean o99;
+
+    @Opt(cfg="o100=s100")
+    public String o100;
+
+    @Opt(cfg="o101")
+    public int o101;
+
+    @Opt(cfg="o102=102")
+    public long o102;
+
+    @Opt(cfg="o103")
+    public double o103;
+
+    @Opt(cfg="o104")
+    public boolean o104;
+
+    @Opt(cfg="o105")
+    public String o105;
+
+    @Opt(cfg="o106=106")
+    public int o106;
+
+    @Opt(cfg="o107")
+    public long o107;
+
+    @Opt(cfg="o108=108.5")
+    public double o108;
+
+    @Opt(cfg="o109")
+    public boolean o109;
+
+    @Opt(cfg="o110=s110")
+    public String o110;
+
+    @Opt(cfg="o111")
+    public int o111;
+
+    @Opt(cfg="o112=112")
+    public long o112;
+
+    @Opt(cfg="o113")
+    public double o113;
+
+    @Opt(cfg="o114")
+    public boolean o114;
+
+    @Opt(cfg="o115")
+    public String o115;
+
+    @Opt(cfg="o116=116")
+    public int o116;
+
+    @Opt(cfg="o117")
+    public long o117;
+
+    @Opt(cfg="o118=118.5")
+    public double o118;
+
+    @Opt(cfg="o119")
+    public boolean o119;
+
+    @Opt(cfg="o120=s120")
+    public String o120;
+
+    @Opt(cfg="o121")
+    public int o121;
+
+    @Opt(cfg="o122=122")
+    public long o122;
+
+    @Opt(cfg="o123")
+    public double o123;
+
+    @Opt(cfg="o124")
+    public boolean o124;
+
+    @Opt(cfg="o125")
+    public String o125;
+
+    @Opt(cfg="o126=126")
+    public int o126;
+
+    @Opt(cfg="o127")
+    public long o127;
+
+    @Opt(cfg="o128=128.5")
+    public double o128;
+
+    @Opt(cfg="o129")
+    public boolean o129;
+
+    @Opt(cfg="o130=s130")
+    public String o130;
+
+    @Opt(cfg="o131")
+    public int o131;
+
+    @Opt(cfg="o132=132")
+    public long o132;
+
+    @Opt(cfg="o133")
+    public double o133;
+
+    @Opt(cfg="o134")
+    public boolean o134;
+
+    @Opt(cfg="o135")
+    public String o135;
+
+    @Opt(cfg="o136=136")
+    public int o136;
+
+    @Opt(cfg="o137")
+    public long o137;
+
+    @Opt(cfg="o138=138.5")
+    public double o138;
+
+    @Opt(cfg="o139")
+    public boolean o139;
+
+    @Opt(cfg="o140=s140")
+    public String o140;
+
+    @Opt(cfg="o141")
+    public int o141;
+
+    @Opt(cfg="o142=142")
+    public long o142;
+
+    @Opt(cfg="o143")
+    public double o143;
+
+    @Opt(cfg="o144")
+    public boolean o144;
+
+    @Opt(cfg="o145")
+    public String o145;
+
+    @Opt(cfg="o146=146")
+    public int o146;
+
+    @Opt(cfg="o147")
+    public long o147;
+
+    @Opt(cfg="o148=148.5")
+    public double o148;
+
+    @Opt(cfg="o149")
+    public boolean o149;
+
+    @Opt(cfg="o150=s150")
+    public String o150;
+
+    @Opt(cfg="o151")
+    public int o151;
+
+    @Opt(cfg="o152=152")
+    public long o152;
+
+    @Opt(cfg="o153")
+    public double o153;
+
+    @Opt(cfg="o154")
+    public boolean o154;
+
+    @Opt(cfg="o155")
+    public String o155;
+
+    @Opt(cfg="o156=156")
+    public int o156;
+
+    @Opt(cfg="o157")
+    public long o157;
+
+    @Opt(cfg="o158=158.5")
+    public double o158;
+
+    @Opt(cfg="o159")
+    public boolean o159;
+
+    @Opt(cfg="o160=s160")
+    public String o160;
+
+    @Opt(cfg="o161")
+    public int o161;
+
+    @Opt(cfg="o162=162")
+    public long o162;
+
+    @Opt(cfg="o163")
+    public double o163;
+
+    @Opt(cfg="o164")
+    public boolean o164;
+
+    @Opt(cfg="o165")
+    public String o165;
+
+    @Opt(cfg="o166=166")
+    public int o166;
+
+    @Opt(cfg="o167")
+    public long o167;
+
+    @Opt(cfg="o168=168.5")
+    public double o168;
+
+    @Opt(cfg="o169")
+    public boolean o169;
+
+    @Opt(cfg="o170=s170")
+    public String o170;
+
+    @Opt(cfg="o171")
+    public int o171;
+
+    @Opt(cfg="o172=172")
+    public long o172;
+
+    @Opt(cfg="o173")
+    public double o173;
+
+    @Opt(cfg="o174")
+    public boolean o174;
+
+    @Opt(cfg="o175")
+    public String o175;
+
+    @Opt(cfg="o176=176")
+    public int o176;
+
+    @Opt(cfg="o177")
+    public long o177;
+
+    @Opt(cfg="o178=178.5")
+    public double o178;
+
+    @Opt(cfg="o179")
+    public boolean o179;
+
+    @Opt(cfg="o180=s180")
+    public String o180;
+
+    @Opt(cfg="o181")
+    public int o181;
+
+    @Opt(cfg="o182=182")
+    public long o182;
+
+    @Opt(cfg="o183")
+    public double o183;
+
+    @Opt(cfg="o184")
+    public boolean o184;
+
+    @Opt(cfg="o185")
+    public String o185;
+
+    @Opt(cfg="o186=186")
+    public int o186;
+
+    @Opt(cfg="o187")
+    public long o187;
+
+    @Opt(cfg="o188=188.5")
+    public double o188;
+
+    @Opt(cfg="o189")
+    public boolean o189;
+
+    @Opt(cfg="o190=s190")
+    public String o190;
+
+    @Opt(cfg="o191")
+    public int o191;
+
+    @Opt(cfg="o192=192")
+    public long o192;
+
+    @Opt(cfg="o193")
+    public double o193;
+
+    @Opt(cfg="o194")
+    public boolean o194;
+
+    @Opt(cfg="o195")
+    public String o195;
+
+    @Opt(cfg="o196=196")
+    public int o196;
+
+    @Opt(cfg="o197")
+    public long o197;
+
+    @Opt(cfg="o198=198.5")
+    public double o198;
+
+    @Opt(cfg="o199")
+    public boolean o199;
+  }
+
+  final String[] osArgs = {
+    "--o0=s0", "--o11=11", "--o22=22", "--o33=33.5", "--o44", "--o50=s50", "--o61=61", "--o72=72",
+    "--o83=83.5", "--o94", "--o100=s100", "--o111=111", "--o122=122", "--o133=133.5", "--o144",
+    "--o150=s150", "--o161=161", "--o172=172", "--o183=183.5", "--o194", "file.txt",
+  };
+
+  OptCfg[] cfgs;
+  Map<String, List<String>> opts;
+
+  @Setup
+  public void setup() throws Exception {
+    var binding = OptStoreBinding.of(Options.class);
+    this.cfgs = binding.cfgs;
+    this.opts = new Parser(binding.spec).parse(List.of(this.osArgs)).opts();
+  }
+
+  @Benchmark
+  public Options parseFor() throws Exception {
+    var options = new Options();
+    new Cmd("/bin/app", this.osArgs).parseFor(options);
+    return options;
+  }
+
+  @Benchmark
+  public Options setFieldValues() throws Exception {
+    var options = new Options();
+    ParseFor.setOptionStoreFieldValues(options, this.cfgs, this.opts);
+    return options;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+
+import java.util.StringJoiner;
+
+/**
+ * Is an event of command line arguments which is pulled by the iterator or the stream returned by
+ * {@link Cmd#iterateWith} or {@link Cmd#streamWith}.
+ * <p>
+ * An option name and an option argument of this event are kept as the offsets in the command
+ * line argument, and they are materialized into strings only when {@link #name} or
+ * {@link #value} is called.
+ */
+public final class ArgEvent {
+
+  /**
+   * Is the enum for the kinds of events.
+   */
+  public enum Kind {
+    /** Indicates an option configured in a {@link CompiledSpec}. */
+    OPTION,
+
+    /** Indicates an option which is not configured but allowed by {@code "*"}. */
+    ANY_OPTION,
+
+    /** Indicates a command argument. */
+    POSITIONAL,
+
+    /** Indicates the end of options: {@code --}. */
+    END_OF_OPTIONS,
+
+    /** Indicates an option which is invalid. */
+    INVALID_OPTION,
+  }
+
+  private final Kind kind;
+  private final int argIndex;
+  private final int nameIndex;
+
+  private final CharSequence arg;
+  private final int start;
+  private final int end;
+
+  private final CharSequence value;
+  private final int valueStart;
+  private final int valueEnd;
+
+  private final InvalidOption exception;
+
+  private String nameString;
+  private String valueString;
+
+  ArgEvent(
+    Kind kind, int argIndex, int nameIndex, CharSequence arg, int start, int end,
+    CharSequence value, int valueStart, int valueEnd, InvalidOption exception
+  ) {
+    this.kind = kind;
+    this.argIndex = argIndex;
+    this.nameIndex = nameIndex;
+    this.arg = arg;
+    this.start = start;
+    this.end = end;
+    this.value = value;
+    this.valueStart = valueStart;
+    this.valueEnd = valueEnd;
+    this.exception = exception;
+  }
+
+  /**
+   * Returns the kind of this event.
+   *
+   * @return  The kind of this event.
+   */
+  public Kind kind() {
+    return this.kind;
+  }
+
+  /**
+   * Returns the index of the command line argument of this event.
+   * <p>
+   * If this event is for a default value of an option, this method returns -1.
+   *
+   * @return  The index of the command line argument.
+   */
+  public int argIndex() {
+    return this.argIndex;
+  }
+
+  /**
+   * Returns the index of the option configuration in {@link CompiledSpec#optCfgs} if the kind of
+   * this event is {@link Kind#OPTION}, otherwise returns -1.
+   *
+   * @return  The index of the option configuration.
+   */
+  public int nameIndex() {
+    return this.nameIndex;
+  }
+
+  /**
+   * Returns the option name of this event.
+   * <p>
+   * If this event is a command argument, this method returns the command argument.
+   * If this event is for a default value of an option, this method returns the store key of the
+   * option.
+   * If this event is the end of options, this method returns {@code "--"}.
+   *
+   * @return  The option name.
+   */
+  public String name() {
+    if (this.nameString == null) {
+      this.nameString = this.arg.subSequence(this.start, this.end).toString();
+    }
+    return this.nameString;
+  }
+
+  /**
+   * Returns the option argument of this event.
+   *
+   * @return  The option argument, or null if this event has no option argument.
+   */
+  public String value() {
+    if (this.value == null) {
+      return null;
+    }
+    if (this.valueString == null) {
+      if (this.valueStart == 0 && this.valueEnd == this.value.length()) {
+        this.valueString = this.value.toString();
+      } else {
+        this.valueString = this.value.subSequence(this.valueStart, this.valueEnd).toString();
+      }
+    }
+    return this.valueString;
+  }
+
+  /**
+   * Returns the exception if the kind of this event is {@link Kind#INVALID_OPTION}, otherwise
+   * returns null.
+   *
+   * @return  The exception which represents why the option is invalid.
+   */
+  public InvalidOption exception() {
+    return this.exception;
+  }
+
+  /**
+   * Returns a {@code String} object representing the content of this object.
+   *
+   * @return A stirng representation of the content of this object.
+   */
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "ArgEvent{", "}")
+      .add("kind=" + this.kind)
+      .add("argIndex=" + this.argIndex)
+      .add("nameIndex=" + this.nameIndex)
+      .add("name=" + name())
+      .add("value=" + value())
+      .toString();
+  }
+}
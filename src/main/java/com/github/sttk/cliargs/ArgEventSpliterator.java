@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.Base.indexOfSeparator;
+import static com.github.sttk.cliargs.Base.isEmpty;
+import static com.github.sttk.cliargs.ParseWith.checkOpt;
+import static com.github.sttk.cliargs.ParseWith.takesArgOf;
+import static com.github.sttk.cliargs.ParseWith.validateOptArg;
+
+import com.github.sttk.cliargs.ArgEvent.Kind;
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionContainsInvalidChar;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Is the spliterator which tokenizes and checks command line arguments only as far as events are
+ * pulled.
+ * <p>
+ * After all command line arguments are consumed, this spliterator supplies events of the default
+ * values of the options which are not given.
+ */
+final class ArgEventSpliterator implements Spliterator<ArgEvent> {
+
+  private final Iterator<? extends CharSequence> osArgs;
+  private final CompiledSpec spec;
+  private final Tokenizer tokenizer;
+  private final int[] counts;
+
+  // The index of the option configuration to check for defaults, or -1 while tokenizing.
+  private int defaultsIndex = -1;
+  private int defaultValueIndex;
+
+  // The index of the option configuration whose option argument is being divided by the
+  // separator, or -1, and the region of the rest of the option argument.
+  private int dividedIndex = -1;
+  private int dividedStart;
+  private int dividedEnd;
+
+  ArgEventSpliterator(Iterator<? extends CharSequence> osArgs, CompiledSpec spec,
+    boolean isAfterNonOpt
+  ) {
+    this.spec = spec;
+    this.osArgs = osArgs;
+    this.tokenizer = new Tokenizer(osArgs, takesArgOf(spec), isAfterNonOpt);
+    this.counts = new int[spec.cfgs.length];
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super ArgEvent> action) {
+    if (this.dividedIndex >= 0) {
+      return advanceDividedOptArg(action);
+    }
+
+    if (this.defaultsIndex < 0) {
+      var t = this.tokenizer;
+      switch (t.next()) {
+        case Tokenizer.ARG: {
+          action.accept(event(Kind.POSITIONAL, -1, null, null));
+          return true;
+        }
+        case Tokenizer.OPTION: {
+          try {
+            int i = checkOpt(t, this.spec, this.counts);
+            if (i >= 0 && t.value != null && ! isEmpty(this.spec.cfgs[i].separator)) {
+              this.counts[i]++;
+              this.dividedIndex = i;
+              this.dividedStart = t.valueStart;
+              this.dividedEnd = t.valueEnd;
+              return advanceDividedOptArg(action);
+            } else if (i >= 0) {
+              this.counts[i]++;
+              action.accept(event(Kind.OPTION, i, t.value, null));
+            } else {
+              action.accept(event(Kind.ANY_OPTION, -1, t.value, null));
+            }
+          } catch (InvalidOption e) {
+            action.accept(event(Kind.INVALID_OPTION, -1, t.value, e));
+          }
+          return true;
+        }
+        case Tokenizer.END_OF_OPTIONS: {
+          var a = t.arg;
+          action.accept(new ArgEvent(
+            Kind.END_OF_OPTIONS, t.argIndex, -1, a, 0, a.length(), null, 0, 0, null));
+          return true;
+        }
+        case Tokenizer.INVALID_CHAR: {
+          var e = new OptionContainsInvalidChar(t.name());
+          action.accept(event(Kind.INVALID_OPTION, -1, null, e));
+          return true;
+        }
+        default: {
+          this.defaultsIndex = 0;
+          try {
+            ArgFiles.throwIfFailed(this.osArgs);
+          } catch (InvalidOption e) {
+            var a = e.option();
+            action.accept(
+              new ArgEvent(Kind.INVALID_OPTION, -1, -1, a, 0, a.length(), null, 0, 0, e));
+            return true;
+          }
+          break;
+        }
+      }
+    }
+
+    return advanceDefaults(action);
+  }
+
+  // Supplies an event of the next element of the option argument divided by the separator.
+  private boolean advanceDividedOptArg(Consumer<? super ArgEvent> action) {
+    var t = this.tokenizer;
+    int i = this.dividedIndex;
+    var sep = this.spec.cfgs[i].separator;
+
+    int j = indexOfSeparator(t.value, this.dividedStart, this.dividedEnd, sep);
+    t.setValueRegion(this.dividedStart, j);
+    if (j == this.dividedEnd) {
+      this.dividedIndex = -1;
+    } else {
+      this.dividedStart = j + sep.length();
+    }
+
+    try {
+      validateOptArg(t, this.spec, i);
+      action.accept(event(Kind.OPTION, i, t.value, null));
+    } catch (InvalidOption e) {
+      action.accept(event(Kind.INVALID_OPTION, -1, t.value, e));
+    }
+    return true;
+  }
+
+  private ArgEvent event(Kind kind, int nameIndex, CharSequence value, InvalidOption e) {
+    var t = this.tokenizer;
+    if (value == null) {
+      return new ArgEvent(kind, t.argIndex, nameIndex, t.arg, t.start, t.end, null, 0, 0, e);
+    }
+    return new ArgEvent(
+      kind, t.argIndex, nameIndex, t.arg, t.start, t.end, value, t.valueStart, t.valueEnd, e);
+  }
+
+  private boolean advanceDefaults(Consumer<? super ArgEvent> action) {
+    var cfgs = this.spec.cfgs;
+    var storeKeys = this.spec.storeKeys;
+
+    for (int n = cfgs.length; this.defaultsIndex < n; this.defaultsIndex++) {
+      int i = this.defaultsIndex;
+      if (storeKeys[i] == null || this.counts[i] > 0 || cfgs[i].defaults.isEmpty()) {
+        continue;
+      }
+
+      var defs = cfgs[i].defaults.get();
+      if (this.defaultValueIndex < defs.size()) {
+        var v = defs.get(this.defaultValueIndex++);
+        var k = storeKeys[i];
+        action.accept(new ArgEvent(Kind.OPTION, -1, i, k, 0, k.length(), v, 0, v.length(), null));
+        return true;
+      }
+      this.defaultValueIndex = 0;
+    }
+    return false;
+  }
+
+  @Override
+  public Spliterator<ArgEvent> trySplit() {
+    return null;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.sttk.cliargs.exceptions.ArgFileIsCyclic;
+import com.github.sttk.cliargs.exceptions.FailToReadArgFile;
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Is the iterator of command line arguments which expands argument files.
+ * <p>
+ * An argument which starts with {@code @} is replaced with the arguments written in the file of
+ * which the path follows the {@code @}.
+ * An argument file is memory-mapped and tokenized only as far as this iterator is advanced.
+ * In an argument file, arguments are separated by white spaces or line breaks, and an argument
+ * which contains white spaces can be quoted with {@code '} or {@code "}.
+ * A backslash escapes the next character except in single quotes.
+ * An argument in an argument file which starts with {@code @} is also an argument file, and an
+ * argument file which includes itself directly or indirectly causes {@link ArgFileIsCyclic}.
+ * <p>
+ * Since an iterator cannot throw a checked exception, this iterator ends when it is failed to
+ * read an argument file, and the exception is thrown by {@link #throwIfFailed}.
+ */
+final class ArgFiles implements Iterator<CharSequence> {
+
+  private final Iterator<? extends CharSequence> src;
+  private final ArrayDeque<FileTokens> files = new ArrayDeque<>();
+
+  private CharSequence next;
+  private CharSequence current;
+  private InvalidOption exception;
+
+  ArgFiles(Iterator<? extends CharSequence> src) {
+    this.src = src;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.next != null) {
+      return true;
+    }
+    if (this.exception != null) {
+      return false;
+    }
+
+    while (true) {
+      CharSequence arg;
+
+      var file = this.files.peek();
+      if (file != null) {
+        arg = file.nextToken();
+        if (arg == null) {
+          this.files.pop();
+          continue;
+        }
+      } else if (this.src.hasNext()) {
+        arg = this.src.next();
+      } else {
+        return false;
+      }
+
+      if (isArgFile(arg)) {
+        try {
+          this.files.push(open(arg));
+        } catch (InvalidOption e) {
+          this.exception = e;
+          return false;
+        }
+        continue;
+      }
+
+      this.next = arg;
+      return true;
+    }
+  }
+
+  @Override
+  public CharSequence next() {
+    if (! hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.current = this.next;
+    this.next = null;
+    return this.current;
+  }
+
+  // Returns the argument which was returned by the last call of next.
+  CharSequence current() {
+    return this.current;
+  }
+
+  // Returns the rest of arguments without expanding argument files in them.
+  List<CharSequence> rest() {
+    var list = new ArrayList<CharSequence>();
+    if (this.next != null) {
+      list.add(this.next);
+      this.next = null;
+    }
+    for (var file : this.files) {
+      for (var tok = file.nextToken(); tok != null; tok = file.nextToken()) {
+        list.add(tok);
+      }
+    }
+    this.files.clear();
+    while (this.src.hasNext()) {
+      list.add(this.src.next());
+    }
+    return list;
+  }
+
+  static void throwIfFailed(Iterator<?> it) throws InvalidOption {
+    if (it instanceof ArgFiles files && files.exception != null) {
+      throw files.exception;
+    }
+  }
+
+  private static boolean isArgFile(CharSequence arg) {
+    return arg.length() > 1 && arg.charAt(0) == '@';
+  }
+
+  private FileTokens open(CharSequence arg) throws InvalidOption {
+    var argFile = arg.toString();
+    Path path;
+    ByteBuffer buf;
+    try {
+      path = Path.of(argFile.substring(1)).toRealPath();
+      for (var file : this.files) {
+        if (file.path.equals(path)) {
+          throw new ArgFileIsCyclic(argFile);
+        }
+      }
+      try (var ch = FileChannel.open(path, StandardOpenOption.READ)) {
+        long size = ch.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new IOException("Argument file is too large: " + size + " bytes");
+        }
+        buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+    } catch (IOException | RuntimeException e) {
+      throw new FailToReadArgFile(argFile, e);
+    }
+    return new FileTokens(path, buf);
+  }
+
+  static final class FileTokens {
+    final Path path;
+    private final ByteBuffer buf;
+    private int pos;
+
+    FileTokens(Path path, ByteBuffer buf) {
+      this.path = path;
+      this.buf = buf;
+    }
+
+    private static boolean isSpace(byte b) {
+      return b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    // Returns the next token, or null if there are no more tokens.
+    // A token without quotes and escapes is a view of the mapped bytes.
+    CharSequence nextToken() {
+      var buf = this.buf;
+      int n = buf.limit();
+      int i = this.pos;
+
+      while (i < n && isSpace(buf.get(i))) {
+        i++;
+      }
+      if (i >= n) {
+        this.pos = n;
+        return null;
+      }
+
+      int start = i;
+      for (; i < n; i++) {
+        byte b = buf.get(i);
+        if (isSpace(b)) {
+          break;
+        }
+        if (b == '\'' || b == '"' || b == '\\') {
+          return unquote(start);
+        }
+      }
+      this.pos = i;
+      return new Utf8Args.Arg(buf, start, i - start, Utf8Args.Arg.UNKNOWN);
+    }
+
+    private String unquote(int start) {
+      var buf = this.buf;
+      int n = buf.limit();
+      var bytes = new byte[64];
+      int len = 0;
+      byte quote = 0;
+
+      int i = start;
+      for (; i < n; i++) {
+        byte b = buf.get(i);
+        if (quote == 0) {
+          if (isSpace(b)) {
+            break;
+          }
+          if (b == '\'' || b == '"') {
+            quote = b;
+            continue;
+          }
+        } else if (b == quote) {
+          quote = 0;
+          continue;
+        }
+        if (b == '\\' && quote != '\'' && i + 1 < n) {
+          b = buf.get(++i);
+        }
+        if (len == bytes.length) {
+          bytes = Arrays.copyOf(bytes, len << 1);
+        }
+        bytes[len++] = b;
+      }
+      this.pos = i;
+      return new String(bytes, 0, len, UTF_8);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.sttk.cliargs.exceptions.OptionIsInArgStream;
+import com.github.sttk.cliargs.exceptions.UncheckedInvalidOption;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Is the iterator of command arguments which are read from an input stream and delimited by a
+ * byte, like new line or NUL.
+ * <p>
+ * This iterator reads the input stream with a fixed size buffer only as far as it is advanced,
+ * so memory use does not depend on the number of command arguments.
+ * Empty command arguments are skipped, and if the delimiter is new line, a carriage return at
+ * the end of each line is removed.
+ * <p>
+ * Options are not allowed in the input stream: an argument which starts with {@code -} causes
+ * {@link OptionIsInArgStream} wrapped in {@link UncheckedInvalidOption}, unless it is after the
+ * end of options, {@code --}.
+ */
+final class ArgStream implements Iterator<String> {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream in;
+  private final byte delimiter;
+  private boolean isAfterNonOpt;
+
+  private final byte[] buf = new byte[BUFFER_SIZE];
+  private int pos;
+  private int limit;
+  private boolean eof;
+
+  // The bytes of an argument which spans the boundary of the buffer.
+  private byte[] carry = new byte[0];
+  private int carryLen;
+
+  private String next;
+
+  ArgStream(InputStream in, byte delimiter, boolean isAfterNonOpt) {
+    this.in = in;
+    this.delimiter = delimiter;
+    this.isAfterNonOpt = isAfterNonOpt;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (this.next == null) {
+      var arg = readArg();
+      if (arg == null) {
+        return false;
+      }
+      if (arg.isEmpty()) {
+        continue;
+      }
+      if (! this.isAfterNonOpt && arg.length() > 1 && arg.charAt(0) == '-') {
+        if (arg.equals("--")) {
+          this.isAfterNonOpt = true;
+          continue;
+        }
+        throw new UncheckedInvalidOption(new OptionIsInArgStream(arg));
+      }
+      this.next = arg;
+    }
+    return true;
+  }
+
+  @Override
+  public String next() {
+    if (! hasNext()) {
+      throw new NoSuchElementException();
+    }
+    var arg = this.next;
+    this.next = null;
+    return arg;
+  }
+
+  // Returns the next argument, or null if at the end of the input stream.
+  private String readArg() {
+    this.carryLen = 0;
+
+    while (true) {
+      if (this.pos >= this.limit) {
+        if (! fill()) {
+          if (this.carryLen > 0) {
+            return decode(this.carry, 0, this.carryLen);
+          }
+          return null;
+        }
+      }
+
+      var b = this.buf;
+      int start = this.pos;
+      for (int i = start, n = this.limit; i < n; i++) {
+        if (b[i] == this.delimiter) {
+          this.pos = i + 1;
+          if (this.carryLen > 0) {
+            append(b, start, i - start);
+            return decode(this.carry, 0, this.carryLen);
+          }
+          return decode(b, start, i - start);
+        }
+      }
+      append(b, start, this.limit - start);
+      this.pos = this.limit;
+    }
+  }
+
+  private boolean fill() {
+    if (this.eof) {
+      return false;
+    }
+    try {
+      int n = this.in.read(this.buf, 0, this.buf.length);
+      if (n < 0) {
+        this.eof = true;
+        return false;
+      }
+      this.pos = 0;
+      this.limit = n;
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void append(byte[] b, int off, int len) {
+    if (this.carryLen + len > this.carry.length) {
+      this.carry = Arrays.copyOf(this.carry, Math.max(this.carryLen + len, this.carry.length * 2));
+    }
+    System.arraycopy(b, off, this.carry, this.carryLen, len);
+    this.carryLen += len;
+  }
+
+  private String decode(byte[] b, int off, int len) {
+    if (this.delimiter == '\n' && len > 0 && b[off + len - 1] == '\r') {
+      len--;
+    }
+    return new String(b, off, len, UTF_8);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+
+import java.util.List;
+
+/**
+ * Is the interface to receive the events of command line arguments while they are parsed.
+ * <p>
+ * The methods of this interface are called by {@link Cmd#visitWith} and
+ * {@link Cmd#visitUntilSubCmdWith} in the order of the command line arguments.
+ * Since nothing is retained by the {@link Cmd} instance, an application can process a large
+ * number of command line arguments without holding all of them.
+ * <p>
+ * The {@link CharSequence} objects passed to the methods of this interface are views of the
+ * command line arguments, and they are valid only during the method call.
+ * If an application needs to retain them, call their {@code toString} methods.
+ * <p>
+ * If a method of this interface throws an {@link InvalidOption} exception for an option, the
+ * parsing continues and the first exception is thrown after all arguments are visited, in the
+ * same way as exceptions of the parsing.
+ */
+public interface ArgVisitor {
+
+  /**
+   * Is called when an option configured in the {@link CompiledSpec} is found.
+   * <p>
+   * The option argument is already checked and validated with the option configuration.
+   *
+   * @param nameIndex  The index of the option configuration in {@link CompiledSpec#optCfgs}.
+   * @param value  The option argument, or null if the option takes no argument.
+   * @throws InvalidOption  If the option is invalid for the application.
+   */
+  void onOption(int nameIndex, CharSequence value) throws InvalidOption;
+
+  /**
+   * Is called when a command argument is found.
+   *
+   * @param arg  The command argument.
+   * @throws InvalidOption  If the command argument is invalid for the application.
+   */
+  void onPositional(CharSequence arg) throws InvalidOption;
+
+  /**
+   * Is called when the end of options, {@code --}, is found.
+   */
+  default void onEndOfOptions() {}
+
+  /**
+   * Is called when a sub command is found by {@link Cmd#visitUntilSubCmdWith}.
+   * <p>
+   * No more method is called after this method.
+   *
+   * @param name  The sub command name.
+   */
+  default void onSubCommand(CharSequence name) {}
+
+  /**
+   * Is called when an option which is not configured is found and it is allowed by the
+   * option configuration of which the store key or the first name is {@code "*"}.
+   *
+   * @param name  The option name.
+   * @param value  The option argument, or null if the option has no argument.
+   * @throws InvalidOption  If the option is invalid for the application.
+   */
+  default void onAnyOption(String name, CharSequence value) throws InvalidOption {}
+
+  /**
+   * Is called after all arguments are visited for each option configuration which has default
+   * values and is not found in the command line arguments.
+   * <p>
+   * By default, this method calls {@link #onOption} for each of the default values.
+   *
+   * @param nameIndex  The index of the option configuration in {@link CompiledSpec#optCfgs}.
+   * @param defaults  The default values of the option.
+   * @throws InvalidOption  If the default values are invalid for the application.
+   */
+  default void onDefaults(int nameIndex, List<String> defaults) throws InvalidOption {
+    for (var value : defaults) {
+      onOption(nameIndex, value);
+    }
+  }
+}
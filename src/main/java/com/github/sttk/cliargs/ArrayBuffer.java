@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.validators.Converter;
+import com.github.sttk.cliargs.validators.Validator;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Is the growable buffer of values which are converted from the option arguments of an option.
+ * <p>
+ * The option arguments are converted and appended to this buffer while parsing command line
+ * arguments, so that each option argument is converted only once.
+ * The buffers for primitive arrays and primitive lists create neither a list of strings nor boxed
+ * values while parsing, but keep the regions of the option arguments as they are given, which are
+ * made into an unmodifiable list of strings once when parsing is finished.
+ */
+abstract class ArrayBuffer {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  int size;
+
+  // The original text of each option argument, which is kept as the character sequence in which
+  // it is given and its region while parsing, and is released by finish.
+  // The regions are allocated only when an option argument is a part of a character sequence,
+  // and the end of a whole character sequence is WHOLE.
+  private CharSequence[] sources = new CharSequence[0];
+  private int[] regions;
+
+  // The option arguments as strings, which are made by finish.
+  private List<String> strings;
+
+  private static final int WHOLE = -1;
+
+  /**
+   * Returns a buffer for a field of the specified type, or null if the option arguments for the
+   * field are not converted while parsing.
+   *
+   * @param fieldType  The type of a field.
+   * @param validator  The validator of the field, which is a converter if the values of the field
+   *   are converted by it.
+   * @return  A buffer, or null.
+   */
+  static ArrayBuffer of(Class<?> fieldType, Validator validator) {
+    if (fieldType == IntList.class) {
+      return new OfInt(true);
+    } else if (fieldType == LongList.class) {
+      return new OfLong(true);
+    } else if (fieldType == DoubleList.class) {
+      return new OfDouble(true);
+    }
+
+    var type = fieldType;
+    if (type.isArray()) {
+      type = type.getComponentType();
+      if (type == int.class) {
+        return new OfInt(false);
+      } else if (type == long.class) {
+        return new OfLong(false);
+      } else if (type == double.class) {
+        return new OfDouble(false);
+      }
+    }
+
+    if (validator instanceof Converter<?> converter) {
+      return new OfObject(type, converter);
+    }
+    return null;
+  }
+
+  /**
+   * Parses an option argument and appends the value to this buffer.
+   *
+   * @param storeKey  The store key of the option.
+   * @param arg  The option argument.
+   * @throws OptionArgIsInvalid  If the option argument is invalid.
+   */
+  abstract void add(String storeKey, CharSequence arg) throws OptionArgIsInvalid;
+
+  /**
+   * Returns a new array which has the values in this buffer.
+   *
+   * @return  An array.
+   */
+  abstract Object toArray();
+
+  /**
+   * Returns the value of the field for which this buffer is, which is a new array, a primitive
+   * list, or an unmodifiable collection, and has the values in this buffer.
+   *
+   * @return  The value of the field.
+   */
+  abstract Object toValue();
+
+  /**
+   * Returns the value at the specified index in this buffer.
+   *
+   * @param index  The index of the value.
+   * @return  The value.
+   */
+  abstract Object valueAt(int index);
+
+  /**
+   * Keeps the original text of the option argument at the specified index, which is made into a
+   * string by {@link #finish}.
+   * A {@link CharSlice}, which is reused by the parser, is not held but the region of its source
+   * is.
+   *
+   * @param index  The index of the option argument.
+   * @param arg  The option argument.
+   */
+  final void keepText(int index, CharSequence arg) {
+    if (index == this.sources.length) {
+      int n = newCapacity(index);
+      this.sources = Arrays.copyOf(this.sources, n);
+      if (this.regions != null) {
+        this.regions = Arrays.copyOf(this.regions, n * 2);
+      }
+    }
+
+    int start = 0;
+    int end = WHOLE;
+    if (arg instanceof CharSlice slice) {
+      start = slice.start();
+      end = slice.end();
+      arg = slice.source();
+    }
+    this.sources[index] = arg;
+
+    if (end != WHOLE && this.regions == null) {
+      this.regions = new int[this.sources.length * 2];
+      for (int i = 0; i < index; i++) {
+        this.regions[i * 2 + 1] = WHOLE;
+      }
+    }
+    if (this.regions != null) {
+      this.regions[index * 2] = start;
+      this.regions[index * 2 + 1] = end;
+    }
+  }
+
+  /**
+   * Makes the kept texts of the option arguments into an unmodifiable list of strings, and
+   * releases the character sequences in which they are given, such as the contents of a mapped
+   * argument file.
+   * This method is called once when parsing is finished, and the list is retrieved with
+   * {@link #asList} after that.
+   *
+   * @return  The list of the option arguments as they are given.
+   */
+  final List<String> finish() {
+    if (this.strings == null) {
+      var arr = new String[this.size];
+      for (int i = 0; i < this.size; i++) {
+        var src = this.sources[i];
+        if (this.regions == null || this.regions[i * 2 + 1] == WHOLE) {
+          arr[i] = src.toString();
+        } else {
+          arr[i] = src.subSequence(this.regions[i * 2], this.regions[i * 2 + 1]).toString();
+        }
+      }
+      this.strings = List.of(arr);
+      this.sources = null;
+      this.regions = null;
+    }
+    return this.strings;
+  }
+
+  /**
+   * Returns the unmodifiable list of the option arguments in this buffer, which is made by
+   * {@link #finish}.
+   *
+   * @return  The list of the option arguments, or null if parsing is not finished.
+   */
+  List<String> asList() {
+    return this.strings;
+  }
+
+  static int newCapacity(int size) {
+    return (size < INITIAL_CAPACITY) ? INITIAL_CAPACITY : size + (size >> 1);
+  }
+
+  static final class OfInt extends ArrayBuffer {
+    private final boolean isList;
+    private int[] values = new int[0];
+
+    // If isList is true, the values are set to a field of IntList instead of int[].
+    OfInt(boolean isList) {
+      this.isList = isList;
+    }
+
+    @Override
+    void add(String storeKey, CharSequence arg) throws OptionArgIsInvalid {
+      int v;
+      try {
+        v = Integer.parseInt(arg, 0, arg.length(), 10);
+      } catch (NumberFormatException e) {
+        throw new OptionArgIsInvalid(storeKey, storeKey, arg.toString(), "invalid Integer", e);
+      }
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, newCapacity(this.size));
+      }
+      keepText(this.size, arg);
+      this.values[this.size++] = v;
+    }
+
+    @Override
+    Object toArray() {
+      return Arrays.copyOf(this.values, this.size);
+    }
+
+    @Override
+    Object toValue() {
+      var arr = Arrays.copyOf(this.values, this.size);
+      return this.isList ? new IntList(arr) : arr;
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return this.values[index];
+    }
+  }
+
+  static final class OfLong extends ArrayBuffer {
+    private final boolean isList;
+    private long[] values = new long[0];
+
+    // If isList is true, the values are set to a field of LongList instead of long[].
+    OfLong(boolean isList) {
+      this.isList = isList;
+    }
+
+    @Override
+    void add(String storeKey, CharSequence arg) throws OptionArgIsInvalid {
+      long v;
+      try {
+        v = Long.parseLong(arg, 0, arg.length(), 10);
+      } catch (NumberFormatException e) {
+        throw new OptionArgIsInvalid(storeKey, storeKey, arg.toString(), "invalid Long", e);
+      }
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, newCapacity(this.size));
+      }
+      keepText(this.size, arg);
+      this.values[this.size++] = v;
+    }
+
+    @Override
+    Object toArray() {
+      return Arrays.copyOf(this.values, this.size);
+    }
+
+    @Override
+    Object toValue() {
+      var arr = Arrays.copyOf(this.values, this.size);
+      return this.isList ? new LongList(arr) : arr;
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return this.values[index];
+    }
+  }
+
+  static final class OfDouble extends ArrayBuffer {
+    private final boolean isList;
+    private double[] values = new double[0];
+
+    // If isList is true, the values are set to a field of DoubleList instead of double[].
+    OfDouble(boolean isList) {
+      this.isList = isList;
+    }
+
+    @Override
+    void add(String storeKey, CharSequence arg) throws OptionArgIsInvalid {
+      var s = arg.toString();
+      double v;
+      try {
+        v = Double.parseDouble(s);
+      } catch (NumberFormatException e) {
+        throw new OptionArgIsInvalid(storeKey, storeKey, s, "invalid Double", e);
+      }
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, newCapacity(this.size));
+      }
+      keepText(this.size, s);
+      this.values[this.size++] = v;
+    }
+
+    @Override
+    Object toArray() {
+      return Arrays.copyOf(this.values, this.size);
+    }
+
+    @Override
+    Object toValue() {
+      var arr = Arrays.copyOf(this.values, this.size);
+      return this.isList ? new DoubleList(arr) : arr;
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return this.values[index];
+    }
+  }
+
+  // Is the buffer of values converted by a converter, which also holds the option arguments.
+  static final class OfObject extends ArrayBuffer {
+    private final Class<?> type;
+    private final Converter<?> converter;
+    private final boolean isCollection;
+    private Object[] values = new Object[0];
+
+    // The type is the component type of an array field, or the type of a collection field or a
+    // field which takes a single option argument.
+    OfObject(Class<?> type, Converter<?> converter) {
+      this.type = type;
+      this.converter = converter;
+      this.isCollection = FieldBinder.isCollectionType(type);
+    }
+
+    @Override
+    void add(String storeKey, CharSequence arg) throws OptionArgIsInvalid {
+      var s = arg.toString();
+      var v = this.converter.convert(storeKey, storeKey, s);
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, newCapacity(this.size));
+      }
+      keepText(this.size, s);
+      this.values[this.size++] = v;
+    }
+
+    @Override
+    Object toArray() {
+      var arr = Array.newInstance(this.type, this.size);
+      for (int i = 0; i < this.size; i++) {
+        Array.set(arr, i, this.values[i]);
+      }
+      return arr;
+    }
+
+    @Override
+    Object toValue() {
+      if (this.isCollection) {
+        return FieldBinder.toCollection(this.type, Arrays.copyOf(this.values, this.size));
+      }
+      return toArray();
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return this.values[index];
+    }
+  }
+}
@@ -14,221 +14,99 @@ interface Base {
 
   @FunctionalInterface
   static interface CollectArgs {
-    void exec(String arg) throws InvalidOption;
+    void exec(Tokenizer t) throws InvalidOption;
   }
 
   @FunctionalInterface
   static interface CollectOpts {
-    void exec(String name, Optional<String> arg) throws InvalidOption;
+    void exec(Tokenizer t) throws InvalidOption;
   }
 
   @FunctionalInterface
-  static interface TakeOptArgs {
-    boolean check(String option);
+  static interface NotifyEndOfOpts {
+    void exec();
+  }
+
+  static Optional<Integer> parseArgs(
+    Tokenizer t,
+    CollectArgs collectArgs,
+    CollectOpts collectOpts,
+    boolean untilFirstArg
+  ) throws InvalidOption {
+    return parseArgs(t, collectArgs, collectOpts, () -> {}, untilFirstArg);
   }
 
   // The returned index is the index of sub command if untilFirstArg is true.
   // And this index is negative if after an argument '--'.
   static Optional<Integer> parseArgs(
-    List<String> osArgs,
+    Tokenizer t,
     CollectArgs collectArgs,
     CollectOpts collectOpts,
-    TakeOptArgs takeOptArgs,
-    boolean untilFirstArg,
-    boolean isAfterNonOpt
+    NotifyEndOfOpts notifyEndOfOpts,
+    boolean untilFirstArg
   ) throws InvalidOption {
 
-    String prevOptTakingArgs = "";
-    Optional<InvalidOption> firstExc = Optional.empty();
-
-    L0: for (int iArg = 0, nArg = osArgs.size(); iArg < nArg; iArg++) {
-      var arg = osArgs.get(iArg);
+    InvalidOption firstExc = null;
 
-      if (isAfterNonOpt) {
+    for (int kind = t.next(); kind != Tokenizer.END; kind = t.next()) {
+      if (kind == Tokenizer.ARG) {
         if (untilFirstArg) {
-          if (firstExc.isPresent()) {
-            throw firstExc.get();
+          if (firstExc != null) {
+            throw firstExc;
           }
-          return Optional.of(-iArg); // NOTICE negative if after '--'
+          return Optional.of(t.isAfterNonOpt ? -t.argIndex : t.argIndex); // NOTICE negative if after '--'
         }
-        collectArgs.exec(arg);
-      } else if (! prevOptTakingArgs.isEmpty()) {
+        collectArgs.exec(t);
+      } else if (kind == Tokenizer.OPTION) {
         try {
-          collectOpts.exec(prevOptTakingArgs, Optional.of(arg));
-          prevOptTakingArgs = "";
+          collectOpts.exec(t);
         } catch (InvalidOption e) {
-          prevOptTakingArgs = "";
-          if (firstExc.isEmpty()) {
-            firstExc = Optional.of(e);
-          }
-          continue L0;
-        }
-      } else if (arg.startsWith("--")) {
-        if (arg.length() == 2) {
-          isAfterNonOpt = true;
-          continue L0;
-        }
-        arg = arg.substring(2);
-
-        int i = 0, len = arg.length();
-        while (i < len) {
-          int cp = arg.codePointAt(i);
-          int cw = Character.charCount(cp);
-
-          if (i > 0) {
-            if (cp == 0x3d) { // '='
-              try {
-                var nm = arg.substring(0, i);
-                var a = arg.substring(i + cw);
-                collectOpts.exec(nm, Optional.of(a));
-              } catch (InvalidOption e) {
-                if (firstExc.isEmpty()) {
-                  firstExc = Optional.of(e);
-                }
-                continue L0;
-              }
-              break;
-            }
-            if (! isAllowedCodePoint(cp)) {
-              if (firstExc.isEmpty()) {
-                var e = new OptionContainsInvalidChar(arg);
-                firstExc = Optional.of(e);
-              }
-              continue L0;
-            }
-          } else {
-            if (! isAllowedFirstCodePoint(cp)) {
-              if (firstExc.isEmpty()) {
-                var e = new OptionContainsInvalidChar(arg);
-                firstExc = Optional.of(e);
-              }
-              continue L0;
-            }
-          }
-          i += cw;
-        }
-
-        if (i == len) {
-          if (takeOptArgs.check(arg) && iArg < nArg - 1) {
-            prevOptTakingArgs = arg;
-            continue L0;
-          }
-          try {
-            collectOpts.exec(arg, Optional.empty());
-          } catch (InvalidOption e) {
-            if (firstExc.isEmpty()) {
-              firstExc = Optional.of(e);
-            }
-            continue L0;
-          }
-        }
-      } else if (arg.startsWith("-")) {
-        if (arg.length() == 1) {
-          if (untilFirstArg) {
-            if (firstExc.isPresent()) {
-              throw firstExc.get();
-            }
-            return Optional.of(iArg);
-          }
-          collectArgs.exec(arg);
-          continue L0;
-        }
-        arg = arg.substring(1);
-
-        String name = "";
-        int i = 0, len = arg.length();
-        while (i < len) {
-          int cp = arg.codePointAt(i);
-          int cw = Character.charCount(cp);
-
-          if (i > 0) {
-            if (cp == 0x3d) { // '='
-              if (! isEmpty(name)) {
-                try {
-                  collectOpts.exec(name, Optional.of(arg.substring(i + cw)));
-                } catch (InvalidOption e) {
-                  if (firstExc.isEmpty()) {
-                    firstExc = Optional.of(e);
-                  }
-                }
-              }
-              continue L0;
-            }
-            if (! isEmpty(name)) {
-              try {
-                collectOpts.exec(name, Optional.empty());
-              } catch (InvalidOption e) {
-                if (firstExc.isEmpty()) {
-                  firstExc = Optional.of(e);
-                }
-              }
-            }
-          }
-          if (! isAllowedFirstCodePoint(cp)) {
-            if (firstExc.isEmpty()) {
-              var e = new OptionContainsInvalidChar(Character.toString(cp));
-              firstExc = Optional.of(e);
-            }
-            name = "";
-          } else {
-            name = Character.toString(cp);
+          if (firstExc == null) {
+            firstExc = e;
           }
-          i += cw;
         }
-
-        if (i == len && ! isEmpty(name)) {
-          if (takeOptArgs.check(name) && iArg < nArg - 1) {
-            prevOptTakingArgs = name;
-          } else {
-            try {
-              collectOpts.exec(name, Optional.empty());
-            } catch (InvalidOption e) {
-              if (firstExc.isEmpty()) {
-                firstExc = Optional.of(e);
-              }
-              continue L0;
-            }
-          }
-        }
-      } else {
-        if (untilFirstArg) {
-          if (!firstExc.isEmpty()) {
-            throw firstExc.get();
-          }
-          return Optional.of(iArg);
+      } else if (kind == Tokenizer.INVALID_CHAR) {
+        if (firstExc == null) {
+          firstExc = new OptionContainsInvalidChar(t.name());
         }
-        collectArgs.exec(arg);
+      } else if (kind == Tokenizer.END_OF_OPTIONS) {
+        notifyEndOfOpts.exec();
       }
     }
 
-    if (firstExc.isPresent()) {
-      throw firstExc.get();
+    if (firstExc != null) {
+      throw firstExc;
     }
     return Optional.empty();
   }
 
-  static boolean isAllowedFirstCodePoint(int cp) {
-    if (0x41 <= cp && cp <= 0x5a) { // A-Z
-      return true;
-    } else if (0x61 <= cp && cp <= 0x7a) { // a-z
-      return true;
-    } else {
-      return false;
+  // The classes of ASCII characters for option names. Since all characters allowed in option
+  // names are ASCII, any non-ASCII character is disallowed without looking up this table.
+  static final byte FIRST_CHAR = 1;
+  static final byte NAME_CHAR = 2;
+  static final byte[] ASCII_CHAR_CLASSES = asciiCharClasses();
+
+  private static byte[] asciiCharClasses() {
+    var table = new byte[0x80];
+    for (int c = 0x41; c <= 0x5a; c++) { // A-Z
+      table[c] = FIRST_CHAR | NAME_CHAR;
+    }
+    for (int c = 0x61; c <= 0x7a; c++) { // a-z
+      table[c] = FIRST_CHAR | NAME_CHAR;
     }
+    for (int c = 0x30; c <= 0x39; c++) { // 0-9
+      table[c] = NAME_CHAR;
+    }
+    table[0x2d] = NAME_CHAR; // -
+    return table;
+  }
+
+  static boolean isAllowedFirstCodePoint(int cp) {
+    return (cp & ~0x7f) == 0 && (ASCII_CHAR_CLASSES[cp] & FIRST_CHAR) != 0;
   }
 
   static boolean isAllowedCodePoint(int cp) {
-    if (cp == 0x2d) { // -
-      return true;
-    } else if (0x30 <= cp && cp <= 0x39) { // 0-9
-      return true;
-    } else if (0x41 <= cp && cp <= 0x5a) { // A-Z
-      return true;
-    } else if (0x61 <= cp && cp <= 0x7a) { // a-z
-      return true;
-    } else {
-      return false;
-    }
+    return (cp & ~0x7f) == 0 && (ASCII_CHAR_CLASSES[cp] & NAME_CHAR) != 0;
   }
 
   static boolean isEmpty(String value) {
@@ -246,4 +124,25 @@ interface Base {
   static boolean isBlank(String value) {
     return (value == null || value.isBlank());
   }
+
+  // Returns the index of the first separator in the region [from, end) of a string, or end if
+  // the region has no separator.
+  // This is used to divide a string in a single pass without regular expressions.
+  static int indexOfSeparator(CharSequence s, int from, int end, String sep) {
+    char c0 = sep.charAt(0);
+    int n = sep.length();
+    outer:
+    for (int i = from, last = end - n; i <= last; i++) {
+      if (s.charAt(i) != c0) {
+        continue;
+      }
+      for (int j = 1; j < n; j++) {
+        if (s.charAt(i + j) != sep.charAt(j)) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return end;
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses many command lines with a precompiled option specification in parallel.
+ * <p>
+ * Each command line is a list of strings of which the first element is the command path and the
+ * rest are the command line arguments, like {@code argv}.
+ * The command lines are divided into chunks and parsed with fork/join tasks, and the results are
+ * returned in the same order as the input command lines.
+ * An exception of parsing a command line does not stop parsing other command lines, and it is
+ * returned as the error of the {@link Item} for the command line.
+ */
+public final class Batch {
+
+  // The number of command lines which a task parses without splitting.
+  static final int CHUNK_SIZE = 64;
+
+  private Batch() {}
+
+  /**
+   * Is the result of parsing a command line in a batch.
+   */
+  public static final class Item {
+    private final Cmd cmd;
+    private final InvalidOption error;
+
+    Item(Cmd cmd, InvalidOption error) {
+      this.cmd = cmd;
+      this.error = error;
+    }
+
+    /**
+     * Returns the {@link Cmd} instance which holds the results of parsing.
+     * <p>
+     * If it was failed to parse the command line, the {@link Cmd} instance holds the results which
+     * were parsed before the failure, in the same way as {@link Cmd#parseWith(CompiledSpec)}.
+     *
+     * @return  The {@link Cmd} instance.
+     */
+    public Cmd cmd() {
+      return this.cmd;
+    }
+
+    /**
+     * Returns the exception if it was failed to parse the command line.
+     *
+     * @return  An {@link Optional} object which may contain the exception.
+     */
+    public Optional<InvalidOption> error() {
+      return Optional.ofNullable(this.error);
+    }
+  }
+
+  /**
+   * Parses command lines with a precompiled option specification using the common fork/join
+   * pool.
+   *
+   * @param spec  The precompiled option specification.
+   * @param cmdLines  The command lines, each of which starts with the command path.
+   * @return  The results of parsing in the same order as the command lines.
+   */
+  public static List<Item> parseWith(CompiledSpec spec, List<? extends List<String>> cmdLines) {
+    cmdLines = randomAccess(cmdLines);
+    var items = new Item[cmdLines.size()];
+    ForkJoinPool.commonPool().invoke(new Task(spec, cmdLines, items, 0, items.length));
+    return List.of(items);
+  }
+
+  /**
+   * Parses command lines with a precompiled option specification using the specified number of
+   * threads.
+   * <p>
+   * If {@code parallelism} is 1, command lines are parsed in the calling thread.
+   *
+   * @param spec  The precompiled option specification.
+   * @param cmdLines  The command lines, each of which starts with the command path.
+   * @param parallelism  The number of threads.
+   * @return  The results of parsing in the same order as the command lines.
+   */
+  public static List<Item> parseWith(
+    CompiledSpec spec, List<? extends List<String>> cmdLines, int parallelism
+  ) {
+    cmdLines = randomAccess(cmdLines);
+    var items = new Item[cmdLines.size()];
+    var task = new Task(spec, cmdLines, items, 0, items.length);
+    if (parallelism == 1) {
+      task.parse();
+    } else {
+      var pool = new ForkJoinPool(parallelism);
+      try {
+        pool.invoke(task);
+      } finally {
+        pool.shutdown();
+      }
+    }
+    return List.of(items);
+  }
+
+  private static <T> List<T> randomAccess(List<T> list) {
+    if (list instanceof RandomAccess) {
+      return list;
+    }
+    return new ArrayList<>(list);
+  }
+
+  static Item parse(CompiledSpec spec, List<String> cmdLine) {
+    var n = cmdLine.size();
+    Cmd cmd;
+    if (n == 0) {
+      cmd = new Cmd("", List.of(), false);
+    } else {
+      var name = Path.of(cmdLine.get(0)).getFileName().toString();
+      cmd = new Cmd(name, List.copyOf(cmdLine.subList(1, n)), false);
+    }
+
+    try {
+      cmd.parseWith(spec);
+      return new Item(cmd, null);
+    } catch (InvalidOption e) {
+      return new Item(cmd, e);
+    }
+  }
+
+  @SuppressWarnings("serial")
+  static final class Task extends RecursiveAction {
+    private final CompiledSpec spec;
+    private final List<? extends List<String>> cmdLines;
+    private final Item[] items;
+    private final int start;
+    private final int end;
+
+    Task(
+      CompiledSpec spec, List<? extends List<String>> cmdLines, Item[] items, int start, int end
+    ) {
+      this.spec = spec;
+      this.cmdLines = cmdLines;
+      this.items = items;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.end - this.start <= CHUNK_SIZE) {
+        parse();
+        return;
+      }
+      int mid = (this.start + this.end) >>> 1;
+      invokeAll(
+        new Task(this.spec, this.cmdLines, this.items, this.start, mid),
+        new Task(this.spec, this.cmdLines, this.items, mid, this.end));
+    }
+
+    void parse() {
+      for (int i = this.start; i < this.end; i++) {
+        this.items[i] = Batch.parse(this.spec, this.cmdLines.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+/**
+ * Is a reusable view of a region of a character sequence.
+ * <p>
+ * This is used to pass a part of a command line argument to {@link ArgVisitor} without creating
+ * a string.
+ */
+final class CharSlice implements CharSequence {
+
+  private CharSequence s = "";
+  private int start;
+  private int end;
+
+  CharSlice reset(CharSequence s, int start, int end) {
+    this.s = s;
+    this.start = start;
+    this.end = end;
+    return this;
+  }
+
+  // Returns the character sequence of which region this views.
+  CharSequence source() {
+    return this.s;
+  }
+
+  int start() {
+    return this.start;
+  }
+
+  int end() {
+    return this.end;
+  }
+
+  @Override
+  public int length() {
+    return this.end - this.start;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= this.end - this.start) {
+      throw new StringIndexOutOfBoundsException(index);
+    }
+    return this.s.charAt(this.start + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > this.end - this.start || start > end) {
+      throw new StringIndexOutOfBoundsException(
+        "start " + start + ", end " + end + ", length " + length());
+    }
+    return this.s.subSequence(this.start + start, this.start + end);
+  }
+
+  @Override
+  public String toString() {
+    return this.s.subSequence(this.start, this.end).toString();
+  }
+}
@@ -5,37 +5,44 @@
  */
 package com.github.sttk.cliargs;
 
-import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableMap;
-
 import com.github.sttk.cliargs.annotations.Opt;
 import com.github.sttk.cliargs.exceptions.FailToSetOptionStoreField;
 import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionIsInArgStream;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.exceptions.UncheckedInvalidOption;
 import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parses command line arguments and stores them.
  * <p>
  * The results of parsing are stored by separating into command name, command arguments, options,
  * and option arguments.
+ * The results of the last parsing are held as an immutable {@link ParseResult} object, which can
+ * be retrieved with {@link Cmd#result} and shared across threads.
  */
 public class Cmd {
 
   private final String name;
-  private List<String> args = Collections.emptyList();
-  private Map<String, List<String>> opts = Collections.emptyMap();
-  private List<OptCfg> cfgs = Collections.emptyList();;
+  private ParseResult result = ParseResult.EMPTY;
 
-  private final List<String> osArgs;
+  private final List<? extends CharSequence> osArgs;
   private final boolean isAfterNonOpt;
+  private boolean expandsArgFiles;
 
   /**
    * Constructs an instance of this class with command line arguments.
@@ -49,7 +56,32 @@ public class Cmd {
     this.isAfterNonOpt = false;
   }
 
-  Cmd(String name, List<String> osArgs, boolean isAfterNonOpt) {
+  /**
+   * Constructs an instance of this class with a command line which consists of NUL-separated
+   * arguments encoded in UTF-8, like {@code /proc/<pid>/cmdline} on Linux.
+   * <p>
+   * The first argument is the command path, and the rest are the command line arguments.
+   * The command line arguments are not decoded when this instance is constructed, but are
+   * decoded only when their contents are needed by parsing or by the caller.
+   * Therefore, the bytes between the position and the limit of the buffer must not be modified
+   * while this instance is used.
+   * The position of the buffer is not changed by this constructor.
+   *
+   * @param cmdline  The buffer of the NUL-separated command line.
+   */
+  public Cmd(ByteBuffer cmdline) {
+    var args = new Utf8Args(cmdline);
+    if (args.isEmpty()) {
+      this.name = "";
+      this.osArgs = args;
+    } else {
+      this.name = Path.of(args.get(0).toString()).getFileName().toString();
+      this.osArgs = args.subList(1, args.size());
+    }
+    this.isAfterNonOpt = false;
+  }
+
+  Cmd(String name, List<? extends CharSequence> osArgs, boolean isAfterNonOpt) {
     this.name = name;
     this.osArgs = osArgs;
     this.isAfterNonOpt = isAfterNonOpt;
@@ -67,13 +99,38 @@ public class Cmd {
     return this.name;
   }
 
+  /**
+   * Enables the expansion of argument files in the command line arguments, and returns this
+   * instance.
+   * <p>
+   * When this is enabled, an argument which starts with {@code @} is replaced with the arguments
+   * written in the file of which the path follows the {@code @}.
+   * In an argument file, arguments are separated by white spaces or line breaks, and an argument
+   * which contains white spaces can be quoted with {@code '} or {@code "}.
+   * An argument in an argument file which starts with {@code @} is also expanded.
+   * <p>
+   * Argument files are memory-mapped and tokenized only as far as they are parsed, so a large
+   * argument file is not read into memory at once.
+   * If it is failed to read an argument file, the parsing methods throw
+   * {@link com.github.sttk.cliargs.exceptions.FailToReadArgFile}, and if an argument file
+   * includes itself, they throw {@link com.github.sttk.cliargs.exceptions.ArgFileIsCyclic}.
+   * A {@code Cmd} instance of a sub command which is returned by a parsing method of this
+   * instance also expands argument files.
+   *
+   * @return  This instance.
+   */
+  public Cmd expandArgFiles() {
+    this.expandsArgFiles = true;
+    return this;
+  }
+
   /**
    * Returns the command arguments.
    *
    * @return  The command arguments.
    */
   public List<String> args() {
-    return this.args;
+    return this.result.args();
   }
 
   /**
@@ -83,7 +140,7 @@ public class Cmd {
    * @return  True, if the option exists.
    */
   public boolean hasOpt(String name) {
-    return this.opts.containsKey(name);
+    return this.result.hasOpt(name);
   }
 
   /**
@@ -98,11 +155,7 @@ public class Cmd {
    * @return  An {@link Optional} object which may contain the first option argument.
    */
   public Optional<String> optArg(String name) {
-    var list = this.opts.get(name);
-    if (list == null || list.isEmpty()) {
-      return Optional.empty();
-    }
-    return Optional.of(list.get(0));
+    return this.result.optArg(name);
   }
 
   /**
@@ -118,11 +171,185 @@ public class Cmd {
    * @return  An {@link Optional} object which may contain the option arguments.
    */
   public Optional<List<String>> optArgs(String name) {
-    var list = this.opts.get(name);
-    if (list == null) {
-      return Optional.empty();
-    }
-    return Optional.of(list);
+    return this.result.optArgs(name);
+  }
+
+  /**
+   * Checks whether the option of the specified key exists.
+   *
+   * @param key  The option key.
+   * @return  True, if the option exists.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   * @see ParseResult#hasOpt(OptKey)
+   */
+  public boolean hasOpt(OptKey<?> key) {
+    return this.result.hasOpt(key);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a value converted by the key.
+   *
+   * @param <T>  The type of the option value.
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument cannot be converted.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   * @see ParseResult#optValue
+   */
+  public <T> T optValue(OptKey<T> key, T orElse) throws OptionArgIsInvalid {
+    return this.result.optValue(key, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as an {@code int} value.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not an {@code int} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   * @see ParseResult#optInt
+   */
+  public int optInt(OptKey.OfInt key, int orElse) throws OptionArgIsInvalid {
+    return this.result.optInt(key, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a {@code long} value.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code long} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   * @see ParseResult#optLong
+   */
+  public long optLong(OptKey.OfLong key, long orElse) throws OptionArgIsInvalid {
+    return this.result.optLong(key, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a {@code double} value.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code double} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   * @see ParseResult#optDouble
+   */
+  public double optDouble(OptKey.OfDouble key, double orElse) throws OptionArgIsInvalid {
+    return this.result.optDouble(key, orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as an {@code int} value.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not an {@code int} value.
+   * @see ParseResult#optInt(String, int)
+   */
+  public int optInt(String name, int orElse) throws OptionArgIsInvalid {
+    return this.result.optInt(name, orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@code long} value.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code long} value.
+   * @see ParseResult#optLong(String, long)
+   */
+  public long optLong(String name, long orElse) throws OptionArgIsInvalid {
+    return this.result.optLong(name, orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@code double} value.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code double} value.
+   * @see ParseResult#optDouble(String, double)
+   */
+  public double optDouble(String name, double orElse) throws OptionArgIsInvalid {
+    return this.result.optDouble(name, orElse);
+  }
+
+  /**
+   * Returns the option with the specified name as a {@code boolean} value.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is neither {@code true} nor {@code false}.
+   * @see ParseResult#optBoolean(String, boolean)
+   */
+  public boolean optBoolean(String name, boolean orElse) throws OptionArgIsInvalid {
+    return this.result.optBoolean(name, orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@link BigDecimal} value.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@link BigDecimal} value.
+   * @see ParseResult#optBigDecimal(String, BigDecimal)
+   */
+  public BigDecimal optBigDecimal(String name, BigDecimal orElse) throws OptionArgIsInvalid {
+    return this.result.optBigDecimal(name, orElse);
+  }
+
+  /**
+   * Returns the option arguments with the specified name as an {@code int} array.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not an {@code int} value.
+   * @see ParseResult#optInts(String, int[])
+   */
+  public int[] optInts(String name, int[] orElse) throws OptionArgIsInvalid {
+    return this.result.optInts(name, orElse);
+  }
+
+  /**
+   * Returns the option arguments with the specified name as a {@code long} array.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not a {@code long} value.
+   * @see ParseResult#optLongs(String, long[])
+   */
+  public long[] optLongs(String name, long[] orElse) throws OptionArgIsInvalid {
+    return this.result.optLongs(name, orElse);
+  }
+
+  /**
+   * Returns the option arguments with the specified name as a {@code double} array.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not a {@code double} value.
+   * @see ParseResult#optDoubles(String, double[])
+   */
+  public double[] optDoubles(String name, double[] orElse) throws OptionArgIsInvalid {
+    return this.result.optDoubles(name, orElse);
   }
 
   /**
@@ -131,7 +358,19 @@ public class Cmd {
    * @return  The option configurations.
    */
   public List<OptCfg> optCfgs() {
-    return this.cfgs;
+    return this.result.optCfgs();
+  }
+
+  /**
+   * Returns the result of the last parsing as an immutable object.
+   * <p>
+   * The returned object is not affected by subsequent parsing with this {@code Cmd} instance, and
+   * it can be shared across threads.
+   *
+   * @return  The result of parsing.
+   */
+  public ParseResult result() {
+    return this.result;
   }
 
   /**
@@ -143,8 +382,8 @@ public class Cmd {
   public String toString() {
     return new StringJoiner(", ", "Cmd{", "}")
       .add("name=" + this.name)
-      .add("args=" + this.args)
-      .add("opts=" + this.opts)
+      .add("args=" + this.result.args())
+      .add("opts=" + this.result.opts())
       .toString();
   }
 
@@ -172,14 +411,9 @@ public class Cmd {
   public void parse() throws InvalidOption {
     var parser = new Parse(this.isAfterNonOpt);
     try {
-      parser.parse(this.osArgs);
+      parser.parse(argIterator());
     } finally {
-      this.args = unmodifiableList(parser.args);
-
-      for (var ent : parser.opts.entrySet()) {
-        ent.setValue(unmodifiableList(ent.getValue()));
-      }
-      this.opts = unmodifiableMap(parser.opts);
+      this.result = new ParseResult(parser.args, parser.opts, this.result.optCfgs());
     }
   }
 
@@ -200,14 +434,10 @@ public class Cmd {
   public Optional<Cmd> parseUntilSubCmd() throws InvalidOption {
     var parser = new Parse(this.isAfterNonOpt);
     try {
-      return parser.parseUntilSubCmd(this.osArgs);
+      var it = argIterator();
+      return subCmd(parser.parseUntilSubCmd(it), it);
     } finally {
-      this.args = unmodifiableList(parser.args);
-
-      for (var ent : parser.opts.entrySet()) {
-        ent.setValue(unmodifiableList(ent.getValue()));
-      }
-      this.opts = unmodifiableMap(parser.opts);
+      this.result = new ParseResult(parser.args, parser.opts, this.result.optCfgs());
     }
   }
 
@@ -240,22 +470,40 @@ public class Cmd {
    * The option configurations used to parsing are set into the {@link Cmd} instance, and it can be
    * retrieved with its method: {@link Cmd#optCfgs}.
    *
+   * If the same option configurations are used for parsing many times, compile them into a
+   * {@link CompiledSpec} instance once and use {@link Cmd#parseWith(CompiledSpec)} instead.
+   *
    * @param optCfgs The array of the option configurations.
    * @throws InvalidOption  If failed to parsing command line arguments.
    */
   public void parseWith(OptCfg[] optCfgs) throws InvalidOption {
-    var parser = new ParseWith(this.isAfterNonOpt, false);
-    try {
-      parser.parseArgsWith(this.osArgs, optCfgs);
-    } finally {
-      this.args = unmodifiableList(parser.args);
+    parseWith(compile(optCfgs));
+  }
 
-      for (var ent : parser.opts.entrySet()) {
-        ent.setValue(unmodifiableList(ent.getValue()));
-      }
-      this.opts = unmodifiableMap(parser.opts);
+  /**
+   * Parses command line arguments with a precompiled option specification.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(OptCfg[])} method, except that the option configurations are already
+   * checked and compiled into the {@link CompiledSpec} instance.
+   * Since a {@link CompiledSpec} instance is immutable, it can be reused for parsing many command
+   * lines with no setup cost.
+   *
+   * The option configurations used to parsing are set into the {@link Cmd} instance, and it can be
+   * retrieved with its method: {@link Cmd#optCfgs}.
+   *
+   * @param spec  The precompiled option specification.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public void parseWith(CompiledSpec spec) throws InvalidOption {
+    parseWith(spec, new ParseWith(this.isAfterNonOpt, false));
+  }
 
-      this.cfgs = List.of(optCfgs);
+  private void parseWith(CompiledSpec spec, ParseWith parser) throws InvalidOption {
+    try {
+      parser.parseArgsWith(argIterator(), spec);
+    } finally {
+      this.result = new ParseResult(parser.args, parser.opts, spec);
     }
   }
 
@@ -266,8 +514,9 @@ public class Cmd {
    * This method creates and returns a new {@code Cmd} instance that holds the command line
    * arguments starting from the first command argument.
    *
-   * This method parses command line arguments in the same way as the {@link Cmd#parseWith} method,
-   * except that it only parses the command line arguments before the first command argument.
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(OptCfg[])} method, except that it only parses the command line arguments
+   * before the first command argument.
    *
    * The option configurations used to parsing are set into the {@link Cmd} instance, and it can be
    * retrieved with its method: {@link Cmd#optCfgs}.
@@ -278,26 +527,193 @@ public class Cmd {
    * @throws InvalidOption  If failed to parsing command line arguments.
    */
   public Optional<Cmd> parseUntilSubCmdWith(OptCfg[] optCfgs) throws InvalidOption {
-    var parser = new ParseWith(this.isAfterNonOpt, true);
+    return parseUntilSubCmdWith(compile(optCfgs));
+  }
+
+  /**
+   * Parses command line arguments with a precompiled option specification but stops parsing when
+   * encountering first command argument.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseUntilSubCmdWith(OptCfg[])} method, except that the option configurations are
+   * already checked and compiled into the {@link CompiledSpec} instance.
+   *
+   * @param spec  The precompiled option specification.
+   * @return A {@code Cmd} instance which holds commnd line arguments after a sub command
+   *   (optional).
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public Optional<Cmd> parseUntilSubCmdWith(CompiledSpec spec) throws InvalidOption {
+    return parseUntilSubCmdWith(spec, new ParseWith(this.isAfterNonOpt, true));
+  }
+
+  private Optional<Cmd> parseUntilSubCmdWith(CompiledSpec spec, ParseWith parser)
+    throws InvalidOption
+  {
     try {
-      var idx = parser.parseArgsWith(this.osArgs, optCfgs);
-      if (idx.isPresent()) {
-        boolean isAfterNonOpt = (idx.get() < 0);
-        int i = Math.abs(idx.get());
-        int n = this.osArgs.size();
-        return Optional.of(
-          new Cmd(this.osArgs.get(i), this.osArgs.subList(i + 1, n), isAfterNonOpt));
-      }
-      return Optional.empty();
+      var it = argIterator();
+      return subCmd(parser.parseArgsWith(it, spec), it);
     } finally {
-      this.args = unmodifiableList(parser.args);
+      this.result = new ParseResult(parser.args, parser.opts, spec);
+    }
+  }
+
+  /**
+   * Parses command line arguments with a precompiled option specification, and returns a stream
+   * of command arguments which are read from the input stream, like {@link System#in}.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(CompiledSpec)} method and stores the results into this {@code Cmd}
+   * instance.
+   * Then the returned stream reads command arguments delimited by the specified byte from the
+   * input stream only as far as the stream pipeline pulls them, so memory use does not depend on
+   * the number of command arguments.
+   * Usually the delimiter is {@code '\n'}, or {@code 0} for NUL-separated input like the output
+   * of {@code find -print0}.
+   * Empty command arguments are skipped.
+   *
+   * Options are not allowed in the input stream.
+   * If an argument which starts with {@code -} is read before the end of options, {@code --},
+   * the stream throws {@link UncheckedInvalidOption} which wraps {@link OptionIsInArgStream}.
+   * If it is failed to read the input stream, the stream throws
+   * {@link java.io.UncheckedIOException}.
+   *
+   * @param spec  The precompiled option specification.
+   * @param in  The input stream of command arguments.
+   * @param delimiter  The byte which delimits command arguments in the input stream.
+   * @return  The stream of command arguments read from the input stream.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public Stream<String> parseWithArgStream(CompiledSpec spec, InputStream in, byte delimiter)
+    throws InvalidOption
+  {
+    var parser = new ParseWith(this.isAfterNonOpt, false);
+    try {
+      parser.parseArgsWith(argIterator(), spec);
+    } finally {
+      this.result = new ParseResult(parser.args, parser.opts, spec);
+    }
+
+    var it = new ArgStream(in, delimiter, parser.isAfterNonOpt);
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Parses command line arguments with a precompiled option specification and passes each of
+   * them to the visitor.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(CompiledSpec)} method, except that the results of parsing are not stored
+   * into this {@code Cmd} instance but passed to the methods of the {@link ArgVisitor} object as
+   * they are parsed.
+   * This is useful for processing a large number of command arguments without holding them.
+   *
+   * @param spec  The precompiled option specification.
+   * @param visitor  The visitor which receives command arguments and options.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public void visitWith(CompiledSpec spec, ArgVisitor visitor) throws InvalidOption {
+    ParseWith.visitArgsWith(argIterator(), spec, visitor, this.isAfterNonOpt, false);
+  }
+
+  /**
+   * Parses command line arguments with a precompiled option specification and passes each of
+   * them to the visitor, but stops parsing when encountering first command argument.
+   *
+   * This method creates and returns a new {@code Cmd} instance that holds the command line
+   * arguments starting from the first command argument, and the name of the sub command is also
+   * passed to {@link ArgVisitor#onSubCommand}.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#visitWith} method, except that it only parses the command line arguments before
+   * the first command argument.
+   *
+   * @param spec  The precompiled option specification.
+   * @param visitor  The visitor which receives options and a sub command.
+   * @return A {@code Cmd} instance which holds commnd line arguments after a sub command
+   *   (optional).
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public Optional<Cmd> visitUntilSubCmdWith(CompiledSpec spec, ArgVisitor visitor)
+    throws InvalidOption
+  {
+    var it = argIterator();
+    return subCmd(ParseWith.visitArgsWith(it, spec, visitor, this.isAfterNonOpt, true), it);
+  }
 
-      for (var ent : parser.opts.entrySet()) {
-        ent.setValue(unmodifiableList(ent.getValue()));
-      }
-      this.opts = unmodifiableMap(parser.opts);
+  /**
+   * Returns an iterator of the events of command line arguments parsed with a precompiled option
+   * specification.
+   *
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(CompiledSpec)} method, but command line arguments are tokenized and
+   * checked only as far as the returned iterator is advanced.
+   * Therefore, if the caller stops iterating, the rest of command line arguments are not parsed.
+   *
+   * Instead of throwing {@link InvalidOption} exceptions, the iterator returns events of which the
+   * kind is {@link ArgEvent.Kind#INVALID_OPTION} and which have the exceptions.
+   * After all command line arguments, the iterator returns events of the default values of
+   * options which are not given.
+   * The results of parsing are not stored into this {@code Cmd} instance.
+   *
+   * @param spec  The precompiled option specification.
+   * @return  The iterator of the events.
+   */
+  public Iterator<ArgEvent> iterateWith(CompiledSpec spec) {
+    return Spliterators.iterator(
+      new ArgEventSpliterator(argIterator(), spec, this.isAfterNonOpt));
+  }
+
+  /**
+   * Returns a sequential stream of the events of command line arguments parsed with a
+   * precompiled option specification.
+   *
+   * The events of this stream are same as the events of the iterator returned by
+   * {@link Cmd#iterateWith} method, and command line arguments are parsed only as far as the
+   * stream pipeline pulls the events.
+   *
+   * @param spec  The precompiled option specification.
+   * @return  The stream of the events.
+   */
+  public Stream<ArgEvent> streamWith(CompiledSpec spec) {
+    return StreamSupport.stream(
+      new ArgEventSpliterator(argIterator(), spec, this.isAfterNonOpt), false);
+  }
 
-      this.cfgs = List.of(optCfgs);
+  private Iterator<? extends CharSequence> argIterator() {
+    if (this.expandsArgFiles) {
+      return new ArgFiles(this.osArgs.iterator());
+    }
+    return this.osArgs.iterator();
+  }
+
+  private Optional<Cmd> subCmd(Optional<Integer> idx, Iterator<? extends CharSequence> it) {
+    if (idx.isEmpty()) {
+      return Optional.empty();
+    }
+
+    boolean isAfterNonOpt = (idx.get() < 0);
+
+    if (it instanceof ArgFiles files) {
+      var cmd = new Cmd(files.current().toString(), files.rest(), isAfterNonOpt);
+      cmd.expandsArgFiles = true;
+      return Optional.of(cmd);
+    }
+
+    int i = Math.abs(idx.get());
+    int n = this.osArgs.size();
+    return Optional.of(
+      new Cmd(this.osArgs.get(i).toString(), this.osArgs.subList(i + 1, n), isAfterNonOpt));
+  }
+
+  private CompiledSpec compile(OptCfg[] optCfgs) throws InvalidOption {
+    try {
+      return new CompiledSpec(optCfgs);
+    } catch (InvalidOption e) {
+      this.result = new ParseResult(
+        Collections.emptyList(), Collections.emptyMap(), List.of(optCfgs));
+      throw e;
     }
   }
 
@@ -335,20 +751,81 @@ public class Cmd {
    * If you want to use your favorite character as a separator, you can use it by putting it
    * on the left side of the open square bracket, like {@code /[1/2/3]}.
    * <p>
+   * A {@link Opt} field annotation can also have {@code sep} to specify {@code separator} field,
+   * which divides an option argument of an array option into multiple option arguments, like
+   * {@code --ids=1,2,3}.
+   * If {@code sep} is specified, a default value without square brackets is also divided by it.
+   * <p>
    * NOTE: A default value of empty string array option in a field attribute is {@code []}, like
    * {@code @Opt(cfg="=[]")}, but it doesn't represent an array which contains only one empty
    * string.
    * If you want to specify an array which contains only one empty string, write nothing after
    * {@code =} symbol, like {@code Opt(cfg="=")}.
+   * <p>
+   * A field which takes multiple option arguments can be an array, {@link java.util.List},
+   * {@link java.util.Set}, {@link java.util.Collection}, {@link IntList}, {@link LongList} or
+   * {@link DoubleList}.
+   * The option arguments of a field of {@code int[]}, {@code long[]}, {@code double[]},
+   * {@link IntList}, {@link LongList} or {@link DoubleList} are parsed into a primitive buffer
+   * while parsing, without holding them as strings.
+   * The option arguments of such an option retrieved by {@link Cmd#optArg} and
+   * {@link Cmd#optArgs} are still the strings as they are given, which are made once when
+   * parsing is finished.
+   * <p>
+   * The option configurations made from an option store class are cached per class, so parsing
+   * for new instances of the same class many times does not make them again.
+   * If a binder of the class is generated by the annotation processor of the
+   * {@code cliargs-processor} module, the option configurations and the setting of the fields
+   * are taken from it without reflection. (See {@link OptStoreBinder}.)
    *
    * @param optStore  An object store.
    * @throws InvalidOption  If failed to parsing command line arguments.
    * @throws FailToSetOptionStoreField  If failed to set a field value of an object store.
    */
   public void parseFor(Object optStore) throws InvalidOption, FailToSetOptionStoreField {
-    var cfgs = OptCfg.makeOptCfgsFor(optStore);
-    parseWith(cfgs);
-    ParseFor.setOptionStoreFieldValues(optStore, cfgs, this.opts);
+    var binding = OptStoreBinding.of(optStore.getClass());
+    var cfgs = binding.cfgs;
+    var spec = (binding.spec != null) ? binding.spec : compile(cfgs);
+    var buffers = ParseFor.makeArrayBuffers(cfgs);
+    parseWith(spec, new ParseWith(this.isAfterNonOpt, false, buffers));
+    ParseFor.setOptionStoreFieldValues(optStore, cfgs, this.result.opts(), buffers);
+  }
+
+  /**
+   * Parses command line arguments and creates an instance of the record class with their option
+   * values.
+   * <p>
+   * This method parses command line arguments in the same way as the {@link Cmd#parseFor(Object)}
+   * method, except that the option configurations are made from the components of the record
+   * class with {@link Opt} annotations, and the option values are passed to the canonical
+   * constructor of the record class.
+   * So the record is created in one step, and can be safely published to other threads.
+   * A component of which option is not specified and has no default value is the default value
+   * of its type, e.g. {@code null} or {@code 0}.
+   * <p>
+   * The handle of the canonical constructor is cached per class with the option configurations.
+   * An exception thrown by the canonical constructor, e.g. by the validation in a compact
+   * constructor, is thrown from this method as it is.
+   *
+   * @param <T>  The type of the record.
+   * @param recordClass  The record class.
+   * @return  The record which holds the option values.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   * @throws FailToSetOptionStoreField  If failed to convert an option value to the type of a
+   *   record component.
+   * @throws IllegalArgumentException  If the canonical constructor is not accessible.
+   */
+  public <T extends Record> T parseFor(Class<T> recordClass)
+    throws InvalidOption, FailToSetOptionStoreField
+  {
+    var binding = OptStoreBinding.of(recordClass);
+    var cfgs = binding.cfgs;
+    var spec = (binding.spec != null) ? binding.spec : compile(cfgs);
+    var buffers = ParseFor.makeArrayBuffers(cfgs);
+    parseWith(spec, new ParseWith(this.isAfterNonOpt, false, buffers));
+    var args = binding.newRecordArgs();
+    ParseFor.setOptionStoreFieldValues(args, cfgs, this.result.opts(), buffers);
+    return recordClass.cast(binding.newRecord(args));
   }
 
   /**
@@ -370,9 +847,12 @@ public class Cmd {
   public Optional<Cmd> parseUntilSubCmdFor(Object optStore)
     throws InvalidOption, FailToSetOptionStoreField
   {
-    var cfgs = OptCfg.makeOptCfgsFor(optStore);
-    var optional = parseUntilSubCmdWith(cfgs);
-    ParseFor.setOptionStoreFieldValues(optStore, cfgs, this.opts);
+    var binding = OptStoreBinding.of(optStore.getClass());
+    var cfgs = binding.cfgs;
+    var spec = (binding.spec != null) ? binding.spec : compile(cfgs);
+    var buffers = ParseFor.makeArrayBuffers(cfgs);
+    var optional = parseUntilSubCmdWith(spec, new ParseWith(this.isAfterNonOpt, true, buffers));
+    ParseFor.setOptionStoreFieldValues(optStore, cfgs, this.result.opts(), buffers);
     return optional;
   }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.Base.isEmpty;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.StoreKeyIsDuplicated;
+import com.github.sttk.cliargs.exceptions.ConfigIsArrayButHasNoArg;
+import com.github.sttk.cliargs.exceptions.ConfigHasDefaultsButHasNoArg;
+import com.github.sttk.cliargs.exceptions.ConfigIsNotArrayButHasSeparator;
+import com.github.sttk.cliargs.exceptions.OptionNameIsDuplicated;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+import com.github.sttk.cliargs.validators.Converter;
+
+import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Is the precompiled form of an array of option configurations.
+ * <p>
+ * An instance of this class checks the consistency of the option configurations, resolves the
+ * store keys and builds the lookup table of option names only once when it is constructed.
+ * Therefore, parsing command line arguments with an instance of this class by
+ * {@link Cmd#parseWith(CompiledSpec)} costs nothing for setting up the configurations.
+ * <p>
+ * An instance of this class is immutable, so it can be shared and reused across multiple
+ * {@link Cmd} instances and multiple threads.
+ */
+public final class CompiledSpec {
+
+  static final String ANY_OPTION = "*";
+
+  final OptCfg[] cfgs;
+  final List<OptCfg> cfgList;
+
+  // The store key of each option configuration, or null if the configuration is skipped.
+  final String[] storeKeys;
+
+  final NameIndex nameIndex;
+  final NameIndex storeKeyIndex;
+  final boolean hasAnyOpt;
+
+  /**
+   * Constructs an instance of this class with an array of option configurations.
+   * <p>
+   * The exceptions about the inconsistency of the option configurations are thrown by this
+   * constructor, not by the parsing methods.
+   *
+   * @param optCfgs  The array of the option configurations.
+   * @throws StoreKeyIsDuplicated  If there are duplicated store keys among configurations.
+   * @throws ConfigIsArrayButHasNoArg  If a configuration is an array but has no argument.
+   * @throws ConfigHasDefaultsButHasNoArg  If a configuration has defaults but has no argument.
+   * @throws ConfigIsNotArrayButHasSeparator  If a configuration is not an array but has a
+   *   separator.
+   * @throws OptionNameIsDuplicated  If there are duplicated option names among configurations.
+   */
+  public CompiledSpec(OptCfg[] optCfgs) throws InvalidOption {
+    this.cfgs = optCfgs.clone();
+    this.cfgList = List.of(this.cfgs);
+    this.storeKeys = new String[this.cfgs.length];
+
+    var optSet = new HashSet<String>();
+    var cfgMap = new HashMap<String, Integer>();
+    var keyMap = new HashMap<String, Integer>();
+    boolean hasAnyOpt = false;
+
+    for (int i = 0, n = this.cfgs.length; i < n; i++) {
+      var cfg = this.cfgs[i];
+
+      var firstName = firstNameOf(cfg);
+
+      var storeKey = cfg.storeKey;
+      if (isEmpty(storeKey)) {
+        storeKey = firstName;
+      }
+
+      if (isEmpty(storeKey)) {
+        continue;
+      }
+
+      if (ANY_OPTION.equals(storeKey)) {
+        hasAnyOpt = true;
+        continue;
+      }
+
+      if (isEmpty(firstName)) {
+        firstName = storeKey;
+      }
+
+      if (optSet.contains(storeKey)) {
+        throw new StoreKeyIsDuplicated(storeKey, firstName);
+      }
+      optSet.add(storeKey);
+
+      if (!cfg.hasArg) {
+        if (cfg.isArray) {
+          throw new ConfigIsArrayButHasNoArg(storeKey, firstName);
+        }
+        if (cfg.defaults.isPresent()) {
+          var defaults = cfg.defaults.get();
+          if (! isEmpty(defaults)) {
+            throw new ConfigHasDefaultsButHasNoArg(storeKey, firstName);
+          }
+        }
+      }
+
+      if (! cfg.isArray && ! isEmpty(cfg.separator)) {
+        throw new ConfigIsNotArrayButHasSeparator(storeKey, firstName);
+      }
+
+      boolean hasNames = false;
+      for (var name : cfg.names) {
+        if (isEmpty(name)) {
+          continue;
+        }
+        hasNames = true;
+        if (cfgMap.containsKey(name)) {
+          throw new OptionNameIsDuplicated(storeKey, name);
+        }
+        cfgMap.put(name, i);
+      }
+      if (!hasNames) {
+        cfgMap.put(firstName, i);
+      }
+
+      this.storeKeys[i] = storeKey;
+      keyMap.put(storeKey, i);
+    }
+
+    this.nameIndex = new NameIndex(cfgMap);
+    this.storeKeyIndex = new NameIndex(keyMap);
+    this.hasAnyOpt = hasAnyOpt;
+  }
+
+  private static String firstNameOf(OptCfg cfg) {
+    for (var name : cfg.names) {
+      if (! isEmpty(name)) {
+        return name;
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Returns the typed key of the option with the specified store key, whose value is the option
+   * argument string.
+   *
+   * @param storeKey  The store key of the option.
+   * @return  The option key.
+   * @throws UnconfiguredOption  If there is no option with the store key.
+   */
+  public OptKey<String> key(String storeKey) throws UnconfiguredOption {
+    return new OptKey<>(this, indexOf(storeKey), (k, name, arg) -> arg);
+  }
+
+  /**
+   * Returns the typed key of the option with the specified store key, whose value is converted
+   * from the option argument string by the converter.
+   *
+   * @param <T>  The type of the option value.
+   * @param storeKey  The store key of the option.
+   * @param converter  The converter from an option argument to a value.
+   * @return  The option key.
+   * @throws UnconfiguredOption  If there is no option with the store key.
+   */
+  public <T> OptKey<T> key(String storeKey, Converter<T> converter) throws UnconfiguredOption {
+    return new OptKey<>(this, indexOf(storeKey), converter);
+  }
+
+  /**
+   * Returns the typed key of the option with the specified store key, whose value is an
+   * {@code int}.
+   *
+   * @param storeKey  The store key of the option.
+   * @return  The option key.
+   * @throws UnconfiguredOption  If there is no option with the store key.
+   */
+  public OptKey.OfInt intKey(String storeKey) throws UnconfiguredOption {
+    return new OptKey.OfInt(this, indexOf(storeKey));
+  }
+
+  /**
+   * Returns the typed key of the option with the specified store key, whose value is a
+   * {@code long}.
+   *
+   * @param storeKey  The store key of the option.
+   * @return  The option key.
+   * @throws UnconfiguredOption  If there is no option with the store key.
+   */
+  public OptKey.OfLong longKey(String storeKey) throws UnconfiguredOption {
+    return new OptKey.OfLong(this, indexOf(storeKey));
+  }
+
+  /**
+   * Returns the typed key of the option with the specified store key, whose value is a
+   * {@code double}.
+   *
+   * @param storeKey  The store key of the option.
+   * @return  The option key.
+   * @throws UnconfiguredOption  If there is no option with the store key.
+   */
+  public OptKey.OfDouble doubleKey(String storeKey) throws UnconfiguredOption {
+    return new OptKey.OfDouble(this, indexOf(storeKey));
+  }
+
+  private int indexOf(String storeKey) throws UnconfiguredOption {
+    int i = this.storeKeyIndex.get(storeKey);
+    if (i < 0) {
+      throw new UnconfiguredOption(storeKey);
+    }
+    return i;
+  }
+
+  /**
+   * Returns the option configurations which this instance was compiled from.
+   *
+   * @return  The unmodifiable list of the option configurations.
+   */
+  public List<OptCfg> optCfgs() {
+    return this.cfgList;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * Is the unmodifiable list of {@code double} values, which can be the type of a field of an option
+ * store which takes multiple option arguments.
+ * <p>
+ * The option arguments for a field of this type are parsed to {@code double} values while parsing
+ * command line arguments, and are stored in this list without boxing.
+ */
+public final class DoubleList {
+
+  private static final DoubleList EMPTY = new DoubleList(new double[0]);
+
+  private final double[] values;
+
+  // Takes the ownership of the array.
+  DoubleList(double[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Returns a list which has the specified values.
+   *
+   * @param values  The values.
+   * @return  A list of the values.
+   */
+  public static DoubleList of(double... values) {
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    return new DoubleList(values.clone());
+  }
+
+  /**
+   * Returns the number of the values in this list.
+   *
+   * @return  The number of the values.
+   */
+  public int size() {
+    return this.values.length;
+  }
+
+  /**
+   * Checks whether this list has no value.
+   *
+   * @return  True, if this list has no value.
+   */
+  public boolean isEmpty() {
+    return this.values.length == 0;
+  }
+
+  /**
+   * Returns the value at the specified index in this list.
+   *
+   * @param index  The index of the value.
+   * @return  The value.
+   * @throws IndexOutOfBoundsException  If the index is out of range.
+   */
+  public double get(int index) {
+    return this.values[index];
+  }
+
+  /**
+   * Returns a new array which has the values in this list.
+   *
+   * @return  An array of the values.
+   */
+  public double[] toArray() {
+    return this.values.clone();
+  }
+
+  /**
+   * Returns a sequential stream of the values in this list.
+   *
+   * @return  A stream of the values.
+   */
+  public DoubleStream stream() {
+    return Arrays.stream(this.values);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return (obj instanceof DoubleList other) && Arrays.equals(this.values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.values);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(this.values);
+  }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import com.github.sttk.cliargs.exceptions.BadFieldType;
+import com.github.sttk.cliargs.validators.Converters;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Is the setter of a field of an option store, which is specialized for the type of the field.
+ * <p>
+ * An instance of this class is made only once per field when the option configurations of an
+ * option store class are made, and it converts option arguments and stores the value to the
+ * field with a method handle whose type is exact for the field type.
+ * Therefore, setting a field at every parsing neither searches the conversion for the field type
+ * nor boxes a primitive value.
+ * A field of a type which is not converted natively is converted with the converter of the type
+ * in {@link Converters}, which is looked up only once here.
+ * A field of {@link List}, {@link Set} or {@link Collection} is set to an unmodifiable
+ * collection of the values converted to its type argument, and a field of {@link IntList},
+ * {@link LongList} or {@link DoubleList} is set to the list of primitive values.
+ * A field which cannot be set with a method handle, e.g. a static final field or a field of an
+ * unsupported type, is set with {@link OptCfgFactory#setOptionStoreFieldValue}.
+ * <p>
+ * The fields of an option store class which has a generated {@link OptStoreBinder} are set by
+ * the binder instead, through instances of this class made by it.
+ */
+final class FieldBinder {
+
+  // Converts option arguments and sets the value to a field.
+  @FunctionalInterface
+  interface Setter {
+    void set(Object optStore, List<String> optArgs) throws Throwable;
+  }
+
+  // Sets a value which has already been converted to a field.
+  @FunctionalInterface
+  interface ValueSetter {
+    void set(Object optStore, Object value) throws Throwable;
+  }
+
+  private static final MethodType OBJECT_SETTER_TYPE =
+    methodType(void.class, Object.class, Object.class);
+
+  private final Setter setter;
+  private final ValueSetter valueSetter;
+
+  FieldBinder(Setter setter, ValueSetter valueSetter) {
+    this.setter = setter;
+    this.valueSetter = valueSetter;
+  }
+
+  /**
+   * Makes the binder of the specified field.
+   * The field should be made accessible before this method is called.
+   *
+   * @param field  The field of an option store class.
+   * @return  The binder of the field.
+   */
+  static FieldBinder of(Field field) {
+    try {
+      var mh = MethodHandles.lookup().unreflectSetter(field);
+      if (Modifier.isStatic(field.getModifiers())) {
+        // The option store is ignored for a static field.
+        mh = MethodHandles.dropArguments(mh, 0, Object.class);
+      }
+      var setter = setterOf(field, mh);
+      if (setter != null) {
+        var h = mh.asType(OBJECT_SETTER_TYPE);
+        return new FieldBinder(setter, (o, v) -> { h.invokeExact(o, v); });
+      }
+    } catch (IllegalAccessException e) {
+      // This field, e.g. a static final field, is set by reflection, which throws the same
+      // exception at every parsing.
+    }
+
+    return new FieldBinder(
+      (optStore, optArgs) -> OptCfgFactory.setOptionStoreFieldValue(optStore, field, optArgs),
+      field::set);
+  }
+
+  /**
+   * Makes the binder of the specified component of a record class, which sets values to the
+   * element at the index of the component in an array of the arguments of the canonical
+   * constructor, instead of the field.
+   *
+   * @param index  The index of the record component.
+   * @param field  The private field of the record component.
+   * @return  The binder of the record component.
+   */
+  static FieldBinder ofRecordComponent(int index, Field field) {
+    var mh = MethodHandles.insertArguments(
+      MethodHandles.arrayElementSetter(Object[].class), 1, index);
+    var h = mh.asType(OBJECT_SETTER_TYPE);
+    ValueSetter valueSetter = (o, v) -> { h.invokeExact(o, v); };
+
+    var type = field.getType();
+    var setter = setterOf(field, mh);
+    if (setter != null) {
+      return new FieldBinder(setter, valueSetter);
+    }
+
+    // An unsupported type causes the same exception as a field of an option store class.
+    var name = field.getName();
+    var isArray = type.isArray();
+    var elemType = isArray ? type.getComponentType() : type;
+    return new FieldBinder((o, a) -> {
+      if (isArray || ! a.isEmpty()) {
+        throw new BadFieldType(name, elemType);
+      }
+    }, valueSetter);
+  }
+
+  /**
+   * Converts the option arguments to the value of the field type, and sets it to the field.
+   * If the option arguments are null, this method does nothing.
+   *
+   * @param optStore  The option store.
+   * @param optArgs  The option arguments.
+   * @throws Exception  If failed to convert the option arguments or to set the field.
+   */
+  void set(Object optStore, List<String> optArgs) throws Exception {
+    if (optArgs == null) {
+      return;
+    }
+    try {
+      this.setter.set(optStore, optArgs);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  /**
+   * Sets the value which has already been converted to the field.
+   *
+   * @param optStore  The option store.
+   * @param value  The value to be set, which is unboxed if the field type is primitive.
+   * @throws Exception  If failed to set the field.
+   */
+  void setValue(Object optStore, Object value) throws Exception {
+    try {
+      this.valueSetter.set(optStore, value);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  // Checks whether the type is a collection type which can be the type of a field which takes
+  // multiple option arguments, like an array type.
+  static boolean isCollectionType(Class<?> type) {
+    return type == List.class || type == Set.class || type == Collection.class ||
+      type == IntList.class || type == LongList.class || type == DoubleList.class;
+  }
+
+  // Returns the element type of a field of a collection type. The element type of a raw type is
+  // String, and the type argument of a parameterized type is erased.
+  static Class<?> elementTypeOf(Class<?> type, Type genericType) {
+    if (type == IntList.class) {
+      return int.class;
+    } else if (type == LongList.class) {
+      return long.class;
+    } else if (type == DoubleList.class) {
+      return double.class;
+    } else if (genericType instanceof ParameterizedType p) {
+      return erasure(p.getActualTypeArguments()[0]);
+    }
+    return String.class;
+  }
+
+  private static Class<?> erasure(Type type) {
+    if (type instanceof Class<?> c) {
+      return c;
+    } else if (type instanceof ParameterizedType p) {
+      return erasure(p.getRawType());
+    } else if (type instanceof WildcardType w) {
+      return erasure(w.getUpperBounds()[0]);
+    } else if (type instanceof TypeVariable<?> v) {
+      return erasure(v.getBounds()[0]);
+    }
+    return Object.class;
+  }
+
+  // Returns an unmodifiable collection of the type, which is a set keeping the order of the values
+  // or a list, and takes the ownership of the array.
+  static Object toCollection(Class<?> type, Object[] values) {
+    var list = Arrays.asList(values);
+    if (type == Set.class) {
+      return Collections.unmodifiableSet(new LinkedHashSet<>(list));
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  private static Setter setterOf(Field field, MethodHandle mh) {
+    var type = field.getType();
+    var setter = specialize(type, mh);
+    if (setter == null && isCollectionType(type)) {
+      setter = collect(type, field.getGenericType(), field.getName(), mh);
+    }
+    if (setter == null) {
+      setter = convertWith(type, field.getName(), mh);
+    }
+    return setter;
+  }
+
+  // Returns the setter which converts option arguments to the elements of a collection and sets
+  // the collection with the method handle.
+  private static Setter collect(
+    Class<?> type, Type genericType, String storeKey, MethodHandle mh
+  ) {
+    var h = mh.asType(OBJECT_SETTER_TYPE);
+
+    if (type == IntList.class) {
+      return (o, a) -> {
+        var arr = new int[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Integer.parseInt(a.get(i));
+        }
+        h.invokeExact(o, (Object) new IntList(arr));
+      };
+    } else if (type == LongList.class) {
+      return (o, a) -> {
+        var arr = new long[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Long.parseLong(a.get(i));
+        }
+        h.invokeExact(o, (Object) new LongList(arr));
+      };
+    } else if (type == DoubleList.class) {
+      return (o, a) -> {
+        var arr = new double[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Double.parseDouble(a.get(i));
+        }
+        h.invokeExact(o, (Object) new DoubleList(arr));
+      };
+    }
+
+    var elemType = elementTypeOf(type, genericType);
+    if (elemType == String.class) {
+      return (o, a) -> { h.invokeExact(o, toCollection(type, a.toArray())); };
+    }
+
+    var conv = Converters.find(elemType);
+    if (conv == null) {
+      return (o, a) -> { throw new BadFieldType(storeKey, elemType); };
+    }
+    return (o, a) -> {
+      var arr = new Object[a.size()];
+      for (int i = 0; i < arr.length; i++) {
+        arr[i] = conv.convert(storeKey, storeKey, a.get(i));
+      }
+      h.invokeExact(o, toCollection(type, arr));
+    };
+  }
+
+  // Returns the setter which converts option arguments to the specified type and sets the value
+  // with the method handle, or null if the type is not supported.
+  private static Setter specialize(Class<?> type, MethodHandle mh) {
+    if (type == boolean.class) {
+      var h = mh.asType(methodType(void.class, Object.class, boolean.class));
+      return (o, a) -> { h.invokeExact(o, true); };
+    } else if (type == int.class) {
+      var h = mh.asType(methodType(void.class, Object.class, int.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Integer.parseInt(a.get(0))); };
+    } else if (type == long.class) {
+      var h = mh.asType(methodType(void.class, Object.class, long.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Long.parseLong(a.get(0))); };
+    } else if (type == double.class) {
+      var h = mh.asType(methodType(void.class, Object.class, double.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Double.parseDouble(a.get(0))); };
+    } else if (type == float.class) {
+      var h = mh.asType(methodType(void.class, Object.class, float.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Float.parseFloat(a.get(0))); };
+    } else if (type == short.class) {
+      var h = mh.asType(methodType(void.class, Object.class, short.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Short.parseShort(a.get(0))); };
+    } else if (type == byte.class) {
+      var h = mh.asType(methodType(void.class, Object.class, byte.class));
+      return (o, a) -> { if (! a.isEmpty()) h.invokeExact(o, Byte.parseByte(a.get(0))); };
+    }
+
+    var h = mh.asType(OBJECT_SETTER_TYPE);
+
+    if (type == Boolean.class) {
+      return (o, a) -> { h.invokeExact(o, (Object) Boolean.TRUE); };
+    } else if (type == String.class) {
+      return scalar(h, s -> s);
+    } else if (type == Integer.class) {
+      return scalar(h, Integer::valueOf);
+    } else if (type == Long.class) {
+      return scalar(h, Long::valueOf);
+    } else if (type == Double.class) {
+      return scalar(h, Double::valueOf);
+    } else if (type == Float.class) {
+      return scalar(h, Float::valueOf);
+    } else if (type == Short.class) {
+      return scalar(h, Short::valueOf);
+    } else if (type == Byte.class) {
+      return scalar(h, Byte::valueOf);
+    } else if (type == BigDecimal.class) {
+      return scalar(h, BigDecimal::new);
+    } else if (type == BigInteger.class) {
+      return scalar(h, BigInteger::new);
+    }
+
+    if (! type.isArray()) {
+      return null;
+    }
+    type = type.getComponentType();
+
+    if (type == int.class) {
+      return (o, a) -> {
+        var arr = new int[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Integer.parseInt(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == long.class) {
+      return (o, a) -> {
+        var arr = new long[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Long.parseLong(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == double.class) {
+      return (o, a) -> {
+        var arr = new double[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Double.parseDouble(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == float.class) {
+      return (o, a) -> {
+        var arr = new float[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Float.parseFloat(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == short.class) {
+      return (o, a) -> {
+        var arr = new short[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Short.parseShort(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == byte.class) {
+      return (o, a) -> {
+        var arr = new byte[a.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = Byte.parseByte(a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    } else if (type == String.class) {
+      return array(h, String[]::new, s -> s);
+    } else if (type == Integer.class) {
+      return array(h, Integer[]::new, Integer::valueOf);
+    } else if (type == Long.class) {
+      return array(h, Long[]::new, Long::valueOf);
+    } else if (type == Double.class) {
+      return array(h, Double[]::new, Double::valueOf);
+    } else if (type == Float.class) {
+      return array(h, Float[]::new, Float::valueOf);
+    } else if (type == Short.class) {
+      return array(h, Short[]::new, Short::valueOf);
+    } else if (type == Byte.class) {
+      return array(h, Byte[]::new, Byte::valueOf);
+    } else if (type == BigDecimal.class) {
+      return array(h, BigDecimal[]::new, BigDecimal::new);
+    } else if (type == BigInteger.class) {
+      return array(h, BigInteger[]::new, BigInteger::new);
+    }
+    return null;
+  }
+
+  // Returns the setter which converts option arguments with the converter of the specified type
+  // in Converters, which is looked up only here, or null if the type has no converter.
+  private static Setter convertWith(Class<?> type, String storeKey, MethodHandle mh) {
+    var isArray = type.isArray();
+    var elemType = isArray ? type.getComponentType() : type;
+    if (elemType.isPrimitive()) {
+      return null;
+    }
+    var conv = Converters.find(elemType);
+    if (conv == null) {
+      return null;
+    }
+
+    var h = mh.asType(OBJECT_SETTER_TYPE);
+    if (isArray) {
+      return (o, a) -> {
+        var arr = (Object[]) Array.newInstance(elemType, a.size());
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = conv.convert(storeKey, storeKey, a.get(i));
+        }
+        h.invokeExact(o, (Object) arr);
+      };
+    }
+    return (o, a) -> {
+      if (! a.isEmpty()) {
+        h.invokeExact(o, (Object) conv.convert(storeKey, storeKey, a.get(0)));
+      }
+    };
+  }
+
+  private static Setter scalar(MethodHandle h, Function<String, Object> conv) {
+    return (o, a) -> {
+      if (! a.isEmpty()) {
+        h.invokeExact(o, conv.apply(a.get(0)));
+      }
+    };
+  }
+
+  private static Setter array(
+    MethodHandle h, IntFunction<Object[]> newArray, Function<String, Object> conv
+  ) {
+    return (o, a) -> {
+      var arr = newArray.apply(a.size());
+      for (int i = 0; i < arr.length; i++) {
+        arr[i] = conv.apply(a.get(i));
+      }
+      h.invokeExact(o, (Object) arr);
+    };
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.StringJoiner;
+
+/**
+ * Is the result of parsing command line arguments, which holds only the positions of command
+ * arguments and option arguments in the original command line arguments.
+ * <p>
+ * While {@link ParseResult} holds copies of command arguments and option arguments as strings,
+ * an instance of this class holds the index of each argument in the original command line
+ * arguments and the region of the option argument in it (e.g. the region of {@code value} in
+ * {@code --name=value}).
+ * The strings are created only when they are retrieved.
+ * Therefore, this is useful for parsing a command line which has a large number of arguments.
+ * <p>
+ * An instance of this class holds a reference to the original command line arguments, so they
+ * must not be modified after parsing.
+ * On that condition, an instance of this class is immutable and can be shared across threads.
+ */
+public final class IndexedResult {
+
+  // The values of heads other than entry numbers.
+  private static final int NONE = -1;
+  private static final int DEFAULTS = -2;
+  private static final int FLAG = -3;
+
+  // An entry consists of the index of an argument, the start and the end of the option argument
+  // in it, and the number of the next entry of the same option (or -1).
+  private static final int ENTRY_SIZE = 4;
+
+  private final List<? extends CharSequence> osArgs;
+  private final CompiledSpec spec;
+
+  private final int[] argIndices;
+  private final int argCount;
+
+  private final int[] entries;
+
+  // The first entry of each option, where the key of an option is the index of its configuration
+  // or the number of option configurations plus the index of its name in anyNames.
+  private final int[] heads;
+  private final List<String> anyNames;
+  private final Map<String, Integer> anyKeys;
+
+  private final List<String> args;
+
+  private IndexedResult(Collector c) {
+    this.osArgs = c.osArgs;
+    this.spec = c.spec;
+    this.argIndices = c.argIndices;
+    this.argCount = c.argCount;
+    this.entries = c.entries;
+    this.heads = c.heads;
+    this.anyNames = (c.anyNames != null) ? List.copyOf(c.anyNames) : List.of();
+    this.anyKeys = (c.anyKeys != null) ? Map.copyOf(c.anyKeys) : Map.of();
+    this.args = new Args();
+  }
+
+  /**
+   * Returns the command arguments.
+   * <p>
+   * The returned list is an unmodifiable view, and each element of it is created as a string
+   * when it is retrieved.
+   *
+   * @return  The command arguments.
+   */
+  public List<String> args() {
+    return this.args;
+  }
+
+  /**
+   * Returns the index of a command argument in the original command line arguments.
+   *
+   * @param index  The index of the command argument.
+   * @return  The index in the original command line arguments.
+   */
+  public int argIndexOf(int index) {
+    if (index < 0 || index >= this.argCount) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return this.argIndices[index];
+  }
+
+  /**
+   * Checks whether an option with the specified name exists.
+   *
+   * @param name  The option name.
+   * @return  True, if the option exists.
+   */
+  public boolean hasOpt(String name) {
+    int k = keyOf(name);
+    return k >= 0 && this.heads[k] != NONE;
+  }
+
+  /**
+   * Returns the option argument with the specified name.
+   * <p>
+   * This method returns the same value as {@link ParseResult#optArg}.
+   *
+   * @param name  The option name.
+   * @return  An {@link Optional} object which may contain the first option argument.
+   */
+  public Optional<String> optArg(String name) {
+    int k = keyOf(name);
+    if (k < 0) {
+      return Optional.empty();
+    }
+    int e = this.heads[k];
+    if (e == DEFAULTS) {
+      var defs = this.spec.cfgs[k].defaults.get();
+      return defs.isEmpty() ? Optional.empty() : Optional.of(defs.get(0));
+    }
+    if (e < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(valueOf(e));
+  }
+
+  /**
+   * Returns the option arguments with the specified name.
+   * <p>
+   * This method returns the same values as {@link ParseResult#optArgs}, but the returned list
+   * is created every time this method is called.
+   *
+   * @param name  The option name.
+   * @return  An {@link Optional} object which may contain the option arguments.
+   */
+  public Optional<List<String>> optArgs(String name) {
+    int k = keyOf(name);
+    if (k < 0) {
+      return Optional.empty();
+    }
+    int e = this.heads[k];
+    switch (e) {
+      case NONE:
+        return Optional.empty();
+      case DEFAULTS:
+        return Optional.of(this.spec.cfgs[k].defaults.get());
+      case FLAG:
+        return Optional.of(List.of());
+      default:
+        break;
+    }
+    int n = 0;
+    for (int i = e; i >= 0; i = this.entries[i * ENTRY_SIZE + 3]) {
+      n++;
+    }
+    var values = new String[n];
+    n = 0;
+    for (int i = e; i >= 0; i = this.entries[i * ENTRY_SIZE + 3]) {
+      values[n++] = valueOf(i);
+    }
+    return Optional.of(List.of(values));
+  }
+
+  /**
+   * Returns the option configurations which was used to parse command line arguments.
+   *
+   * @return  The option configurations.
+   */
+  public List<OptCfg> optCfgs() {
+    return this.spec.cfgList;
+  }
+
+  private int keyOf(String name) {
+    int k = this.spec.storeKeyIndex.get(name);
+    if (k >= 0) {
+      return k;
+    }
+    var any = this.anyKeys.get(name);
+    return (any != null) ? any : -1;
+  }
+
+  private String valueOf(int e) {
+    int p = e * ENTRY_SIZE;
+    var a = this.osArgs.get(this.entries[p]);
+    int start = this.entries[p + 1];
+    int end = this.entries[p + 2];
+    if (start == 0 && end == a.length()) {
+      return a.toString();
+    }
+    return a.subSequence(start, end).toString();
+  }
+
+  /**
+   * Returns a {@code String} object representing the content of this object.
+   *
+   * @return A stirng representation of the content of this object.
+   */
+  @Override
+  public String toString() {
+    var opts = new StringJoiner(", ", "{", "}");
+    for (int k = 0, n = this.heads.length; k < n; k++) {
+      if (this.heads[k] == NONE) {
+        continue;
+      }
+      var name = (k < this.spec.cfgs.length) ?
+        this.spec.storeKeys[k] : this.anyNames.get(k - this.spec.cfgs.length);
+      opts.add(name + "=" + optArgs(name).get());
+    }
+    return new StringJoiner(", ", "IndexedResult{", "}")
+      .add("args=" + this.args)
+      .add("opts=" + opts)
+      .toString();
+  }
+
+  private final class Args extends AbstractList<String> implements RandomAccess {
+    @Override
+    public String get(int index) {
+      return osArgs.get(argIndexOf(index)).toString();
+    }
+
+    @Override
+    public int size() {
+      return argCount;
+    }
+  }
+
+  /**
+   * Is the visitor which collects the positions of the arguments from the tokenizer while
+   * parsing, and builds an {@link IndexedResult}.
+   * <p>
+   * The methods of this visitor are called while the tokenizer is at the token passed to them, so
+   * the positions are read from the tokenizer, not from the arguments of the methods.
+   */
+  static final class Collector implements ArgVisitor {
+    private final Tokenizer t;
+
+    private List<? extends CharSequence> osArgs;
+    private CompiledSpec spec;
+    private int[] argIndices;
+    private int argCount;
+    private int[] entries;
+    private int entryCount;
+    private int[] heads;
+    private int[] tails;
+    private List<String> anyNames;
+    private Map<String, Integer> anyKeys;
+
+    Collector(Tokenizer t) {
+      this.t = t;
+    }
+
+    void reset(List<? extends CharSequence> osArgs, CompiledSpec spec) {
+      int n = spec.cfgs.length;
+      this.osArgs = osArgs;
+      this.spec = spec;
+      this.argIndices = new int[8];
+      this.argCount = 0;
+      this.entries = new int[8 * ENTRY_SIZE];
+      this.entryCount = 0;
+      this.heads = new int[n];
+      this.tails = new int[n];
+      Arrays.fill(this.heads, NONE);
+      this.anyNames = null;
+      this.anyKeys = null;
+    }
+
+    IndexedResult build() {
+      var r = new IndexedResult(this);
+      clear();
+      return r;
+    }
+
+    void clear() {
+      this.osArgs = null;
+      this.argIndices = null;
+      this.entries = null;
+      this.heads = null;
+      this.tails = null;
+      this.anyNames = null;
+      this.anyKeys = null;
+    }
+
+    @Override
+    public void onOption(int nameIndex, CharSequence value) {
+      addOpt(nameIndex, value != null);
+    }
+
+    @Override
+    public void onPositional(CharSequence arg) {
+      if (this.argCount == this.argIndices.length) {
+        this.argIndices = Arrays.copyOf(this.argIndices, this.argCount + (this.argCount >> 1));
+      }
+      this.argIndices[this.argCount++] = this.t.argIndex;
+    }
+
+    @Override
+    public void onAnyOption(String name, CharSequence value) {
+      if (this.anyKeys == null) {
+        this.anyNames = new ArrayList<>();
+        this.anyKeys = new HashMap<>();
+      }
+      var k = this.anyKeys.get(name);
+      if (k == null) {
+        k = this.heads.length;
+        this.anyNames.add(name);
+        this.anyKeys.put(name, k);
+        this.heads = Arrays.copyOf(this.heads, k + 1);
+        this.tails = Arrays.copyOf(this.tails, k + 1);
+        this.heads[k] = NONE;
+      }
+      addOpt(k, value != null);
+    }
+
+    @Override
+    public void onDefaults(int nameIndex, List<String> defaults) {
+      if (this.heads[nameIndex] == NONE) {
+        this.heads[nameIndex] = DEFAULTS;
+      }
+    }
+
+    // Adds an option argument in the same way as ParseResult.addOptArg, or replaces the option
+    // arguments with a boolean flag.
+    private void addOpt(int k, boolean hasValue) {
+      if (! hasValue) {
+        this.heads[k] = FLAG;
+        return;
+      }
+
+      if (this.entryCount * ENTRY_SIZE == this.entries.length) {
+        int n = this.entryCount + (this.entryCount >> 1);
+        this.entries = Arrays.copyOf(this.entries, n * ENTRY_SIZE);
+      }
+      int e = this.entryCount++;
+      int p = e * ENTRY_SIZE;
+      this.entries[p] = this.t.valueIndex;
+      this.entries[p + 1] = this.t.valueStart;
+      this.entries[p + 2] = this.t.valueEnd;
+      this.entries[p + 3] = -1;
+
+      if (this.heads[k] < 0) {
+        this.heads[k] = e;
+      } else {
+        this.entries[this.tails[k] * ENTRY_SIZE + 3] = e;
+      }
+      this.tails[k] = e;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Is the unmodifiable list of {@code int} values, which can be the type of a field of an option
+ * store which takes multiple option arguments.
+ * <p>
+ * The option arguments for a field of this type are parsed to {@code int} values while parsing
+ * command line arguments, and are stored in this list without boxing.
+ */
+public final class IntList {
+
+  private static final IntList EMPTY = new IntList(new int[0]);
+
+  private final int[] values;
+
+  // Takes the ownership of the array.
+  IntList(int[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Returns a list which has the specified values.
+   *
+   * @param values  The values.
+   * @return  A list of the values.
+   */
+  public static IntList of(int... values) {
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    return new IntList(values.clone());
+  }
+
+  /**
+   * Returns the number of the values in this list.
+   *
+   * @return  The number of the values.
+   */
+  public int size() {
+    return this.values.length;
+  }
+
+  /**
+   * Checks whether this list has no value.
+   *
+   * @return  True, if this list has no value.
+   */
+  public boolean isEmpty() {
+    return this.values.length == 0;
+  }
+
+  /**
+   * Returns the value at the specified index in this list.
+   *
+   * @param index  The index of the value.
+   * @return  The value.
+   * @throws IndexOutOfBoundsException  If the index is out of range.
+   */
+  public int get(int index) {
+    return this.values[index];
+  }
+
+  /**
+   * Returns a new array which has the values in this list.
+   *
+   * @return  An array of the values.
+   */
+  public int[] toArray() {
+    return this.values.clone();
+  }
+
+  /**
+   * Returns a sequential stream of the values in this list.
+   *
+   * @return  A stream of the values.
+   */
+  public IntStream stream() {
+    return Arrays.stream(this.values);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return (obj instanceof IntList other) && Arrays.equals(this.values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.values);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(this.values);
+  }
+}
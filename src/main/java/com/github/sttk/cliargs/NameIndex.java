@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Is the collision-free lookup table from option names to indexes of option configurations.
+ * <p>
+ * This table is built with the "hash and displace" method: the names are distributed into
+ * buckets by a first hash, and for each bucket a displacement is searched so that all names in
+ * the bucket are placed into distinct empty slots by a second hash.
+ * Thus, a lookup always probes only one slot.
+ * <p>
+ * A name can be looked up from a region of a {@link CharSequence}, so that it is not needed to
+ * create a key string from a command line argument.
+ * <p>
+ * Names which consist of a single ASCII character, which are mostly names of short options, are
+ * also held in a table indexed by the character, and are looked up with one array load.
+ */
+final class NameIndex {
+
+  private static final int NOT_FOUND = -1;
+  private static final int MAX_DISPLACEMENT = 1 << 16;
+
+  private static final int ASCII_SIZE = 128;
+
+  private final int[] asciiChars;
+  private final String[] keys;
+  private final int[] values;
+  private final int[] disps;
+  private final int slotMask;
+  private final int bucketMask;
+  private final long seed;
+
+  NameIndex(Map<String, Integer> map) {
+    int n = map.size();
+    var names = map.keySet().toArray(new String[n]);
+
+    this.asciiChars = new int[ASCII_SIZE];
+    Arrays.fill(this.asciiChars, NOT_FOUND);
+    for (var name : names) {
+      if (name.length() == 1 && name.charAt(0) < ASCII_SIZE) {
+        this.asciiChars[name.charAt(0)] = map.get(name);
+      }
+    }
+
+    long seed = 0x9e3779b97f4a7c15L;
+    int slotCount = ceilPow2(n + (n >> 2) + 1);
+    int bucketCount = ceilPow2((n >> 1) + 1);
+
+    while (true) {
+      var keys = new String[slotCount];
+      var disps = new int[bucketCount];
+      if (place(names, seed, keys, disps)) {
+        var values = new int[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+          values[i] = (keys[i] != null) ? map.get(keys[i]) : NOT_FOUND;
+        }
+        this.keys = keys;
+        this.values = values;
+        this.disps = disps;
+        this.slotMask = slotCount - 1;
+        this.bucketMask = bucketCount - 1;
+        this.seed = seed;
+        return;
+      }
+      seed = mix64(seed + 0x9e3779b97f4a7c15L);
+      slotCount <<= 1;
+    }
+  }
+
+  private static boolean place(String[] names, long seed, String[] keys, int[] disps) {
+    int slotMask = keys.length - 1;
+    int bucketMask = disps.length - 1;
+
+    var hashes = new long[names.length];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<Integer>[] buckets = new List[disps.length];
+    for (int i = 0; i < names.length; i++) {
+      hashes[i] = hash(seed, names[i], 0, names[i].length());
+      int b = bucket(hashes[i], bucketMask);
+      if (buckets[b] == null) {
+        buckets[b] = new ArrayList<>();
+      }
+      buckets[b].add(i);
+    }
+
+    var order = new Integer[disps.length];
+    for (int b = 0; b < order.length; b++) {
+      order[b] = b;
+    }
+    Arrays.sort(order, (b1, b2) -> size(buckets[b2]) - size(buckets[b1]));
+
+    var slots = new int[names.length];
+    for (int b : order) {
+      var bucket = buckets[b];
+      if (bucket == null) {
+        break;
+      }
+
+      int nb = bucket.size();
+      boolean placed = false;
+      L0: for (int d = 0; d < MAX_DISPLACEMENT; d++) {
+        for (int j = 0; j < nb; j++) {
+          int s = slot(hashes[bucket.get(j)], d, slotMask);
+          if (keys[s] != null) {
+            continue L0;
+          }
+          for (int k = 0; k < j; k++) {
+            if (slots[k] == s) {
+              continue L0;
+            }
+          }
+          slots[j] = s;
+        }
+        for (int j = 0; j < nb; j++) {
+          keys[slots[j]] = names[bucket.get(j)];
+        }
+        disps[b] = d;
+        placed = true;
+        break;
+      }
+      if (!placed) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int size(List<Integer> list) {
+    return (list == null) ? 0 : list.size();
+  }
+
+  /**
+   * Gets the index of the option configuration which has the specified name.
+   *
+   * @param name  The option name.
+   * @return  The index of the option configuration, or -1 if not found.
+   */
+  int get(String name) {
+    return get(name, 0, name.length());
+  }
+
+  /**
+   * Gets the index of the option configuration which has the name which equals to the specified
+   * region of a character sequence.
+   *
+   * @param s  The character sequence which contains an option name.
+   * @param start  The start index of the option name in {@code s} (inclusive).
+   * @param end  The end index of the option name in {@code s} (exclusive).
+   * @return  The index of the option configuration, or -1 if not found.
+   */
+  int get(CharSequence s, int start, int end) {
+    if (end - start == 1) {
+      char c = s.charAt(start);
+      if (c < ASCII_SIZE) {
+        return this.asciiChars[c];
+      }
+    }
+
+    long h = hash(this.seed, s, start, end);
+    int d = this.disps[bucket(h, this.bucketMask)];
+    int i = slot(h, d, this.slotMask);
+
+    var key = this.keys[i];
+    if (key == null || key.length() != end - start) {
+      return NOT_FOUND;
+    }
+    for (int j = 0, k = start; k < end; j++, k++) {
+      if (key.charAt(j) != s.charAt(k)) {
+        return NOT_FOUND;
+      }
+    }
+    return this.values[i];
+  }
+
+  private static long hash(long seed, CharSequence s, int start, int end) {
+    long h = seed;
+    for (int i = start; i < end; i++) {
+      h = (h ^ s.charAt(i)) * 0x100000001b3L;
+    }
+    return mix64(h);
+  }
+
+  private static int bucket(long h, int bucketMask) {
+    return (int)(h >>> 32) & bucketMask;
+  }
+
+  private static int slot(long h, int d, int slotMask) {
+    int x = (int) h ^ (d * 0x9e3779b9);
+    x ^= x >>> 16;
+    x *= 0x85ebca6b;
+    x ^= x >>> 13;
+    return x & slotMask;
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+
+  private static int ceilPow2(int n) {
+    return (n <= 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+  }
+}
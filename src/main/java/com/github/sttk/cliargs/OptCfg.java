@@ -16,7 +16,6 @@ import com.github.sttk.cliargs.exceptions.InvalidOption;
 import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 import com.github.sttk.cliargs.exceptions.FailToSetOptionStoreField;
 
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Optional;
@@ -82,7 +81,21 @@ public class OptCfg {
    */
   public final Validator validator;
 
-  final Field field;
+  /**
+   * Is the separator which divides an option argument into multiple option arguments.
+   * <p>
+   * For example, if this value is {@code ","}, an option argument {@code 1,2,3} is divided into
+   * three option arguments: {@code 1}, {@code 2} and {@code 3}.
+   * This is allowed only for an array option.
+   * If this value is empty, an option argument is not divided.
+   */
+  public final String separator;
+
+  // The type of the field from which this configuration is made, or null.
+  final Class<?> type;
+
+  // The binder which sets option arguments to the field, or null.
+  final FieldBinder binder;
 
   /**
    * Returns the content string of this instance.
@@ -110,7 +123,9 @@ public class OptCfg {
     String desc,
     String argInHelp,
     Validator validator,
-    Field field
+    String separator,
+    Class<?> type,
+    FieldBinder binder
   ) {
     this.storeKey = storeKey;
     this.names = names;
@@ -120,7 +135,9 @@ public class OptCfg {
     this.desc = desc;
     this.argInHelp = argInHelp;
     this.validator = validator;
-    this.field = field;
+    this.separator = separator;
+    this.type = type;
+    this.binder = binder;
   }
 
   /**
@@ -178,7 +195,9 @@ public class OptCfg {
     this.desc = init.desc;
     this.argInHelp = init.argInHelp;
     this.validator = validator;
-    this.field = null;
+    this.separator = init.separator;
+    this.type = null;
+    this.binder = null;
   }
 
   /**
@@ -216,7 +235,9 @@ public class OptCfg {
     this.desc = init.desc;
     this.argInHelp = init.argInHelp;
     this.validator = init.validator;
-    this.field = null;
+    this.separator = init.separator;
+    this.type = null;
+    this.binder = null;
   }
 
   private void fillMissing(Init init) {
@@ -235,6 +256,10 @@ public class OptCfg {
     if (init.argInHelp == null) {
       init.argInHelp = "";
     }
+
+    if (init.separator == null) {
+      init.separator = "";
+    }
   }
 
   private static class Init {
@@ -246,6 +271,7 @@ public class OptCfg {
     String desc;
     String argInHelp;
     Validator validator;
+    String separator;
   }
 
   /**
@@ -370,6 +396,17 @@ public class OptCfg {
     static Param validator(Validator validator) {
       return init -> Init.class.cast(init).validator = validator;
     }
+
+    /**
+     * Is the static method to set the {@code separator} field like a named parameter.
+     *
+     * @param separator  The value of the {@code separator} field.
+     * @return  The {@link Param} object to set the {@code separator} field of the {@link OptCfg}
+     *   instance.
+     */
+    static Param separator(String separator) {
+      return init -> Init.class.cast(init).separator = separator;
+    }
   }
 
   /**
@@ -383,6 +420,6 @@ public class OptCfg {
    * @return  An {@link OptCfg} array.
    */
   public static OptCfg[] makeOptCfgsFor(Object optStore) {
-    return ParseFor.makeOptCfgsFor(optStore);
+    return OptStoreBinding.of(optStore.getClass()).cfgs.clone();
   }
 }
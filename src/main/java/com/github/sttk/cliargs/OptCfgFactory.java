@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.Base.indexOfSeparator;
+import static com.github.sttk.cliargs.Base.isEmpty;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import com.github.sttk.cliargs.annotations.Opt;
+import com.github.sttk.cliargs.validators.Converter;
+import com.github.sttk.cliargs.validators.Converters;
+import com.github.sttk.cliargs.validators.Validator;
+import com.github.sttk.cliargs.exceptions.BadFieldType;
+
+interface OptCfgFactory {
+
+  static OptCfg create(final Field fld) {
+    return create(fld, FieldBinder.of(fld));
+  }
+
+  static OptCfg create(final Field fld, final FieldBinder binder) {
+    String cfg, desc, arg, sep;
+    var annotation = fld.getAnnotation(Opt.class);
+    if (annotation != null) {
+      cfg = annotation.cfg();
+      desc = annotation.desc();
+      arg = annotation.arg();
+      sep = annotation.sep();
+    } else {
+      cfg = "";
+      desc = "";
+      arg = "";
+      sep = "";
+    }
+
+    final var storeKey = fld.getName();
+
+    var type = fld.getType();
+    final var hasArg = !(type.equals(boolean.class) || type.equals(Boolean.class));
+    final var isArray = type.isArray() || FieldBinder.isCollectionType(type);
+
+    if (type.isArray()) {
+      type = type.getComponentType();
+    } else if (isArray) {
+      type = FieldBinder.elementTypeOf(type, fld.getGenericType());
+    }
+
+    var namesAndDefaults = cfg.split("=", 2);
+    var names = parseNames(namesAndDefaults[0]);
+
+    Optional<List<String>> defaults = (namesAndDefaults.length < 2) ? Optional.empty() :
+      Optional.of(parseDefaults(namesAndDefaults[1], sep));
+
+    var validator = findValidator(type);
+
+    return new OptCfg(storeKey, names, hasArg, isArray, defaults, desc, arg, validator, sep,
+      fld.getType(), binder);
+  }
+
+  private static List<String> parseNames(String namesStr) {
+    if (isEmpty(namesStr)) {
+      return Collections.emptyList();
+    }
+    return List.of(namesStr.split(","));
+  }
+
+  private static List<String> parseDefaults(String defaultsStr, String sep) {
+    int len = defaultsStr.length();
+
+    if (defaultsStr.endsWith("]")) {
+      if (defaultsStr.startsWith("[")) {
+        return splitDefaults(defaultsStr, 1, len-1, ",");
+      } else if (len >= 3 && defaultsStr.charAt(1) == '[') {
+        return splitDefaults(defaultsStr, 2, len-1, defaultsStr.substring(0, 1));
+      }
+    }
+
+    if (! isEmpty(sep)) {
+      var list = new ArrayList<String>();
+      for (int i = 0; ; ) {
+        int j = indexOfSeparator(defaultsStr, i, len, sep);
+        list.add(defaultsStr.substring(i, j));
+        if (j == len) {
+          return List.copyOf(list);
+        }
+        i = j + sep.length();
+      }
+    }
+
+    return List.of(defaultsStr);
+  }
+
+  // Divides the region [start, end) of the default values in the same way as String#split, which
+  // removes trailing empty strings.
+  private static List<String> splitDefaults(String s, int start, int end, String sep) {
+    int n = sep.length();
+    while (end - start >= n && s.startsWith(sep, end - n)) {
+      end -= n;
+    }
+
+    var list = new ArrayList<String>();
+    for (int i = start; i < end; ) {
+      int j = indexOfSeparator(s, i, end, sep);
+      list.add(s.substring(i, j));
+      i = (j == end) ? end : j + n;
+    }
+    return List.copyOf(list);
+  }
+
+  // Returns the validator of a field type, which is the converter in Converters.
+  // The types which are set without validation, i.e. boolean, byte and String, have no validator.
+  static Validator findValidator(Class<?> type) {
+    if (type == boolean.class || type == Boolean.class || type == byte.class ||
+      type == Byte.class || type == String.class) {
+      return null;
+    }
+    return Converters.find(type);
+  }
+
+
+  static void setOptionStoreFieldValue(Object optStore, Field fld, List<String> optArgs)
+    throws Exception
+  {
+    if (optArgs == null) {
+      return;
+    }
+
+    var type = fld.getType();
+
+    if (type == boolean.class || type == Boolean.class) {
+      fld.set(optStore, true);
+      return;
+    }
+  
+    int n = optArgs.size();
+
+    if (type.isArray()) {
+      type = type.getComponentType();
+
+      if (type.equals(int.class)) {
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Integer.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Integer.class)) {
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Integer.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(String.class)) {
+        String[] arr = new String[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = optArgs.get(i);
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(double.class)) {
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Double.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Double.class)) {
+        Double[] arr = new Double[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Double.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(long.class)) {
+        long[] arr = new long[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Long.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Long.class)) {
+        Long[] arr = new Long[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Long.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(BigDecimal.class)) {
+        BigDecimal[] arr = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = new BigDecimal(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(BigInteger.class)) {
+        BigInteger[] arr = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = new BigInteger(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(float.class)) {
+        float[] arr = new float[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Float.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Float.class)) {
+        Float[] arr = new Float[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Float.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(short.class)) {
+        short[] arr = new short[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Short.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Short.class)) {
+        Short[] arr = new Short[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Short.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(byte.class)) {
+        byte[] arr = new byte[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Byte.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else if (type.equals(Byte.class)) {
+        Byte[] arr = new Byte[n];
+        for (int i = 0; i < n; i++) {
+          arr[i] = Byte.valueOf(optArgs.get(i));
+        }
+        fld.set(optStore, arr);
+      } else {
+        var conv = converterOf(fld, type);
+        var arr = Array.newInstance(type, n);
+        for (int i = 0; i < n; i++) {
+          Array.set(arr, i, conv.convert(fld.getName(), fld.getName(), optArgs.get(i)));
+        }
+        fld.set(optStore, arr);
+      }
+    } else if (n > 0) {
+      if (type.equals(int.class) || type.equals(Integer.class)) {
+        int val = Integer.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(String.class)) {
+        fld.set(optStore, optArgs.get(0));
+      } else if (type.equals(double.class) || type.equals(Double.class)) {
+        double val = Double.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(long.class) || type.equals(Long.class)) {
+        long val = Long.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(BigDecimal.class)) {
+        BigDecimal val = new BigDecimal(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(BigInteger.class)) {
+        BigInteger val = new BigInteger(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(float.class) || type.equals(Float.class)) {
+        float val = Float.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(short.class) || type.equals(Short.class)) {
+        short val = Short.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else if (type.equals(byte.class) || type.equals(Byte.class)) {
+        byte val = Byte.valueOf(optArgs.get(0));
+        fld.set(optStore, val);
+      } else {
+        var conv = converterOf(fld, type);
+        fld.set(optStore, conv.convert(fld.getName(), fld.getName(), optArgs.get(0)));
+      }
+    }
+  }
+
+  private static Converter<?> converterOf(Field fld, Class<?> type) throws BadFieldType {
+    var conv = Converters.find(type);
+    if (conv == null) {
+      throw new BadFieldType(fld.getName(), type);
+    }
+    return conv;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.validators.Converter;
+
+import java.util.StringJoiner;
+
+/**
+ * Is the typed handle of an option in a {@link CompiledSpec}, which is used to retrieve the
+ * option argument from a {@link ParseResult} as a value of the specified type.
+ * <p>
+ * An instance of this class holds the index of the option configuration in the compiled
+ * specification, so the option argument is retrieved with an array access instead of a lookup by
+ * the option name.
+ * Moreover, the converted value is memoized in the {@link ParseResult}, so the option argument is
+ * converted only once.
+ * <p>
+ * The instances of the nested classes {@link OfInt}, {@link OfLong} and {@link OfDouble} are the
+ * handles for primitive values, which are stored without boxing.
+ * <p>
+ * An instance of this class is created by {@link CompiledSpec#key}, and can be used only for the
+ * results of parsing with the same {@link CompiledSpec} instance.
+ *
+ * @param <T>  The type of the option value.
+ */
+public class OptKey<T> {
+
+  final CompiledSpec spec;
+  final int index;
+  final Converter<T> converter;
+
+  OptKey(CompiledSpec spec, int index, Converter<T> converter) {
+    this.spec = spec;
+    this.index = index;
+    this.converter = converter;
+  }
+
+  /**
+   * Returns the store key of the option.
+   *
+   * @return  The store key.
+   */
+  public String storeKey() {
+    return this.spec.storeKeys[this.index];
+  }
+
+  /**
+   * Returns a {@code String} object representing the content of this object.
+   *
+   * @return A stirng representation of the content of this object.
+   */
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", getClass().getSimpleName() + "{", "}")
+      .add("storeKey=" + storeKey())
+      .toString();
+  }
+
+  /**
+   * Is the typed handle of an option whose value is an {@code int}.
+   */
+  public static final class OfInt extends OptKey<Integer> {
+    OfInt(CompiledSpec spec, int index) {
+      super(spec, index, OptSlots.INT_CONVERTER);
+    }
+  }
+
+  /**
+   * Is the typed handle of an option whose value is a {@code long}.
+   */
+  public static final class OfLong extends OptKey<Long> {
+    OfLong(CompiledSpec spec, int index) {
+      super(spec, index, OptSlots.LONG_CONVERTER);
+    }
+  }
+
+  /**
+   * Is the typed handle of an option whose value is a {@code double}.
+   */
+  public static final class OfDouble extends OptKey<Double> {
+    OfDouble(CompiledSpec spec, int index) {
+      super(spec, index, OptSlots.DOUBLE_CONVERTER);
+    }
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.validators.BigDecimalValidator;
+import com.github.sttk.cliargs.validators.Converter;
+import com.github.sttk.cliargs.validators.DoubleValidator;
+import com.github.sttk.cliargs.validators.IntegerValidator;
+import com.github.sttk.cliargs.validators.LongValidator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Is the array-backed storage of option arguments, which also memoizes converted values.
+ * <p>
+ * The slots of the options in a {@link CompiledSpec} are indexed by the indexes of their
+ * configurations, and the slots of the other options (e.g. the options allowed by {@code "*"})
+ * follow them.
+ * <p>
+ * A primitive value is memoized in a {@code long} array without boxing, and its kind is published
+ * with release/acquire semantics, so that an instance of this class can be read and written by
+ * multiple threads without locking.
+ * Only the first kind of primitive value of each option is memoized, and a value of another kind
+ * is converted every time.
+ * The same applies to the other values, which are memoized with the tokens of their kinds.
+ */
+final class OptSlots {
+
+  static final Converter<Integer> INT_CONVERTER = new IntegerValidator();
+  static final Converter<Long> LONG_CONVERTER = new LongValidator();
+  static final Converter<Double> DOUBLE_CONVERTER = new DoubleValidator();
+  static final Converter<BigDecimal> BIG_DECIMAL_CONVERTER = new BigDecimalValidator();
+
+  private static final VarHandle KINDS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+  private static final byte NONE = 0;
+  private static final byte BUSY = 1;
+  private static final byte INT = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte BOOLEAN = 5;
+
+  // A memoized value with the token of the kind of it, which is an OptKey, a converter or the
+  // class of an array.
+  private record Memo(Object token, Object value) {}
+
+  private final CompiledSpec spec;
+  private final Map<String, Integer> otherIndexes;
+  private final String[] names;
+  private final List<String>[] values;
+  private final long[] prims;
+  private final byte[] kinds;
+  private final Object[] memos;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  OptSlots(CompiledSpec spec, Map<String, List<String>> opts) {
+    int m = (spec != null) ? spec.storeKeys.length : 0;
+
+    var otherIndexes = new HashMap<String, Integer>();
+    for (var name : opts.keySet()) {
+      if (m == 0 || spec.storeKeyIndex.get(name) < 0) {
+        otherIndexes.put(name, m + otherIndexes.size());
+      }
+    }
+
+    int n = m + otherIndexes.size();
+    this.spec = spec;
+    this.otherIndexes = otherIndexes;
+    this.names = new String[n];
+    this.values = new List[n];
+    this.prims = new long[n];
+    this.kinds = new byte[n];
+    this.memos = new Object[n];
+
+    for (int i = 0; i < m; i++) {
+      this.names[i] = spec.storeKeys[i];
+    }
+    for (var ent : otherIndexes.entrySet()) {
+      this.names[ent.getValue()] = ent.getKey();
+    }
+    for (int i = 0; i < n; i++) {
+      if (this.names[i] != null) {
+        this.values[i] = opts.get(this.names[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the slot of the option with the specified name, or -1 if the option is
+   * neither configured nor specified.
+   *
+   * @param name  The option name.
+   * @return  The index of the slot, or -1.
+   */
+  int indexOf(String name) {
+    if (this.spec != null) {
+      int i = this.spec.storeKeyIndex.get(name);
+      if (i >= 0) {
+        return i;
+      }
+    }
+    var i = this.otherIndexes.get(name);
+    return (i != null) ? i : -1;
+  }
+
+  boolean has(int i) {
+    return i >= 0 && this.values[i] != null;
+  }
+
+  private String firstArg(int i) {
+    if (i < 0) {
+      return null;
+    }
+    var list = this.values[i];
+    if (list == null || list.isEmpty()) {
+      return null;
+    }
+    return list.get(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T get(int i, Object token, Converter<T> converter, T orElse) throws OptionArgIsInvalid {
+    if (i < 0) {
+      return orElse;
+    }
+    if (this.memos[i] instanceof Memo m && m.token == token) {
+      return (T) m.value;
+    }
+
+    var arg = firstArg(i);
+    if (arg == null) {
+      return orElse;
+    }
+
+    var storeKey = this.names[i];
+    var value = converter.convert(storeKey, storeKey, arg);
+    memoize(i, token, value);
+    return value;
+  }
+
+  int getInt(int i, int orElse) throws OptionArgIsInvalid {
+    if (i >= 0 && (byte) KINDS.getAcquire(this.kinds, i) == INT) {
+      return (int) this.prims[i];
+    }
+
+    var arg = firstArg(i);
+    if (arg == null) {
+      return orElse;
+    }
+
+    int value = parseInt(i, arg);
+    memoize(i, value, INT);
+    return value;
+  }
+
+  long getLong(int i, long orElse) throws OptionArgIsInvalid {
+    if (i >= 0 && (byte) KINDS.getAcquire(this.kinds, i) == LONG) {
+      return this.prims[i];
+    }
+
+    var arg = firstArg(i);
+    if (arg == null) {
+      return orElse;
+    }
+
+    long value = parseLong(i, arg);
+    memoize(i, value, LONG);
+    return value;
+  }
+
+  double getDouble(int i, double orElse) throws OptionArgIsInvalid {
+    if (i >= 0 && (byte) KINDS.getAcquire(this.kinds, i) == DOUBLE) {
+      return Double.longBitsToDouble(this.prims[i]);
+    }
+
+    var arg = firstArg(i);
+    if (arg == null) {
+      return orElse;
+    }
+
+    double value = parseDouble(i, arg);
+    memoize(i, Double.doubleToRawLongBits(value), DOUBLE);
+    return value;
+  }
+
+  // An option without arguments is true, and an option argument is true or false ignoring case.
+  boolean getBoolean(int i, boolean orElse) throws OptionArgIsInvalid {
+    if (! has(i)) {
+      return orElse;
+    }
+    if ((byte) KINDS.getAcquire(this.kinds, i) == BOOLEAN) {
+      return this.prims[i] != 0L;
+    }
+
+    boolean value;
+    var arg = firstArg(i);
+    if (arg == null || arg.equalsIgnoreCase("true")) {
+      value = true;
+    } else if (arg.equalsIgnoreCase("false")) {
+      value = false;
+    } else {
+      var storeKey = this.names[i];
+      throw new OptionArgIsInvalid(storeKey, storeKey, arg, "invalid Boolean", null);
+    }
+    memoize(i, value ? 1L : 0L, BOOLEAN);
+    return value;
+  }
+
+  // The returned array is shared by the callers, so it must not be modified.
+  int[] getInts(int i) throws OptionArgIsInvalid {
+    if (! has(i)) {
+      return null;
+    }
+    if (this.memos[i] instanceof Memo m && m.token == int[].class) {
+      return (int[]) m.value;
+    }
+
+    var list = this.values[i];
+    var arr = new int[list.size()];
+    for (int j = 0; j < arr.length; j++) {
+      arr[j] = parseInt(i, list.get(j));
+    }
+    memoize(i, int[].class, arr);
+    return arr;
+  }
+
+  // The returned array is shared by the callers, so it must not be modified.
+  long[] getLongs(int i) throws OptionArgIsInvalid {
+    if (! has(i)) {
+      return null;
+    }
+    if (this.memos[i] instanceof Memo m && m.token == long[].class) {
+      return (long[]) m.value;
+    }
+
+    var list = this.values[i];
+    var arr = new long[list.size()];
+    for (int j = 0; j < arr.length; j++) {
+      arr[j] = parseLong(i, list.get(j));
+    }
+    memoize(i, long[].class, arr);
+    return arr;
+  }
+
+  // The returned array is shared by the callers, so it must not be modified.
+  double[] getDoubles(int i) throws OptionArgIsInvalid {
+    if (! has(i)) {
+      return null;
+    }
+    if (this.memos[i] instanceof Memo m && m.token == double[].class) {
+      return (double[]) m.value;
+    }
+
+    var list = this.values[i];
+    var arr = new double[list.size()];
+    for (int j = 0; j < arr.length; j++) {
+      arr[j] = parseDouble(i, list.get(j));
+    }
+    memoize(i, double[].class, arr);
+    return arr;
+  }
+
+  private int parseInt(int i, String arg) throws OptionArgIsInvalid {
+    try {
+      return Integer.parseInt(arg);
+    } catch (NumberFormatException e) {
+      var storeKey = this.names[i];
+      throw new OptionArgIsInvalid(storeKey, storeKey, arg, "invalid Integer", e);
+    }
+  }
+
+  private long parseLong(int i, String arg) throws OptionArgIsInvalid {
+    try {
+      return Long.parseLong(arg);
+    } catch (NumberFormatException e) {
+      var storeKey = this.names[i];
+      throw new OptionArgIsInvalid(storeKey, storeKey, arg, "invalid Long", e);
+    }
+  }
+
+  private double parseDouble(int i, String arg) throws OptionArgIsInvalid {
+    try {
+      return Double.parseDouble(arg);
+    } catch (NumberFormatException e) {
+      var storeKey = this.names[i];
+      throw new OptionArgIsInvalid(storeKey, storeKey, arg, "invalid Double", e);
+    }
+  }
+
+  // Only the thread which changes the kind from NONE to BUSY writes the slot, and the other
+  // threads read the slot only after the kind is released.
+  private void memoize(int i, long bits, byte kind) {
+    if (KINDS.compareAndSet(this.kinds, i, NONE, BUSY)) {
+      this.prims[i] = bits;
+      KINDS.setRelease(this.kinds, i, kind);
+    }
+  }
+
+  // A memo is safely published even by a racy write because its fields are final, and a memo
+  // which is lost by a race is only converted again.
+  private void memoize(int i, Object token, Object value) {
+    if (this.memos[i] == null) {
+      this.memos[i] = new Memo(token, value);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+import com.github.sttk.cliargs.exceptions.BadFieldType;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.validators.Converter;
+import com.github.sttk.cliargs.validators.Converters;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Is the base class of the binders of option store classes, which are generated at compile time
+ * by the annotation processor of the {@code cliargs-processor} module.
+ * <p>
+ * A binder has the option configurations of an option store class which are made from the
+ * {@link Opt} annotations at compile time, and sets option arguments to the fields of the class
+ * with direct assignments.
+ * {@link Cmd#parseFor} uses the binder of an option store class if it exists, so that parsing
+ * for the class needs neither reflection on the fields nor parsing the annotations.
+ * <p>
+ * The binder of an option store class is found by its name, which is the name of the class
+ * whose nested class names are joined with {@code _} and suffixed with {@code _OptStoreBinder}
+ * (e.g. {@code com.example.App_Options_OptStoreBinder} for {@code com.example.App.Options}), and
+ * it must be a public class which has a public constructor without parameters.
+ * If the class is in a named module, its package must be exported to this module.
+ * Otherwise, the option configurations are made by reflection.
+ *
+ * @param <T>  The type of the option store.
+ */
+public abstract class OptStoreBinder<T> {
+
+  // The suffix of the names of binder classes.
+  static final String SUFFIX = "_OptStoreBinder";
+
+  private final Class<T> storeClass;
+
+  /**
+   * Is the constructor which takes the option store class of this binder.
+   *
+   * @param storeClass  The option store class.
+   */
+  protected OptStoreBinder(Class<T> storeClass) {
+    this.storeClass = storeClass;
+  }
+
+  /**
+   * Returns the option configurations of the fields of the option store class, which are made
+   * with {@link #optCfg} in the same order as {@link Cmd#parseFor} makes them by reflection.
+   * This method is called only once per class.
+   *
+   * @return  The option configurations.
+   */
+  protected abstract OptCfg[] optCfgs();
+
+  /**
+   * Converts option arguments to the value of the type of the field at the specified index, and
+   * sets it to the field.
+   * <p>
+   * The option arguments are never null.
+   * If the field is boolean, the value is {@code true}.
+   * If the field is not an array and there is no option argument, the field is not changed.
+   *
+   * @param optStore  The option store.
+   * @param index  The index of the option configuration of the field.
+   * @param optArgs  The option arguments.
+   * @throws Exception  If failed to convert the option arguments.
+   */
+  protected abstract void setFieldValue(T optStore, int index, List<String> optArgs)
+    throws Exception;
+
+  /**
+   * Sets a value, which has been converted to the type of the field at the specified index while
+   * parsing, to the field.
+   *
+   * @param optStore  The option store.
+   * @param index  The index of the option configuration of the field.
+   * @param value  The value of the field, which is boxed if the field type is primitive.
+   * @throws Exception  If failed to set the value.
+   */
+  protected abstract void setConvertedValue(T optStore, int index, Object value)
+    throws Exception;
+
+  /**
+   * Makes the option configuration of the field at the specified index.
+   * <p>
+   * The element type of a field of {@link List}, {@link Set} or {@link Collection} is regarded as
+   * {@link String}; use the other {@code optCfg} method to specify it.
+   *
+   * @param index  The index of the option configuration, which is passed to
+   *   {@link #setFieldValue} and {@link #setConvertedValue}.
+   * @param storeKey  The field name.
+   * @param type  The field type.
+   * @param names  The option names which are already divided.
+   * @param defaults  The default values which are already divided, or null if there is no
+   *   default value.
+   * @param desc  The description of the option.
+   * @param argInHelp  The display of the option argument in a help text.
+   * @param separator  The separator which divides an option argument.
+   * @return  The option configuration.
+   */
+  protected final OptCfg optCfg(
+    int index, String storeKey, Class<?> type, List<String> names, List<String> defaults,
+    String desc, String argInHelp, String separator
+  ) {
+    var elementType = FieldBinder.isCollectionType(type) ?
+      FieldBinder.elementTypeOf(type, null) : null;
+    return optCfg(index, storeKey, type, elementType, names, defaults, desc, argInHelp,
+      separator);
+  }
+
+  /**
+   * Makes the option configuration of the field at the specified index, of which type is a
+   * collection type with the specified element type.
+   * <p>
+   * The values of the field are converted to the element type while parsing, and the
+   * collection of them is passed to {@link #setConvertedValue}.
+   *
+   * @param index  The index of the option configuration, which is passed to
+   *   {@link #setFieldValue} and {@link #setConvertedValue}.
+   * @param storeKey  The field name.
+   * @param type  The field type.
+   * @param elementType  The erasure of the type argument of the field type, or null if the field
+   *   type is not {@link List}, {@link Set} or {@link Collection}.
+   * @param names  The option names which are already divided.
+   * @param defaults  The default values which are already divided, or null if there is no
+   *   default value.
+   * @param desc  The description of the option.
+   * @param argInHelp  The display of the option argument in a help text.
+   * @param separator  The separator which divides an option argument.
+   * @return  The option configuration.
+   */
+  @SuppressWarnings("unchecked")
+  protected final OptCfg optCfg(
+    int index, String storeKey, Class<?> type, Class<?> elementType, List<String> names,
+    List<String> defaults, String desc, String argInHelp, String separator
+  ) {
+    var hasArg = !(type == boolean.class || type == Boolean.class);
+    var isArray = type.isArray() || FieldBinder.isCollectionType(type);
+    if (type.isArray()) {
+      elementType = type.getComponentType();
+    } else if (type == IntList.class || type == LongList.class || type == DoubleList.class) {
+      elementType = FieldBinder.elementTypeOf(type, null);
+    } else if (elementType == null) {
+      elementType = type;
+    }
+    var validator = OptCfgFactory.findValidator(elementType);
+    var binder = new FieldBinder(
+      (o, a) -> setFieldValue((T) o, index, a),
+      (o, v) -> setConvertedValue((T) o, index, v));
+
+    return new OptCfg(storeKey, names, hasArg, isArray, Optional.ofNullable(defaults), desc,
+      argInHelp, validator, separator, type, binder);
+  }
+
+  /**
+   * Converts option arguments to an unmodifiable list of the specified type with the converter
+   * in {@link Converters}, or without conversion if the type is {@link String}.
+   *
+   * @param <V>  The type of the elements.
+   * @param type  The class of the elements.
+   * @param storeKey  The field name.
+   * @param optArgs  The option arguments.
+   * @return  The unmodifiable list of the converted values.
+   * @throws BadFieldType  If the type has no converter.
+   * @throws OptionArgIsInvalid  If failed to convert an option argument.
+   */
+  @SuppressWarnings("unchecked")
+  protected static <V> List<V> convertToList(Class<V> type, String storeKey, List<String> optArgs)
+    throws BadFieldType, OptionArgIsInvalid
+  {
+    var arr = (type == String.class) ? optArgs.toArray() : convertAll(type, storeKey, optArgs);
+    return (List<V>) FieldBinder.toCollection(List.class, arr);
+  }
+
+  /**
+   * Converts option arguments to an unmodifiable set of the specified type, which keeps the
+   * order of the option arguments, with the converter in {@link Converters}, or without
+   * conversion if the type is {@link String}.
+   *
+   * @param <V>  The type of the elements.
+   * @param type  The class of the elements.
+   * @param storeKey  The field name.
+   * @param optArgs  The option arguments.
+   * @return  The unmodifiable set of the converted values.
+   * @throws BadFieldType  If the type has no converter.
+   * @throws OptionArgIsInvalid  If failed to convert an option argument.
+   */
+  @SuppressWarnings("unchecked")
+  protected static <V> Set<V> convertToSet(Class<V> type, String storeKey, List<String> optArgs)
+    throws BadFieldType, OptionArgIsInvalid
+  {
+    var arr = (type == String.class) ? optArgs.toArray() : convertAll(type, storeKey, optArgs);
+    return (Set<V>) FieldBinder.toCollection(Set.class, arr);
+  }
+
+  /**
+   * Converts an option argument to a value of the specified type with the converter in
+   * {@link Converters}, which is used for a field of a type which is not converted natively.
+   *
+   * @param <V>  The type of the value.
+   * @param type  The class of the value.
+   * @param storeKey  The field name.
+   * @param optArg  The option argument.
+   * @return  The converted value.
+   * @throws BadFieldType  If the type has no converter.
+   * @throws OptionArgIsInvalid  If failed to convert the option argument.
+   */
+  protected static <V> V convert(Class<V> type, String storeKey, String optArg)
+    throws BadFieldType, OptionArgIsInvalid
+  {
+    return converterOf(type, storeKey).convert(storeKey, storeKey, optArg);
+  }
+
+  /**
+   * Converts option arguments to an array of the specified type with the converter in
+   * {@link Converters}, which is used for an array field of a type which is not converted
+   * natively.
+   *
+   * @param <V>  The component type of the array.
+   * @param type  The component class of the array.
+   * @param storeKey  The field name.
+   * @param optArgs  The option arguments.
+   * @return  The array of the converted values.
+   * @throws BadFieldType  If the type has no converter.
+   * @throws OptionArgIsInvalid  If failed to convert an option argument.
+   */
+  @SuppressWarnings("unchecked")
+  protected static <V> V[] convertAll(Class<V> type, String storeKey, List<String> optArgs)
+    throws BadFieldType, OptionArgIsInvalid
+  {
+    var conv = converterOf(type, storeKey);
+    var arr = (V[]) Array.newInstance(type, optArgs.size());
+    for (int i = 0; i < arr.length; i++) {
+      arr[i] = conv.convert(storeKey, storeKey, optArgs.get(i));
+    }
+    return arr;
+  }
+
+  private static <V> Converter<V> converterOf(Class<V> type, String storeKey)
+    throws BadFieldType
+  {
+    var conv = Converters.find(type);
+    if (conv == null) {
+      throw new BadFieldType(storeKey, type);
+    }
+    return conv;
+  }
+
+  // Returns the option configurations of the option store class, or null if this binder is not
+  // for the class.
+  final OptCfg[] optCfgsFor(Class<?> type) {
+    if (this.storeClass != type) {
+      return null;
+    }
+    return optCfgs();
+  }
+
+  // Returns the binder of the specified option store class, or null if it is not found or not
+  // accessible.
+  static OptStoreBinder<?> find(Class<?> type) {
+    var loader = type.getClassLoader();
+    if (loader == null || type.isAnonymousClass() || type.isLocalClass()) {
+      return null;
+    }
+
+    var name = type.getName();
+    var pkg = type.getPackageName();
+    var flat = name.substring(pkg.isEmpty() ? 0 : pkg.length() + 1).replace('$', '_');
+    var binderName = pkg.isEmpty() ? flat + SUFFIX : pkg + "." + flat + SUFFIX;
+
+    try {
+      var cls = Class.forName(binderName, true, loader);
+      if (! OptStoreBinder.class.isAssignableFrom(cls)) {
+        return null;
+      }
+      return (OptStoreBinder<?>) cls.getConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import com.github.sttk.cliargs.annotations.Opt;
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Is the metadata of an option store class for {@link Cmd#parseFor}, which is derived from the
+ * fields of the class and their {@link Opt} annotations.
+ * <p>
+ * An instance of this class is created only once per class and cached with {@link ClassValue},
+ * so that parsing for the same option store class many times does no reflection to make the
+ * option configurations.
+ * If a binder of the class is generated at compile time, the option configurations are taken
+ * from it instead of made by reflection.
+ * If the class is a record class, the handle of its canonical constructor is also made once, and
+ * an instance is created with the option values at once.
+ * An instance of this class is immutable, and can be shared across threads.
+ */
+final class OptStoreBinding {
+
+  private static final ClassValue<OptStoreBinding> CACHE = new ClassValue<>() {
+    @Override
+    protected OptStoreBinding computeValue(Class<?> type) {
+      return new OptStoreBinding(type);
+    }
+  };
+
+  /** The option configurations made from the fields of the class. */
+  final OptCfg[] cfgs;
+
+  /** The compiled specification, or null if the option configurations are inconsistent. */
+  final CompiledSpec spec;
+
+  // The canonical constructor of a record class, of which type is (Object[])Object, or null.
+  private final MethodHandle recordConstructor;
+
+  // The arguments of the canonical constructor for the components which are not set, which are
+  // the default values of their types.
+  private final Object[] recordArgs;
+
+  // The reason why the canonical constructor is not accessible, or null.
+  private final IllegalAccessException recordConstructorError;
+
+  private OptStoreBinding(Class<?> type) {
+    var binder = OptStoreBinder.find(type);
+    var cfgs = (binder != null) ? binder.optCfgsFor(type) : null;
+    this.cfgs = (cfgs != null) ? cfgs : ParseFor.makeOptCfgsFor(type);
+
+    CompiledSpec spec;
+    try {
+      spec = new CompiledSpec(this.cfgs);
+    } catch (InvalidOption e) {
+      // The exception is thrown by compiling again at every parsing.
+      spec = null;
+    }
+    this.spec = spec;
+
+    MethodHandle ctor = null;
+    Object[] args = null;
+    IllegalAccessException error = null;
+    if (type.isRecord()) {
+      var comps = type.getRecordComponents();
+      var paramTypes = new Class<?>[comps.length];
+      args = new Object[comps.length];
+      for (int i = 0; i < comps.length; i++) {
+        paramTypes[i] = comps[i].getType();
+        if (paramTypes[i].isPrimitive()) {
+          args[i] = Array.get(Array.newInstance(paramTypes[i], 1), 0);
+        }
+      }
+      try {
+        var c = type.getDeclaredConstructor(paramTypes);
+        c.trySetAccessible();
+        ctor = MethodHandles.lookup().unreflectConstructor(c)
+          .asSpreader(Object[].class, comps.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      } catch (NoSuchMethodException e) {
+        throw new AssertionError(e);  // A record class always has the canonical constructor.
+      } catch (IllegalAccessException e) {
+        error = e;
+      }
+    }
+    this.recordConstructor = ctor;
+    this.recordArgs = args;
+    this.recordConstructorError = error;
+  }
+
+  // Returns a new array of the arguments of the canonical constructor of the record class, to
+  // which the option values are set by the binders of the option configurations.
+  Object[] newRecordArgs() {
+    return this.recordArgs.clone();
+  }
+
+  // Creates an instance of the record class with the canonical constructor.
+  // An exception thrown by the constructor is thrown as it is.
+  Object newRecord(Object[] args) {
+    if (this.recordConstructor == null) {
+      throw new IllegalArgumentException(
+        "The canonical constructor is not accessible.", this.recordConstructorError);
+    }
+    try {
+      return (Object) this.recordConstructor.invokeExact(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  /**
+   * Returns the binding of the specified option store class.
+   *
+   * @param type  The class of an option store.
+   * @return  The binding of the class.
+   */
+  static OptStoreBinding of(Class<?> type) {
+    return CACHE.get(type);
+  }
+}
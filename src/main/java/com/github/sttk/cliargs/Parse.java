@@ -7,11 +7,12 @@ package com.github.sttk.cliargs;
 
 import static com.github.sttk.cliargs.Base.CollectArgs;
 import static com.github.sttk.cliargs.Base.CollectOpts;
-import static com.github.sttk.cliargs.Base.TakeOptArgs;
 import static com.github.sttk.cliargs.Base.parseArgs;
+import static java.util.Collections.emptyList;
 
 import com.github.sttk.cliargs.exceptions.InvalidOption;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -20,6 +21,8 @@ import java.util.Optional;
 
 class Parse {
 
+  private static final Tokenizer.TakesArg NO_ARG = (s, start, end) -> false;
+
   List<String> args = new ArrayList<>();
   Map<String, List<String>> opts = new HashMap<>();
   boolean isAfterNonOpt;
@@ -28,41 +31,34 @@ class Parse {
     this.isAfterNonOpt = isAfterNonOpt;
   }
 
-  void parse(List<String> osArgs) throws InvalidOption {
-    CollectArgs collectArgs = arg -> this.args.add(arg);
-
-    CollectOpts collectOpts = (name, option) -> {
-      var lst = this.opts.computeIfAbsent(name, k -> new ArrayList<String>());
-      if (option.isPresent()) {
-        lst.add(option.get());
-      }
-    };
+  void parse(Iterator<? extends CharSequence> osArgs) throws InvalidOption {
+    CollectArgs collectArgs = t -> this.args.add(t.argString());
 
-    TakeOptArgs takeOptArgs = s -> false;
+    CollectOpts collectOpts = t -> collectOpt(t);
 
-    parseArgs(osArgs, collectArgs, collectOpts, takeOptArgs, false, this.isAfterNonOpt);
+    var tokenizer = new Tokenizer(osArgs, NO_ARG, this.isAfterNonOpt);
+    parseArgs(tokenizer, collectArgs, collectOpts, false);
+    ArgFiles.throwIfFailed(osArgs);
   }
 
-  Optional<Cmd> parseUntilSubCmd(List<String> osArgs) throws InvalidOption {
-    CollectArgs collectArgs = arg -> {};
+  Optional<Integer> parseUntilSubCmd(Iterator<? extends CharSequence> osArgs)
+    throws InvalidOption
+  {
+    CollectArgs collectArgs = t -> {};
 
-    CollectOpts collectOpts = (name, option) -> {
-      var lst = this.opts.computeIfAbsent(name, k -> new ArrayList<String>());
-      if (option.isPresent()) {
-        lst.add(option.get());
-      }
-    };
+    CollectOpts collectOpts = t -> collectOpt(t);
 
-    TakeOptArgs takeOptArgs = s -> false;
+    var tokenizer = new Tokenizer(osArgs, NO_ARG, this.isAfterNonOpt);
+    var idx = parseArgs(tokenizer, collectArgs, collectOpts, true);
+    ArgFiles.throwIfFailed(osArgs);
+    return idx;
+  }
 
-    var idx = parseArgs(osArgs, collectArgs, collectOpts, takeOptArgs, true, this.isAfterNonOpt);
-    if (idx.isPresent()) {
-      boolean isAfterNonOpt = (idx.get() < 0);
-      int i = Math.abs(idx.get());
-      int n = osArgs.size();
-      return Optional.of(new Cmd(osArgs.get(i), osArgs.subList(i + 1, n), isAfterNonOpt));
+  private void collectOpt(Tokenizer t) {
+    if (t.value != null) {
+      ParseResult.addOptArg(this.opts, t.name(), t.value());
+    } else {
+      this.opts.putIfAbsent(t.name(), emptyList());
     }
-
-    return Optional.empty();
   }
 }
@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Is the immutable result of parsing command line arguments.
+ * <p>
+ * An instance of this class is built once when parsing is finished, and all of its contents are
+ * unmodifiable.
+ * Therefore, an instance of this class can be shared across threads without copying or
+ * synchronization.
+ */
+public final class ParseResult {
+
+  static final ParseResult EMPTY = new ParseResult(
+    Collections.emptyList(), Collections.emptyMap(), Collections.emptyList());
+
+  private final List<String> args;
+  private final Map<String, List<String>> opts;
+  private final List<OptCfg> cfgs;
+  private final CompiledSpec spec;
+
+  // Is created when a converted option value is retrieved for the first time.
+  private OptSlots slots;
+
+  // The lists and the map passed to this constructor must not be modified after that.
+  ParseResult(List<String> args, Map<String, List<String>> opts, List<OptCfg> cfgs) {
+    this(args, opts, cfgs, null);
+  }
+
+  ParseResult(List<String> args, Map<String, List<String>> opts, CompiledSpec spec) {
+    this(args, opts, spec.cfgList, spec);
+  }
+
+  private ParseResult(
+    List<String> args, Map<String, List<String>> opts, List<OptCfg> cfgs, CompiledSpec spec
+  ) {
+    for (var ent : opts.entrySet()) {
+      if (ent.getValue() instanceof ArrayList) {
+        ent.setValue(List.copyOf(ent.getValue()));
+      }
+    }
+    this.args = unmodifiableList(args);
+    this.opts = unmodifiableMap(opts);
+    this.cfgs = cfgs;
+    this.spec = spec;
+  }
+
+  // Adds an option argument into an option map, in which a single argument is held in an
+  // immutable list and only multiple arguments are held in an ArrayList until the ParseResult is
+  // built.
+  static void addOptArg(Map<String, List<String>> opts, String key, String arg) {
+    var lst = opts.get(key);
+    if (lst == null || lst.isEmpty()) {
+      opts.put(key, List.of(arg));
+    } else if (lst instanceof ArrayList) {
+      lst.add(arg);
+    } else {
+      var a = new ArrayList<String>(lst.size() + 4);
+      a.addAll(lst);
+      a.add(arg);
+      opts.put(key, a);
+    }
+  }
+
+  Map<String, List<String>> opts() {
+    return this.opts;
+  }
+
+  /**
+   * Returns the command arguments.
+   *
+   * @return  The command arguments.
+   */
+  public List<String> args() {
+    return this.args;
+  }
+
+  /**
+   * Checks whether an option with the specified name exists.
+   *
+   * @param name  The option name.
+   * @return  True, if the option exists.
+   */
+  public boolean hasOpt(String name) {
+    return this.opts.containsKey(name);
+  }
+
+  /**
+   * Returns the option argument with the specified name.
+   * <p>
+   * If the option has multiple arguments, this method returns the first argument.
+   * If the option is a boolean flag, this method returns <i>empty</i> of {@link Optional}.
+   * If the option is not specified in the command line arguments, the return value of this method
+   * is <i>empty</i> of {@link Optional}.
+   *
+   * @param name  The option name.
+   * @return  An {@link Optional} object which may contain the first option argument.
+   */
+  public Optional<String> optArg(String name) {
+    var list = this.opts.get(name);
+    if (list == null || list.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(list.get(0));
+  }
+
+  /**
+   * Returns the option arguments with the specified name.
+   * <p>
+   * If the option has one or multiple arguments, this method returns an array of the arguments.
+   * If the option is a boolean flag, this method returns an {@link Optional} including an empty
+   * list.
+   * If the option is not specified in the command line arguments, the return value of this method
+   * is <i>empty</i> of {@link Optional}.
+   *
+   * @param name  The option name.
+   * @return  An {@link Optional} object which may contain the option arguments.
+   */
+  public Optional<List<String>> optArgs(String name) {
+    var list = this.opts.get(name);
+    if (list == null) {
+      return Optional.empty();
+    }
+    return Optional.of(list);
+  }
+
+  /**
+   * Checks whether the option of the specified key exists.
+   *
+   * @param key  The option key.
+   * @return  True, if the option exists.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   */
+  public boolean hasOpt(OptKey<?> key) {
+    return slots(key).has(key.index);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a value converted by the key.
+   * <p>
+   * If the option has multiple arguments, this method returns the converted first argument.
+   * If the option is a boolean flag or is not specified in the command line arguments, this
+   * method returns {@code orElse}.
+   * The converted value is memoized, so the option argument is converted only once.
+   *
+   * @param <T>  The type of the option value.
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument cannot be converted.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   */
+  public <T> T optValue(OptKey<T> key, T orElse) throws OptionArgIsInvalid {
+    return slots(key).get(key.index, key, key.converter, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as an {@code int} value.
+   * <p>
+   * This method works in the same way as {@link #optValue}, but the value is not boxed.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not an {@code int} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   */
+  public int optInt(OptKey.OfInt key, int orElse) throws OptionArgIsInvalid {
+    return slots(key).getInt(key.index, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a {@code long} value.
+   * <p>
+   * This method works in the same way as {@link #optValue}, but the value is not boxed.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code long} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   */
+  public long optLong(OptKey.OfLong key, long orElse) throws OptionArgIsInvalid {
+    return slots(key).getLong(key.index, orElse);
+  }
+
+  /**
+   * Returns the option argument of the specified key as a {@code double} value.
+   * <p>
+   * This method works in the same way as {@link #optValue}, but the value is not boxed.
+   *
+   * @param key  The option key.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code double} value.
+   * @throws IllegalArgumentException  If the key is not of the {@link CompiledSpec} used for
+   *   parsing.
+   */
+  public double optDouble(OptKey.OfDouble key, double orElse) throws OptionArgIsInvalid {
+    return slots(key).getDouble(key.index, orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as an {@code int} value.
+   * <p>
+   * If the option has multiple arguments, this method returns the converted first argument.
+   * If the option is a boolean flag or is not specified in the command line arguments, this
+   * method returns {@code orElse}.
+   * The converted value is memoized, so the option argument is converted only once even if this
+   * method is called many times or by multiple threads.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not an {@code int} value.
+   */
+  public int optInt(String name, int orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    return s.getInt(s.indexOf(name), orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@code long} value.
+   * <p>
+   * This method works in the same way as {@link #optInt(String, int)}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code long} value.
+   */
+  public long optLong(String name, long orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    return s.getLong(s.indexOf(name), orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@code double} value.
+   * <p>
+   * This method works in the same way as {@link #optInt(String, int)}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@code double} value.
+   */
+  public double optDouble(String name, double orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    return s.getDouble(s.indexOf(name), orElse);
+  }
+
+  /**
+   * Returns the option with the specified name as a {@code boolean} value.
+   * <p>
+   * If the option is a boolean flag, this method returns true.
+   * If the option has arguments, this method returns the first argument converted from
+   * {@code true} or {@code false} ignoring case.
+   * If the option is not specified in the command line arguments, this method returns
+   * {@code orElse}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is neither {@code true} nor {@code false}.
+   */
+  public boolean optBoolean(String name, boolean orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    return s.getBoolean(s.indexOf(name), orElse);
+  }
+
+  /**
+   * Returns the option argument with the specified name as a {@link BigDecimal} value.
+   * <p>
+   * This method works in the same way as {@link #optInt(String, int)}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option has no argument.
+   * @return  The option value.
+   * @throws OptionArgIsInvalid  If the option argument is not a {@link BigDecimal} value.
+   */
+  public BigDecimal optBigDecimal(String name, BigDecimal orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    var converter = OptSlots.BIG_DECIMAL_CONVERTER;
+    return s.get(s.indexOf(name), converter, converter, orElse);
+  }
+
+  /**
+   * Returns the option arguments with the specified name as an {@code int} array.
+   * <p>
+   * If the option is a boolean flag, this method returns an empty array.
+   * If the option is not specified in the command line arguments, this method returns
+   * {@code orElse}.
+   * The converted values are memoized, and this method returns a copy of them.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not an {@code int} value.
+   */
+  public int[] optInts(String name, int[] orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    var arr = s.getInts(s.indexOf(name));
+    return (arr != null) ? arr.clone() : orElse;
+  }
+
+  /**
+   * Returns the option arguments with the specified name as a {@code long} array.
+   * <p>
+   * This method works in the same way as {@link #optInts(String, int[])}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not a {@code long} value.
+   */
+  public long[] optLongs(String name, long[] orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    var arr = s.getLongs(s.indexOf(name));
+    return (arr != null) ? arr.clone() : orElse;
+  }
+
+  /**
+   * Returns the option arguments with the specified name as a {@code double} array.
+   * <p>
+   * This method works in the same way as {@link #optInts(String, int[])}.
+   *
+   * @param name  The option name.
+   * @param orElse  The value returned if the option is not specified.
+   * @return  The option values.
+   * @throws OptionArgIsInvalid  If any of the option arguments is not a {@code double} value.
+   */
+  public double[] optDoubles(String name, double[] orElse) throws OptionArgIsInvalid {
+    var s = slots();
+    var arr = s.getDoubles(s.indexOf(name));
+    return (arr != null) ? arr.clone() : orElse;
+  }
+
+  private OptSlots slots(OptKey<?> key) {
+    if (key.spec != this.spec) {
+      throw new IllegalArgumentException(
+        "The option key is not of the specification used for parsing: " + key.storeKey());
+    }
+    return slots();
+  }
+
+  // The slots may be created by multiple threads at the same time, but it is no problem because
+  // their contents are same and the memoized values in them are only caches.
+  private OptSlots slots() {
+    var s = this.slots;
+    if (s == null) {
+      s = new OptSlots(this.spec, this.opts);
+      this.slots = s;
+    }
+    return s;
+  }
+
+  /**
+   * Returns the option configurations which was used to parse command line arguments.
+   *
+   * @return  The option configurations.
+   */
+  public List<OptCfg> optCfgs() {
+    return this.cfgs;
+  }
+
+  /**
+   * Returns a {@code String} object representing the content of this object.
+   *
+   * @return A stirng representation of the content of this object.
+   */
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "ParseResult{", "}")
+      .add("args=" + this.args)
+      .add("opts=" + this.opts)
+      .toString();
+  }
+}
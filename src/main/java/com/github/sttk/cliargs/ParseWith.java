@@ -5,32 +5,24 @@
  */
 package com.github.sttk.cliargs;
 
-import static com.github.sttk.cliargs.Base.isEmpty;
-import static com.github.sttk.cliargs.Base.CollectArgs;
-import static com.github.sttk.cliargs.Base.CollectOpts;
-import static com.github.sttk.cliargs.Base.TakeOptArgs;
-import static com.github.sttk.cliargs.Base.parseArgs;
 import static java.util.Collections.emptyList;
+import static com.github.sttk.cliargs.Base.isEmpty;
 
 import com.github.sttk.cliargs.exceptions.InvalidOption;
-import com.github.sttk.cliargs.exceptions.StoreKeyIsDuplicated;
-import com.github.sttk.cliargs.exceptions.ConfigIsArrayButHasNoArg;
-import com.github.sttk.cliargs.exceptions.ConfigHasDefaultsButHasNoArg;
-import com.github.sttk.cliargs.exceptions.OptionNameIsDuplicated;
 import com.github.sttk.cliargs.exceptions.OptionTakesNoArg;
 import com.github.sttk.cliargs.exceptions.OptionIsNotArray;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
 import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
-class ParseWith {
+class ParseWith implements ArgVisitor {
 
   List<String> args = new ArrayList<>();
   Map<String, List<String>> opts = new HashMap<>();
@@ -38,171 +30,183 @@ class ParseWith {
   boolean isAfterNonOpt;
   boolean untilFirstArg;
 
+  private String[] storeKeys;
+
+  // The buffers into which the option arguments of primitive array options are parsed, indexed
+  // by the indexes of option configurations, or null.
+  private final ArrayBuffer[] buffers;
+
   ParseWith(boolean isAfterNonOpt, boolean untilFirstArg) {
+    this(isAfterNonOpt, untilFirstArg, null);
+  }
+
+  ParseWith(boolean isAfterNonOpt, boolean untilFirstArg, ArrayBuffer[] buffers) {
     this.isAfterNonOpt = isAfterNonOpt;
     this.untilFirstArg = untilFirstArg;
+    this.buffers = buffers;
   }
 
-  Optional<Integer> parseArgsWith(List<String> osArgs, OptCfg[] optCfgs) throws InvalidOption {
-    final var self = this;
-
-    final var optSet = new HashSet<String>();
-    final var cfgMap = new HashMap<String, Integer>();
-
-    final String anyOption = "*";
-    boolean hasAnyOpt = false;
-
-    for (int i = 0, n = optCfgs.length; i < n; i++) {
-      var cfg = optCfgs[i];
-
-      var names = cfg.names.stream().filter(nm -> !isEmpty(nm)).collect(Collectors.toList());
+  // Prepares this object to collect the results of parsing other command line arguments.
+  void reset(CompiledSpec spec, boolean isAfterNonOpt) {
+    this.args = new ArrayList<>();
+    this.opts = new HashMap<>();
+    this.isAfterNonOpt = isAfterNonOpt;
+    this.storeKeys = spec.storeKeys;
+  }
 
-      var storeKey = cfg.storeKey;
-      if (isEmpty(storeKey) && !isEmpty(names)) {
-        storeKey = names.get(0);
+  Optional<Integer> parseArgsWith(Iterator<? extends CharSequence> osArgs, CompiledSpec spec)
+    throws InvalidOption
+  {
+    this.storeKeys = spec.storeKeys;
+
+    var parser = new Parser(spec);
+    if (this.buffers != null) {
+      // The option arguments parsed into buffers are validated by the buffers.
+      var validatedByVisitor = new boolean[this.buffers.length];
+      for (int i = 0; i < this.buffers.length; i++) {
+        validatedByVisitor[i] = (this.buffers[i] != null);
       }
+      parser.validatedByVisitor = validatedByVisitor;
+    }
+    try {
+      return parser.visit(osArgs, this, this.isAfterNonOpt, this.untilFirstArg);
+    } finally {
+      finishBuffers();
+    }
+  }
 
-      if (isEmpty(storeKey)) {
-        continue;
+  // Puts the option arguments parsed into buffers to the options map as lists of strings, which
+  // are made here so that the results of parsing hold no argument source and are never modified.
+  private void finishBuffers() {
+    if (this.buffers == null) {
+      return;
+    }
+    for (int i = 0; i < this.buffers.length; i++) {
+      var buf = this.buffers[i];
+      if (buf != null && buf.size > 0) {
+        this.opts.put(this.storeKeys[i], buf.finish());
       }
+    }
+  }
 
-      if (anyOption.equals(storeKey)) {
-        hasAnyOpt = true;
-        continue;
+  @Override
+  public void onOption(int nameIndex, CharSequence value) throws InvalidOption {
+    var storeKey = this.storeKeys[nameIndex];
+    if (value != null && this.buffers != null && this.buffers[nameIndex] != null) {
+      var buf = this.buffers[nameIndex];
+      buf.add(storeKey, value);
+      if (buf.size == 1) {
+        // Is replaced with the option arguments in the buffer by finishBuffers.
+        this.opts.put(storeKey, emptyList());
       }
+    } else if (value != null) {
+      ParseResult.addOptArg(this.opts, storeKey, value.toString());
+    } else {
+      this.opts.put(storeKey, emptyList());
+    }
+  }
 
-      var firstName = isEmpty(names) ? storeKey : names.get(0);
-
-      if (optSet.contains(storeKey)) {
-        throw new StoreKeyIsDuplicated(storeKey, firstName);
-      }
-      optSet.add(storeKey);
+  @Override
+  public void onPositional(CharSequence arg) {
+    this.args.add(arg.toString());
+  }
 
-      if (!cfg.hasArg) {
-        if (cfg.isArray) {
-          throw new ConfigIsArrayButHasNoArg(storeKey, firstName);
-        }
-        if (cfg.defaults.isPresent()) {
-          var defaults = cfg.defaults.get();
-          if (! isEmpty(defaults)) {
-            throw new ConfigHasDefaultsButHasNoArg(storeKey, firstName);
-          }
-        }
-      }
+  @Override
+  public void onEndOfOptions() {
+    this.isAfterNonOpt = true;
+  }
 
-      if (isEmpty(names)) {
-        cfgMap.put(firstName, i);
-      } else {
-        for (var name : names) {
-          if (cfgMap.containsKey(name)) {
-            throw new OptionNameIsDuplicated(storeKey, name);
-          }
-          cfgMap.put(name, i);
-        }
-      }
+  @Override
+  public void onAnyOption(String name, CharSequence value) {
+    if (value != null) {
+      ParseResult.addOptArg(this.opts, name, value.toString());
+    } else {
+      this.opts.put(name, emptyList());
     }
-    final boolean has_any_opt = hasAnyOpt;
+  }
+
+  @Override
+  public void onDefaults(int nameIndex, List<String> defaults) {
+    this.opts.putIfAbsent(this.storeKeys[nameIndex], defaults);
+  }
 
-    final TakeOptArgs takeOptArgs = opt -> {
-      Integer i = cfgMap.get(opt);
-      if (i != null) {
+  // Parses command line arguments with a compiled specification and passes each of them to the
+  // visitor. The returned index is same as Base.parseArgs.
+  static Optional<Integer> visitArgsWith(
+    Iterator<? extends CharSequence> osArgs,
+    CompiledSpec spec,
+    ArgVisitor visitor,
+    boolean isAfterNonOpt,
+    boolean untilFirstArg
+  ) throws InvalidOption {
+    return new Parser(spec).visit(osArgs, visitor, isAfterNonOpt, untilFirstArg);
+  }
+
+  static Tokenizer.TakesArg takesArgOf(CompiledSpec spec) {
+    final var optCfgs = spec.cfgs;
+    final var nameIndex = spec.nameIndex;
+
+    return (s, start, end) -> {
+      int i = nameIndex.get(s, start, end);
+      if (i >= 0) {
         return optCfgs[i].hasArg;
       }
       return false;
     };
+  }
 
-    final CollectArgs collectArgs = arg -> {
-      self.args.add(arg);
-    };
+  // Validates the current option argument of the tokenizer with the validator of the option
+  // configuration at the specified index.
+  static void validateOptArg(Tokenizer t, CompiledSpec spec, int i) throws OptionArgIsInvalid {
+    var validator = spec.cfgs[i].validator;
+    if (validator != null) {
+      validator.validate(spec.storeKeys[i], t.name(), t.value());
+    }
+  }
 
-    final CollectOpts collectOpts = (name, arg) -> {
-      Integer i = cfgMap.get(name);
-      if (i != null) {
-        var cfg = optCfgs[i];
+  // Checks the current option of the tokenizer with the option configurations, and returns the
+  // index of its configuration, or -1 if it is an option allowed by "*".
+  // The element of counts at the returned index is the number of times the option was accepted.
+  static int checkOpt(Tokenizer t, CompiledSpec spec, int[] counts) throws InvalidOption {
+    return checkOpt(t, spec, counts, null);
+  }
 
-        var storeKey = cfg.storeKey;
-        if (isEmpty(storeKey)) {
-          storeKey = cfg.names.stream().filter(nm -> !isEmpty(nm)).findFirst().orElse("");
+  // The option arguments of the options whose elements of skipsValidation are true are not
+  // validated here, because they are validated by the visitor.
+  static int checkOpt(Tokenizer t, CompiledSpec spec, int[] counts, boolean[] skipsValidation)
+    throws InvalidOption
+  {
+    int i = spec.nameIndex.get(t.arg, t.start, t.end);
+    if (i >= 0) {
+      var cfg = spec.cfgs[i];
+      var storeKey = spec.storeKeys[i];
+
+      if (t.value != null) {
+        if (! cfg.hasArg) {
+          throw new OptionTakesNoArg(t.name(), storeKey);
         }
 
-        if (arg.isPresent()) {
-          if (! cfg.hasArg) {
-            throw new OptionTakesNoArg(name, storeKey);
+        if (counts[i] > 0) {
+          if (! cfg.isArray) {
+            throw new OptionIsNotArray(t.name(), storeKey);
           }
-
-          var lst = self.opts.get(storeKey);
-          if (lst != null) {
-            if (! lst.isEmpty()) {
-              if (! cfg.isArray) {
-                throw new OptionIsNotArray(name, storeKey);
-              }
-            }
-
-            if (cfg.validator != null) {
-              cfg.validator.validate(storeKey, name, arg.get());
-            }
-            lst.add(arg.get());
-          } else {
-            if (cfg.validator != null) {
-              cfg.validator.validate(storeKey, name, arg.get());
-            }
-
-            lst = new ArrayList<>();
-            self.opts.put(storeKey, lst);
-            lst.add(arg.get());
-          }
-        } else {
-          if (cfg.hasArg) {
-            throw new OptionNeedsArg(name, storeKey);
-          }
-          self.opts.put(storeKey, emptyList());
-        }
-      } else {
-        if (!has_any_opt) {
-          throw new UnconfiguredOption(name);
         }
 
-        if (arg.isPresent()) {
-          var lst = self.opts.get(name);
-          if (lst == null) {
-            lst = new ArrayList<String>();
-            self.opts.put(name, lst);
-          }
-          lst.add(arg.get());
-        } else {
-          self.opts.put(name, emptyList());
+        // The elements of an option argument divided by a separator are validated one by one.
+        if (isEmpty(cfg.separator) && (skipsValidation == null || ! skipsValidation[i])) {
+          validateOptArg(t, spec, i);
         }
-      }
-    };
-
-    var idx = parseArgs(osArgs, collectArgs, collectOpts, takeOptArgs,
-      this.untilFirstArg, this.isAfterNonOpt);
-
-    for (int i = 0, nn = optCfgs.length; i < nn; i++) {
-      var cfg = optCfgs[i];
-
-      var storeKey = cfg.storeKey;
-      if (isEmpty(storeKey)) {
-        storeKey = cfg.names.stream().filter(nm -> !isEmpty(nm)).findFirst().orElse("");
-      }
-
-      if (isEmpty(storeKey)) {
-        continue;
-      }
-
-      if (anyOption.equals(storeKey)) {
-        continue;
-      }
-
-      var lst = self.opts.get(storeKey);
-      if (lst == null) {
-        var defs = cfg.defaults;
-        if (defs.isPresent()) {
-          self.opts.put(storeKey, defs.get());
+      } else {
+        if (cfg.hasArg) {
+          throw new OptionNeedsArg(t.name(), storeKey);
         }
       }
+      return i;
     }
 
-    return idx;
+    if (! spec.hasAnyOpt) {
+      throw new UnconfiguredOption(t.name());
+    }
+    return -1;
   }
 }
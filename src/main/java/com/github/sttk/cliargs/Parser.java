@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.Base.CollectArgs;
+import static com.github.sttk.cliargs.Base.CollectOpts;
+import static com.github.sttk.cliargs.Base.NotifyEndOfOpts;
+import static com.github.sttk.cliargs.Base.parseArgs;
+import static com.github.sttk.cliargs.Base.indexOfSeparator;
+import static com.github.sttk.cliargs.Base.isEmpty;
+import static com.github.sttk.cliargs.ParseWith.checkOpt;
+import static com.github.sttk.cliargs.ParseWith.takesArgOf;
+import static com.github.sttk.cliargs.ParseWith.validateOptArg;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Is the reusable parser of command line arguments with a precompiled option specification.
+ * <p>
+ * An instance of this class holds all the working objects which are needed for parsing, and
+ * reuses them for every parsing.
+ * Therefore, after the first parsing, no object is allocated for parsing except the
+ * {@link ParseResult} instance and the strings and the collections held in it.
+ * (And nothing is allocated by {@link #visit} if the visitor does not allocate.)
+ * This is useful for a server which parses a command line per request.
+ * <p>
+ * An instance of this class is not thread-safe, and its parsing methods are not reentrant.
+ * To use it in multiple threads, hold an instance per thread, for example with
+ * {@code ThreadLocal.withInitial(() -> new Parser(spec))}, or take an instance from a pool for
+ * each parsing.
+ */
+public final class Parser {
+
+  private final CompiledSpec spec;
+  private final int[] counts;
+  private final CharSlice slice = new CharSlice();
+  private final ListCursor cursor = new ListCursor();
+  private final Tokenizer tokenizer;
+  private final ParseWith collector = new ParseWith(false, false);
+  private final IndexedResult.Collector indexer;
+
+  private final CollectArgs collectArgs;
+  private final CollectOpts collectOpts;
+  private final NotifyEndOfOpts notifyEndOfOpts;
+
+  private ArgVisitor visitor;
+
+  // The flags, indexed by the indexes of option configurations, which indicate the option
+  // arguments are validated by the visitor instead of the validators, or null.
+  boolean[] validatedByVisitor;
+
+  /**
+   * Is the constructor which takes a precompiled option specification.
+   *
+   * @param spec  The precompiled option specification.
+   */
+  public Parser(CompiledSpec spec) {
+    this.spec = spec;
+    this.counts = new int[spec.cfgs.length];
+    this.tokenizer = new Tokenizer(this.cursor, takesArgOf(spec), false);
+    this.indexer = new IndexedResult.Collector(this.tokenizer);
+
+    this.collectArgs = t -> this.visitor.onPositional(t.arg);
+    this.collectOpts = t -> collectOpt(t);
+    this.notifyEndOfOpts = () -> this.visitor.onEndOfOptions();
+  }
+
+  /**
+   * Returns the precompiled option specification used by this parser.
+   *
+   * @return  The precompiled option specification.
+   */
+  public CompiledSpec spec() {
+    return this.spec;
+  }
+
+  /**
+   * Parses command line arguments and returns the result.
+   * <p>
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#parseWith(CompiledSpec)} method.
+   * The command line arguments must not include the command name.
+   *
+   * @param osArgs  The command line arguments without the command name.
+   * @return  The result of parsing.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public ParseResult parse(List<? extends CharSequence> osArgs) throws InvalidOption {
+    var c = this.collector;
+    c.reset(this.spec, false);
+    visit(this.cursor.reset(osArgs), c, false, false);
+    return new ParseResult(c.args, c.opts, this.spec);
+  }
+
+  /**
+   * Parses command line arguments and returns the result which holds only the positions of the
+   * arguments in the command line arguments.
+   * <p>
+   * This method parses command line arguments in the same way as {@link #parse}, but the returned
+   * {@link IndexedResult} creates the strings of the command arguments and the option arguments
+   * only when they are retrieved.
+   * The command line arguments must not be modified while the result is used.
+   *
+   * @param osArgs  The command line arguments without the command name.
+   * @return  The result of parsing.
+   * @throws InvalidOption  If failed to parsing command line arguments.
+   */
+  public IndexedResult parseIndexed(List<? extends CharSequence> osArgs) throws InvalidOption {
+    if (! (osArgs instanceof RandomAccess)) {
+      osArgs = new ArrayList<>(osArgs);
+    }
+    var c = this.indexer;
+    c.reset(osArgs, this.spec);
+    try {
+      visit(this.cursor.reset(osArgs), c, false, false);
+      return c.build();
+    } finally {
+      c.clear();
+    }
+  }
+
+  /**
+   * Parses command line arguments and passes each of them to the visitor.
+   * <p>
+   * This method parses command line arguments in the same way as the
+   * {@link Cmd#visitWith(CompiledSpec, ArgVisitor)} method.
+   * The command line arguments must not include the command name.
+   *
+   * @param osArgs  The command line arguments without the command name.
+   * @param visitor  The visitor which receives the results of parsing.
+   * @throws InvalidOption  If failed to parsing command line arguments, or if the visitor throws
+   *   it.
+   */
+  public void visit(List<? extends CharSequence> osArgs, ArgVisitor visitor)
+    throws InvalidOption
+  {
+    visit(this.cursor.reset(osArgs), visitor, false, false);
+  }
+
+  // Parses command line arguments and passes each of them to the visitor.
+  // The returned index is same as Base.parseArgs.
+  Optional<Integer> visit(
+    Iterator<? extends CharSequence> osArgs,
+    ArgVisitor visitor,
+    boolean isAfterNonOpt,
+    boolean untilFirstArg
+  ) throws InvalidOption {
+    final var optCfgs = this.spec.cfgs;
+    final var storeKeys = this.spec.storeKeys;
+    final var counts = this.counts;
+
+    Arrays.fill(counts, 0);
+    this.visitor = visitor;
+    this.tokenizer.reset(osArgs, isAfterNonOpt);
+
+    try {
+      var idx = parseArgs(this.tokenizer, this.collectArgs, this.collectOpts,
+        this.notifyEndOfOpts, untilFirstArg);
+      ArgFiles.throwIfFailed(osArgs);
+
+      for (int i = 0, nn = optCfgs.length; i < nn; i++) {
+        if (storeKeys[i] == null || counts[i] > 0) {
+          continue;
+        }
+
+        var defs = optCfgs[i].defaults;
+        if (defs.isPresent()) {
+          visitor.onDefaults(i, defs.get());
+        }
+      }
+
+      if (idx.isPresent()) {
+        visitor.onSubCommand(this.tokenizer.arg);
+      }
+
+      return idx;
+    } finally {
+      this.visitor = null;
+      this.tokenizer.reset(this.cursor.reset(List.of()), false);
+      this.slice.reset("", 0, 0);
+    }
+  }
+
+  private void collectOpt(Tokenizer t) throws InvalidOption {
+    int i = checkOpt(t, this.spec, this.counts, this.validatedByVisitor);
+
+    if (i >= 0 && t.value != null && ! isEmpty(this.spec.cfgs[i].separator)) {
+      collectDividedOptArgs(t, i);
+      return;
+    }
+
+    visitOpt(t, i);
+  }
+
+  // Divides the option argument by the separator in a single pass, and passes each element to
+  // the visitor as an option argument without creating intermediate strings or arrays.
+  private void collectDividedOptArgs(Tokenizer t, int i) throws InvalidOption {
+    var sep = this.spec.cfgs[i].separator;
+    var validates = (this.validatedByVisitor == null || ! this.validatedByVisitor[i]);
+    int end = t.valueEnd;
+
+    for (int start = t.valueStart; ; ) {
+      int j = indexOfSeparator(t.value, start, end, sep);
+      t.setValueRegion(start, j);
+      if (validates) {
+        validateOptArg(t, this.spec, i);
+      }
+      visitOpt(t, i);
+      if (j == end) {
+        break;
+      }
+      start = j + sep.length();
+    }
+  }
+
+  private void visitOpt(Tokenizer t, int i) throws InvalidOption {
+    CharSequence value = null;
+    if (t.value != null) {
+      if (i >= 0 && this.spec.cfgs[i].validator != null &&
+        (this.validatedByVisitor == null || ! this.validatedByVisitor[i])) {
+        value = t.value();
+      } else if (t.valueStart == 0 && t.valueEnd == t.value.length()) {
+        value = t.value;
+      } else {
+        value = this.slice.reset(t.value, t.valueStart, t.valueEnd);
+      }
+    }
+
+    if (i >= 0) {
+      try {
+        this.visitor.onOption(i, value);
+      } catch (OptionArgIsInvalid e) {
+        if (this.validatedByVisitor == null || ! this.validatedByVisitor[i]) {
+          throw e;
+        }
+        // The visitor does not know the option name, which is known only here.
+        throw new OptionArgIsInvalid(e.storeKey, t.name(), e.optArg, e.details, e.getCause());
+      }
+      this.counts[i]++;
+    } else {
+      this.visitor.onAnyOption(t.name(), value);
+    }
+  }
+
+  // Is a reusable iterator over a list, which avoids creating an iterator for every parsing if
+  // the list supports fast random access.
+  private static final class ListCursor implements Iterator<CharSequence> {
+    private List<? extends CharSequence> list = List.of();
+    private Iterator<? extends CharSequence> it;
+    private int index;
+    private int size;
+
+    Iterator<CharSequence> reset(List<? extends CharSequence> list) {
+      this.list = list;
+      this.index = 0;
+      if (list instanceof RandomAccess) {
+        this.it = null;
+        this.size = list.size();
+      } else {
+        this.it = list.iterator();
+        this.size = 0;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.it != null) {
+        return this.it.hasNext();
+      }
+      return this.index < this.size;
+    }
+
+    @Override
+    public CharSequence next() {
+      if (this.it != null) {
+        return this.it.next();
+      }
+      if (this.index >= this.size) {
+        throw new NoSuchElementException();
+      }
+      return this.list.get(this.index++);
+    }
+  }
+}
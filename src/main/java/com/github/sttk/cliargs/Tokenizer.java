@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static com.github.sttk.cliargs.Base.ASCII_CHAR_CLASSES;
+import static com.github.sttk.cliargs.Base.FIRST_CHAR;
+import static com.github.sttk.cliargs.Base.NAME_CHAR;
+
+import java.util.Iterator;
+
+/**
+ * Is the tokenizer which divides command line arguments into command arguments and options.
+ * <p>
+ * This tokenizer works like a cursor: each call of {@link #next} advances to the next token and
+ * returns its kind, and the fields of this object are set to the offsets of the token in the
+ * original argument.
+ * No string is created while tokenizing, and option names and option arguments are materialized
+ * only when {@link #name} or {@link #value} is called.
+ */
+final class Tokenizer {
+
+  /** Indicates there are no more tokens. */
+  static final int END = 0;
+
+  /** Indicates the token is a command argument: {@link #arg}. */
+  static final int ARG = 1;
+
+  /**
+   * Indicates the token is an option: its name is the region [{@link #start}, {@link #end}) of
+   * {@link #arg}, and its option argument is the region [{@link #valueStart},
+   * {@link #valueEnd}) of {@link #value} if {@link #value} is not null.
+   */
+  static final int OPTION = 2;
+
+  /** Indicates the token is the end of options: {@code --}. */
+  static final int END_OF_OPTIONS = 3;
+
+  /**
+   * Indicates the token is an option which contains invalid characters, which is the region
+   * [{@link #start}, {@link #end}) of {@link #arg}.
+   */
+  static final int INVALID_CHAR = 4;
+
+  @FunctionalInterface
+  static interface TakesArg {
+    boolean check(CharSequence s, int start, int end);
+  }
+
+  private Iterator<? extends CharSequence> it;
+  private final TakesArg takesArg;
+  private int count;
+  private String valueString;
+
+  // The state while tokenizing a cluster of short options.
+  private boolean inShortOpts;
+  private int pos;
+  private int pending = -1;
+
+  /** The index of {@link #arg} in the command line arguments. */
+  int argIndex = -1;
+
+  /** The command line argument which contains the current token. */
+  CharSequence arg;
+
+  int start;
+  int end;
+
+  /** The command line argument which contains the option argument, or null. */
+  CharSequence value;
+
+  /** The index of {@link #value} in the command line arguments. */
+  int valueIndex = -1;
+
+  int valueStart;
+  int valueEnd;
+
+  /** True, if after the end of options: {@code --}. */
+  boolean isAfterNonOpt;
+
+  Tokenizer(Iterator<? extends CharSequence> it, TakesArg takesArg, boolean isAfterNonOpt) {
+    this.it = it;
+    this.takesArg = takesArg;
+    this.isAfterNonOpt = isAfterNonOpt;
+  }
+
+  /**
+   * Resets this tokenizer to tokenize other command line arguments.
+   *
+   * @param it  The iterator of command line arguments.
+   * @param isAfterNonOpt  True, if all command line arguments are command arguments.
+   */
+  void reset(Iterator<? extends CharSequence> it, boolean isAfterNonOpt) {
+    this.it = it;
+    this.isAfterNonOpt = isAfterNonOpt;
+    this.count = 0;
+    this.valueString = null;
+    this.inShortOpts = false;
+    this.pos = 0;
+    this.pending = -1;
+    this.argIndex = -1;
+    this.arg = null;
+    this.start = 0;
+    this.end = 0;
+    this.value = null;
+    this.valueIndex = -1;
+    this.valueStart = 0;
+    this.valueEnd = 0;
+  }
+
+  /**
+   * Advances to the next token.
+   *
+   * @return  The kind of the token.
+   */
+  int next() {
+    this.value = null;
+    this.valueString = null;
+
+    if (this.inShortOpts) {
+      int kind = nextShortOpt();
+      if (kind != END) {
+        return kind;
+      }
+    }
+
+    while (this.it.hasNext()) {
+      var a = this.it.next();
+      this.argIndex = this.count++;
+      this.arg = a;
+
+      int len = a.length();
+
+      if (this.isAfterNonOpt) {
+        return setArg(len);
+      }
+
+      if (len >= 2 && a.charAt(0) == '-' && a.charAt(1) == '-') {
+        if (len == 2) {
+          this.isAfterNonOpt = true;
+          return END_OF_OPTIONS;
+        }
+        return nextLongOpt(a, len);
+      }
+
+      if (len >= 1 && a.charAt(0) == '-') {
+        if (len == 1) {
+          return setArg(len);
+        }
+        this.inShortOpts = true;
+        this.pos = 1;
+        this.pending = -1;
+        int kind = nextShortOpt();
+        if (kind != END) {
+          return kind;
+        }
+        continue;
+      }
+
+      return setArg(len);
+    }
+
+    return END;
+  }
+
+  private int setArg(int len) {
+    this.start = 0;
+    this.end = len;
+    return ARG;
+  }
+
+  private int nextLongOpt(CharSequence a, int len) {
+    char c = a.charAt(2);
+    if (c >= 0x80 || (ASCII_CHAR_CLASSES[c] & FIRST_CHAR) == 0) {
+      return setInvalidChar(2, len);
+    }
+
+    for (int i = 3; i < len; i++) {
+      c = a.charAt(i);
+      if (c == '=') {
+        this.start = 2;
+        this.end = i;
+        setValue(this.argIndex, a, i + 1);
+        return OPTION;
+      }
+      if (c >= 0x80 || (ASCII_CHAR_CLASSES[c] & NAME_CHAR) == 0) {
+        return setInvalidChar(2, len);
+      }
+    }
+
+    this.start = 2;
+    this.end = len;
+    takeValueIfNeeded();
+    return OPTION;
+  }
+
+  private int nextShortOpt() {
+    var a = this.arg;
+    int len = a.length();
+
+    while (this.pos < len) {
+      char c = a.charAt(this.pos);
+
+      if (this.pos > 1) {
+        if (c == '=') {
+          this.inShortOpts = false;
+          if (this.pending >= 0) {
+            this.start = this.pending;
+            this.end = this.pending + 1;
+            this.pending = -1;
+            setValue(this.argIndex, a, this.pos + 1);
+            return OPTION;
+          }
+          return END;
+        }
+        if (this.pending >= 0) {
+          this.start = this.pending;
+          this.end = this.pending + 1;
+          this.pending = -1;
+          return OPTION;
+        }
+      }
+
+      if (c >= 0x80) {
+        // Falls back to code points only to get the whole of the invalid character.
+        int cw = Character.charCount(Character.codePointAt(a, this.pos));
+        this.pos += cw;
+        return setInvalidChar(this.pos - cw, this.pos);
+      }
+      if ((ASCII_CHAR_CLASSES[c] & FIRST_CHAR) == 0) {
+        this.pos++;
+        return setInvalidChar(this.pos - 1, this.pos);
+      }
+      this.pending = this.pos++;
+    }
+
+    this.inShortOpts = false;
+    if (this.pending >= 0) {
+      this.start = this.pending;
+      this.end = this.pending + 1;
+      this.pending = -1;
+      takeValueIfNeeded();
+      return OPTION;
+    }
+    return END;
+  }
+
+  private int setInvalidChar(int start, int end) {
+    this.start = start;
+    this.end = end;
+    return INVALID_CHAR;
+  }
+
+  private void setValue(int index, CharSequence s, int start) {
+    this.value = s;
+    this.valueIndex = index;
+    this.valueStart = start;
+    this.valueEnd = s.length();
+  }
+
+  private void takeValueIfNeeded() {
+    if (this.takesArg.check(this.arg, this.start, this.end) && this.it.hasNext()) {
+      var v = this.it.next();
+      setValue(this.count++, v, 0);
+    }
+  }
+
+  /**
+   * Changes the region of the option argument in {@link #value}, which is used to pass each
+   * element of an option argument divided by a separator.
+   *
+   * @param start  The start index of the region.
+   * @param end  The end index of the region.
+   */
+  void setValueRegion(int start, int end) {
+    this.valueStart = start;
+    this.valueEnd = end;
+    this.valueString = null;
+  }
+
+  /**
+   * Returns the option name of the current token, or the invalid part of an option if the current
+   * token is {@link #INVALID_CHAR}.
+   *
+   * @return  The option name.
+   */
+  String name() {
+    return this.arg.subSequence(this.start, this.end).toString();
+  }
+
+  /**
+   * Returns the command argument of the current token.
+   *
+   * @return  The command argument.
+   */
+  String argString() {
+    return this.arg.toString();
+  }
+
+  /**
+   * Returns the option argument of the current token.
+   * <p>
+   * The string is created only once for a token even if this method is called multiple times.
+   *
+   * @return  The option argument, or null if the current option has no argument.
+   */
+  String value() {
+    if (this.value == null) {
+      return null;
+    }
+    if (this.valueString == null) {
+      if (this.valueStart == 0 && this.valueEnd == this.value.length()) {
+        this.valueString = this.value.toString();
+      } else {
+        this.valueString = this.value.subSequence(this.valueStart, this.valueEnd).toString();
+      }
+    }
+    return this.valueString;
+  }
+}
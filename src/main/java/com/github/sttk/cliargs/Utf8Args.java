@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Is the list of command line arguments which are NUL-separated and encoded in UTF-8 in a byte
+ * buffer.
+ * <p>
+ * Only the offsets of arguments are scanned when this list is constructed, and each argument is
+ * a {@link CharSequence} view of the bytes.
+ * An argument which consists of ASCII characters only is read from the bytes directly, and
+ * other arguments are decoded into strings only when their contents are accessed.
+ */
+final class Utf8Args extends AbstractList<CharSequence> implements RandomAccess {
+
+  private final ByteBuffer buf;
+
+  // The start offset of each argument. The end offset of the i-th argument is offsets[i + 1] - 1.
+  private final int[] offsets;
+  private final int size;
+
+  Utf8Args(ByteBuffer cmdline) {
+    this.buf = cmdline.slice();
+
+    var offsets = new int[16];
+    int size = 0;
+
+    int start = 0;
+    for (int i = 0, n = this.buf.limit(); i <= n; i++) {
+      if (i == n) {
+        if (start == n) {
+          break; // Not an empty argument after the last NUL.
+        }
+      } else if (this.buf.get(i) != 0) {
+        continue;
+      }
+      if (size + 1 >= offsets.length) {
+        offsets = Arrays.copyOf(offsets, offsets.length << 1);
+      }
+      offsets[size++] = start;
+      start = i + 1;
+    }
+    offsets[size] = start;
+
+    this.offsets = offsets;
+    this.size = size;
+  }
+
+  @Override
+  public CharSequence get(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    int start = this.offsets[index];
+    int end = this.offsets[index + 1] - 1;
+    return new Arg(this.buf, start, end - start, Arg.UNKNOWN);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  static final class Arg implements CharSequence {
+    static final byte UNKNOWN = 0;
+    static final byte ASCII = 1;
+    static final byte NON_ASCII = 2;
+
+    private final ByteBuffer buf;
+    private final int off;
+    private final int len;
+    private byte kind;
+    private String decoded;
+
+    Arg(ByteBuffer buf, int off, int len, byte kind) {
+      this.buf = buf;
+      this.off = off;
+      this.len = len;
+      this.kind = kind;
+    }
+
+    private boolean isAscii() {
+      if (this.kind == UNKNOWN) {
+        this.kind = ASCII;
+        for (int i = this.off, n = this.off + this.len; i < n; i++) {
+          if (this.buf.get(i) < 0) {
+            this.kind = NON_ASCII;
+            break;
+          }
+        }
+      }
+      return this.kind == ASCII;
+    }
+
+    private String decoded() {
+      if (this.decoded == null) {
+        this.decoded = decode(this.isAscii() ? ISO_8859_1 : UTF_8);
+      }
+      return this.decoded;
+    }
+
+    private String decode(Charset cs) {
+      if (this.buf.hasArray()) {
+        return new String(this.buf.array(), this.buf.arrayOffset() + this.off, this.len, cs);
+      }
+      var bytes = new byte[this.len];
+      this.buf.get(this.off, bytes);
+      return new String(bytes, cs);
+    }
+
+    @Override
+    public int length() {
+      if (isAscii()) {
+        return this.len;
+      }
+      return decoded().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (isAscii()) {
+        if (index < 0 || index >= this.len) {
+          throw new StringIndexOutOfBoundsException(index);
+        }
+        return (char) this.buf.get(this.off + index);
+      }
+      return decoded().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (isAscii()) {
+        if (start < 0 || end > this.len || start > end) {
+          throw new StringIndexOutOfBoundsException(
+            "start " + start + ", end " + end + ", length " + this.len);
+        }
+        return new Arg(this.buf, this.off + start, end - start, ASCII);
+      }
+      return decoded().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return decoded();
+    }
+  }
+}
@@ -15,7 +15,7 @@ import java.lang.annotation.Target;
  * Is the annotation that is attached to fields of an option store class.
  * <p>
  * This annotation can specify values for the fields of an {@link OptCfg}
- * object: {@code names}, {@code defaults}, {@code desc} and {@code argInHelp}.
+ * object: {@code names}, {@code defaults}, {@code desc}, {@code argInHelp} and {@code separator}.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
@@ -41,4 +41,11 @@ public @interface Opt {
    * @return  The display of the option argument in a help text.
    */
   String arg() default "";
+
+  /**
+   * Gets the separator which divides an option argument into multiple option arguments.
+   *
+   * @return  The separator which divides an option argument.
+   */
+  String sep() default "";
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.exceptions;
+
+import java.util.StringJoiner;
+
+/**
+ * Is the exception which indicates that an argument file includes itself directly or
+ * indirectly.
+ */
+public class ArgFileIsCyclic extends InvalidOption {
+  private static final long serialVersionUID = 4470180926326104187L;
+
+  /** The argument which specifies the argument file, like {@code @path/to/file}. */
+  public final String argFile;
+
+  /**
+   * Constructs an instance of this class.
+   *
+   * @param argFile  The argument which specifies the argument file.
+   */
+  public ArgFileIsCyclic(final String argFile) {
+    this.argFile = argFile;
+  }
+
+  /**
+   * Gets the argument which specifies the argument file that caused this exception.
+   *
+   * @return  The argument which specifies the argument file.
+   */
+  @Override
+  public String option() {
+    return this.argFile;
+  }
+
+  /**
+   * Returns a string which represents the content of this exception.
+   *
+   * @return  The exception message.
+   */
+  @Override
+  public String getMessage() {
+    var j = new StringJoiner(",", getClass().getSimpleName() + "{", "}");
+    j.add("argFile:" + this.argFile);
+    return j.toString();
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.exceptions;
+
+import java.util.StringJoiner;
+
+/**
+ * Is the exception which indicates that it is failed to read an argument file.
+ */
+public class FailToReadArgFile extends InvalidOption {
+  private static final long serialVersionUID = -3093567714539517702L;
+
+  /** The argument which specifies the argument file, like {@code @path/to/file}. */
+  public final String argFile;
+
+  /**
+   * Constructs an instance of this class.
+   *
+   * @param argFile  The argument which specifies the argument file.
+   * @param cause  The cause of this exception.
+   */
+  public FailToReadArgFile(final String argFile, Throwable cause) {
+    super(cause);
+    this.argFile = argFile;
+  }
+
+  /**
+   * Gets the argument which specifies the argument file that caused this exception.
+   *
+   * @return  The argument which specifies the argument file.
+   */
+  @Override
+  public String option() {
+    return this.argFile;
+  }
+
+  /**
+   * Returns a string which represents the content of this exception.
+   *
+   * @return  The exception message.
+   */
+  @Override
+  public String getMessage() {
+    var j = new StringJoiner(",", getClass().getSimpleName() + "{", "}");
+    j.add("argFile:" + this.argFile);
+    j.add("cause:" + String.valueOf(this.getCause()));
+    return j.toString();
+  }
+}
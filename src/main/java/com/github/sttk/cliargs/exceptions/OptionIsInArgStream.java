@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.exceptions;
+
+import java.util.StringJoiner;
+
+/**
+ * Is the exception which indicates that an option is found in a stream of command arguments,
+ * where only command arguments are allowed.
+ */
+public class OptionIsInArgStream extends InvalidOption {
+  private static final long serialVersionUID = 2950571862263402318L;
+
+  /** The option that caused this exception. */
+  public final String option;
+
+  /**
+   * Constructs an instance of this class.
+   *
+   * @param option  The option that caused this exception.
+   */
+  public OptionIsInArgStream(final String option) {
+    this.option = option;
+  }
+
+  /**
+   * Gets the option that caused this exception.
+   *
+   * @return  The option.
+   */
+  @Override
+  public String option() {
+    return this.option;
+  }
+
+  /**
+   * Returns a string which represents the content of this exception.
+   *
+   * @return  The exception message.
+   */
+  @Override
+  public String getMessage() {
+    var j = new StringJoiner(",", getClass().getSimpleName() + "{", "}");
+    j.add("option:" + this.option);
+    return j.toString();
+  }
+}
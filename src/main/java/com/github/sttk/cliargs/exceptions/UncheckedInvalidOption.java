@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.exceptions;
+
+import java.util.Objects;
+
+/**
+ * Is the unchecked exception which wraps an {@link InvalidOption} exception.
+ * <p>
+ * This exception is thrown from an iterator or a stream, of which methods cannot throw checked
+ * exceptions.
+ */
+public class UncheckedInvalidOption extends RuntimeException {
+  private static final long serialVersionUID = -5305417826471936420L;
+
+  /**
+   * Constructs an instance of this class.
+   *
+   * @param cause  The {@link InvalidOption} exception.
+   */
+  public UncheckedInvalidOption(InvalidOption cause) {
+    super(Objects.requireNonNull(cause));
+  }
+
+  /**
+   * Returns the {@link InvalidOption} exception which is wrapped by this exception.
+   *
+   * @return  The {@link InvalidOption} exception.
+   */
+  @Override
+  public synchronized InvalidOption getCause() {
+    return (InvalidOption) super.getCause();
+  }
+
+  /**
+   * Returns a string which represents the content of this exception.
+   *
+   * @return  The exception message.
+   */
+  @Override
+  public String getMessage() {
+    return getCause().getMessage();
+  }
+}
@@ -11,9 +11,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link BigDecimal}.
+ * {@link BigDecimal} and to convert it to the value.
  */
-public class BigDecimalValidator implements Validator {
+public class BigDecimalValidator implements Converter<BigDecimal> {
   /**
    * The default constructor.
    */
@@ -23,9 +23,9 @@ public class BigDecimalValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public BigDecimal convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      new BigDecimal(arg);
+      return new BigDecimal(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid BigDecimal", e);
     }
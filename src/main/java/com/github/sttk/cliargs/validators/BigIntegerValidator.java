@@ -11,9 +11,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link BigInteger}.
+ * {@link BigInteger} and to convert it to the value.
  */
-public class BigIntegerValidator implements Validator {
+public class BigIntegerValidator implements Converter<BigInteger> {
   /**
    * The default constructor.
    */
@@ -23,9 +23,9 @@ public class BigIntegerValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public BigInteger convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      new BigInteger(arg);
+      return new BigInteger(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid BigInteger", e);
     }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.validators;
+
+import com.github.sttk.cliargs.Cmd;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+/**
+ * Is the interface which provides the method declaration to convert an option argument to a
+ * value of the specified type.
+ * <p>
+ * A converter is also a validator: an option argument is valid if it can be converted.
+ *
+ * @param <T>  The type of the converted value.
+ */
+@FunctionalInterface
+public interface Converter<T> extends Validator {
+
+  /**
+   * Converts an option argument string to a value of the specified type.
+   *
+   * @param storeKey  The store key used to store in {@link Cmd} instance.
+   * @param name  The option name.
+   * @param arg  The option argument string in command line arguments.
+   * @return  The converted value.
+   * @throws OptionArgIsInvalid  If the option argument is invalid.
+   */
+  T convert(String storeKey, String name, String arg) throws OptionArgIsInvalid;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+    convert(storeKey, name, arg);
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.validators;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Is the registry of the {@link Converter}s which convert option arguments to the values of the
+ * field types of option stores, and is keyed by the class of a field type or its array
+ * component type.
+ * <p>
+ * The converters of the following types are built in: {@code int}, {@code long},
+ * {@code double}, {@code float}, {@code short}, their wrapper classes, {@link BigDecimal},
+ * {@link BigInteger}, and {@link InetAddress}, which accepts only a literal IP address and never
+ * looks up a host name.
+ * For any other type, a converter is discovered from a public static factory method of the type
+ * which takes a string, i.e. {@code valueOf}, {@code of}, {@code parse} or {@code fromString} in
+ * this order.
+ * So, for example, enums, {@link java.nio.file.Path}, {@link java.time.Duration},
+ * {@link java.util.UUID} and value classes with such a factory are supported without
+ * registration.
+ * <p>
+ * A converter is discovered only once per type, and its factory method is cached as a method
+ * handle.
+ * Since the converter of a field type is looked up when the option configurations of an option
+ * store class are made, parsing does not look up converters at all.
+ * Therefore, a converter should be registered with {@link #register} before parsing for an
+ * option store class which uses it.
+ */
+public final class Converters {
+
+  // The names of the static factory methods in the order of priority.
+  private static final List<String> FACTORY_NAMES =
+    List.of("valueOf", "of", "parse", "fromString");
+
+  // The rank of a method whose parameters are not those of a factory.
+  private static final int NOT_FACTORY = 3;
+
+  private static final Map<Class<?>, Converter<?>> BUILT_IN = Map.ofEntries(
+    Map.entry(int.class, new IntegerValidator()),
+    Map.entry(Integer.class, new IntegerValidator()),
+    Map.entry(long.class, new LongValidator()),
+    Map.entry(Long.class, new LongValidator()),
+    Map.entry(double.class, new DoubleValidator()),
+    Map.entry(Double.class, new DoubleValidator()),
+    Map.entry(float.class, new FloatValidator()),
+    Map.entry(Float.class, new FloatValidator()),
+    Map.entry(short.class, new ShortValidator()),
+    Map.entry(Short.class, new ShortValidator()),
+    Map.entry(BigDecimal.class, new BigDecimalValidator()),
+    Map.entry(BigInteger.class, new BigIntegerValidator()),
+    Map.entry(InetAddress.class, new InetAddressValidator())
+  );
+
+  private static final Map<Class<?>, Converter<?>> REGISTERED = new ConcurrentHashMap<>();
+
+  private static final ClassValue<Converter<?>> DISCOVERED = new ClassValue<>() {
+    @Override
+    protected Converter<?> computeValue(Class<?> type) {
+      var conv = BUILT_IN.get(type);
+      if (conv != null) {
+        return conv;
+      }
+      return discover(type);
+    }
+  };
+
+  private Converters() {}
+
+  /**
+   * Registers the converter of the specified type, which takes precedence over a discovered
+   * one.
+   * <p>
+   * The converter is used for the fields of the type and the arrays of the type.
+   * The types which are converted natively, i.e. primitive types, {@link Boolean}, {@link Byte},
+   * {@link Short}, {@link Integer}, {@link Long}, {@link Float}, {@link Double}, {@link String},
+   * {@link BigDecimal} and {@link BigInteger}, cannot be registered.
+   *
+   * @param <T>  The type of the converted values.
+   * @param type  The class of the converted values.
+   * @param converter  The converter.
+   * @throws IllegalArgumentException  If the type is converted natively.
+   */
+  public static <T> void register(Class<T> type, Converter<? extends T> converter) {
+    Objects.requireNonNull(type);
+    Objects.requireNonNull(converter);
+    if (isNative(type)) {
+      throw new IllegalArgumentException("A converter cannot be registered for " + type);
+    }
+    REGISTERED.put(type, converter);
+  }
+
+  /**
+   * Returns the converter of the specified type, which is the registered one, the built-in one,
+   * or the one discovered from a static factory method of the type.
+   *
+   * @param <T>  The type of the converted values.
+   * @param type  The class of the converted values.
+   * @return  The converter, or null if the type has no converter.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Converter<T> find(Class<T> type) {
+    var conv = REGISTERED.get(type);
+    if (conv == null) {
+      conv = DISCOVERED.get(type);
+    }
+    return (Converter<T>) conv;
+  }
+
+  private static boolean isNative(Class<?> type) {
+    if (type == InetAddress.class) {
+      return false;
+    }
+    return type.isPrimitive() || type == String.class || type == Boolean.class ||
+      type == Byte.class || BUILT_IN.containsKey(type);
+  }
+
+  // Finds a public static factory method which takes a string and makes a value of the type, and
+  // returns the converter with it, or null if it is not found.
+  private static Converter<?> discover(Class<?> type) {
+    if (type.isPrimitive() || type.isArray()) {
+      return null;
+    }
+
+    for (var name : FACTORY_NAMES) {
+      Method found = null;
+      for (var m : type.getMethods()) {
+        if (m.getName().equals(name) && Modifier.isStatic(m.getModifiers()) &&
+          type.isAssignableFrom(m.getReturnType()) && rankOf(m) < rankOf(found)) {
+          found = m;
+        }
+      }
+      if (found != null) {
+        var mh = unreflect(found);
+        if (mh != null) {
+          return new MethodHandleConverter<>(type, mh);
+        }
+      }
+    }
+    return null;
+  }
+
+  // Returns the rank of the parameters of a factory: (String) is the best, (CharSequence) is the
+  // next, and (String or CharSequence, String...) like Path.of is the last.
+  private static int rankOf(Method m) {
+    if (m == null) {
+      return NOT_FACTORY;
+    }
+    var params = m.getParameterTypes();
+    if (params.length == 1) {
+      if (params[0] == String.class) {
+        return 0;
+      } else if (params[0] == CharSequence.class) {
+        return 1;
+      }
+    } else if (params.length == 2 && m.isVarArgs() && params[1] == String[].class &&
+      (params[0] == String.class || params[0] == CharSequence.class)) {
+      return 2;
+    }
+    return NOT_FACTORY;
+  }
+
+  // Returns the method handle of the factory whose type is (String)Object, or null if it is not
+  // accessible.
+  private static MethodHandle unreflect(Method m) {
+    try {
+      m.trySetAccessible();
+      var mh = MethodHandles.lookup().unreflect(m);
+      if (m.getParameterCount() == 2) {
+        mh = MethodHandles.insertArguments(mh.asFixedArity(), 1, (Object) new String[0]);
+      }
+      return mh.asType(methodType(Object.class, String.class));
+    } catch (IllegalAccessException | RuntimeException ex) {
+      return null;
+    }
+  }
+
+  // Is the converter which makes a value with the method handle of a factory whose type is
+  // (String)Object.
+  private static final class MethodHandleConverter<T> implements Converter<T> {
+    private final Class<T> type;
+    private final MethodHandle factory;
+    private final String details;
+
+    MethodHandleConverter(Class<T> type, MethodHandle factory) {
+      this.type = type;
+      this.factory = factory;
+      this.details = "invalid " + type.getSimpleName();
+    }
+
+    @Override
+    public T convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+      try {
+        return this.type.cast((Object) this.factory.invokeExact(arg));
+      } catch (Exception e) {
+        throw new OptionArgIsInvalid(storeKey, name, arg, this.details, e);
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    }
+  }
+}
@@ -10,9 +10,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link Double}.
+ * {@link Double} and to convert it to the value.
  */
-public class DoubleValidator implements Validator {
+public class DoubleValidator implements Converter<Double> {
   /**
    * The default constructor.
    */
@@ -22,9 +22,9 @@ public class DoubleValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public Double convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      Double.valueOf(arg);
+      return Double.valueOf(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid Double", e);
     }
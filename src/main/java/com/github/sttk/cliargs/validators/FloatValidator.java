@@ -10,9 +10,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link Double}.
+ * {@link Double} and to convert it to the value.
  */
-public class FloatValidator implements Validator {
+public class FloatValidator implements Converter<Float> {
   /**
    * The default constructor.
    */
@@ -22,9 +22,9 @@ public class FloatValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public Float convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      Float.valueOf(arg);
+      return Float.valueOf(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid Float", e);
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2024 Takayuki Sato. All Rights Reserved.
+ * This program is free software under MIT License.
+ * See the file LICENSE in this distribution for more details.
+ */
+package com.github.sttk.cliargs.validators;
+
+import java.net.InetAddress;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+/**
+ * Is the validator class which provides the method to validate an option argument string as a
+ * literal IP address and to convert it to an {@link InetAddress}.
+ * <p>
+ * Only a literal IPv4 address in dotted decimal, like {@code 192.168.0.1}, and a literal IPv6
+ * address, like {@code ::1} or {@code [::1]}, are accepted.
+ * A host name is invalid, because this validator never looks up a name service, which may block
+ * parsing for a long time or fail when it is unavailable.
+ */
+public class InetAddressValidator implements Converter<InetAddress> {
+  /**
+   * The default constructor.
+   */
+  public InetAddressValidator() {}
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public InetAddress convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+    String literal;
+    if (arg.indexOf(':') >= 0) {
+      // A bracketed address is parsed only as an IPv6 address and is never looked up.
+      literal = arg.startsWith("[") ? arg : "[" + arg + "]";
+    } else if (isIPv4(arg)) {
+      literal = arg;
+    } else {
+      throw new OptionArgIsInvalid(storeKey, name, arg, "invalid InetAddress",
+        new IllegalArgumentException("not a literal IP address: " + arg));
+    }
+
+    try {
+      return InetAddress.getByName(literal);
+    } catch (Exception e) {
+      throw new OptionArgIsInvalid(storeKey, name, arg, "invalid InetAddress", e);
+    }
+  }
+
+  // Checks whether the string is four decimal numbers from 0 to 255 separated by dots.
+  private static boolean isIPv4(String s) {
+    int parts = 0;
+    int i = 0;
+    int n = s.length();
+    while (i < n) {
+      int start = i;
+      int v = 0;
+      while (i < n && i - start < 3 && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+        v = v * 10 + (s.charAt(i++) - '0');
+      }
+      if (i == start || v > 255 || ++parts > 4) {
+        return false;
+      }
+      if (i < n) {
+        if (s.charAt(i) != '.' || i == n - 1) {
+          return false;
+        }
+        i++;
+      }
+    }
+    return parts == 4;
+  }
+}
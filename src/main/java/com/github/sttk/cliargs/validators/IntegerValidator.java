@@ -10,9 +10,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link Integer}.
+ * {@link Integer} and to convert it to the value.
  */
-public class IntegerValidator implements Validator {
+public class IntegerValidator implements Converter<Integer> {
   /**
    * The default constructor.
    */
@@ -22,9 +22,9 @@ public class IntegerValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public Integer convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      Integer.valueOf(arg);
+      return Integer.valueOf(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid Integer", e);
     }
@@ -10,9 +10,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link Long}.
+ * {@link Long} and to convert it to the value.
  */
-public class LongValidator implements Validator {
+public class LongValidator implements Converter<Long> {
   /**
    * The default constructor.
    */
@@ -22,9 +22,9 @@ public class LongValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public Long convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      Long.valueOf(arg);
+      return Long.valueOf(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid Long", e);
     }
@@ -10,9 +10,9 @@ import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 
 /**
  * Is the validator class which provides the method to validate an option argument string as a
- * {@link Short}.
+ * {@link Short} and to convert it to the value.
  */
-public class ShortValidator implements Validator {
+public class ShortValidator implements Converter<Short> {
   /**
    * The default constructor.
    */
@@ -22,9 +22,9 @@ public class ShortValidator implements Validator {
    * {@inheritDoc}
    */
   @Override
-  public void validate(String storeKey, String name, String arg) throws OptionArgIsInvalid {
+  public Short convert(String storeKey, String name, String arg) throws OptionArgIsInvalid {
     try {
-      Short.valueOf(arg);
+      return Short.valueOf(arg);
     } catch (Exception e) {
       throw new OptionArgIsInvalid(storeKey, name, arg, "invalid Short", e);
     }
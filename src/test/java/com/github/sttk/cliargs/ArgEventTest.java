@@ -0,0 +1,241 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.ArgEvent.Kind;
+import com.github.sttk.cliargs.exceptions.OptionContainsInvalidChar;
+import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ArgEventTest {
+
+  static CompiledSpec spec(OptCfg ...optCfgs) {
+    try {
+      return new CompiledSpec(optCfgs);
+    } catch (Exception e) {
+      fail(e);
+      return null;
+    }
+  }
+
+  @Nested
+  class TestsOfIterateWith {
+    @Test
+    void should_iterate_events() {
+      var spec = spec(
+        new OptCfg(storeKey("fooBar"), names("f", "foo-bar")),
+        new OptCfg(names("baz", "z"), hasArg(true), isArray(true)),
+        new OptCfg(names("qux"), hasArg(true), defaults("Q"))
+      );
+      var cmd = new Cmd("app", "abc", "-f", "--baz=1", "-z", "2", "--", "-f");
+
+      var it = cmd.iterateWith(spec);
+
+      var ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.POSITIONAL);
+      assertThat(ev.argIndex()).isEqualTo(0);
+      assertThat(ev.nameIndex()).isEqualTo(-1);
+      assertThat(ev.name()).isEqualTo("abc");
+      assertThat(ev.value()).isNull();
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.argIndex()).isEqualTo(1);
+      assertThat(ev.nameIndex()).isEqualTo(0);
+      assertThat(ev.name()).isEqualTo("f");
+      assertThat(ev.value()).isNull();
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.argIndex()).isEqualTo(2);
+      assertThat(ev.nameIndex()).isEqualTo(1);
+      assertThat(ev.name()).isEqualTo("baz");
+      assertThat(ev.value()).isEqualTo("1");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.argIndex()).isEqualTo(3);
+      assertThat(ev.nameIndex()).isEqualTo(1);
+      assertThat(ev.name()).isEqualTo("z");
+      assertThat(ev.value()).isEqualTo("2");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.END_OF_OPTIONS);
+      assertThat(ev.argIndex()).isEqualTo(5);
+      assertThat(ev.name()).isEqualTo("--");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.POSITIONAL);
+      assertThat(ev.argIndex()).isEqualTo(6);
+      assertThat(ev.name()).isEqualTo("-f");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.argIndex()).isEqualTo(-1);
+      assertThat(ev.nameIndex()).isEqualTo(2);
+      assertThat(ev.name()).isEqualTo("qux");
+      assertThat(ev.value()).isEqualTo("Q");
+
+      assertThat(it.hasNext()).isFalse();
+
+      assertThat(cmd.args()).isEmpty();
+      assertThat(cmd.hasOpt("fooBar")).isFalse();
+    }
+
+    @Test
+    void should_return_invalid_options_as_events() {
+      var spec = spec(
+        new OptCfg(names("foo"), hasArg(true))
+      );
+      var cmd = new Cmd("app", "--bar", "-1", "--foo", "abc", "--foo");
+
+      var it = cmd.iterateWith(spec);
+
+      var ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.INVALID_OPTION);
+      assertThat(ev.exception()).isInstanceOf(UnconfiguredOption.class);
+      assertThat(ev.name()).isEqualTo("bar");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.INVALID_OPTION);
+      assertThat(ev.exception()).isInstanceOf(OptionContainsInvalidChar.class);
+      assertThat(ev.name()).isEqualTo("1");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.exception()).isNull();
+      assertThat(ev.value()).isEqualTo("abc");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.INVALID_OPTION);
+      assertThat(ev.exception()).isInstanceOf(OptionNeedsArg.class);
+
+      assertThat(it.hasNext()).isFalse();
+    }
+
+    @Test
+    void should_return_divided_option_args_as_events() {
+      var spec = spec(
+        new OptCfg(names("foo"), hasArg(true), isArray(true), separator("::"),
+          validator(new com.github.sttk.cliargs.validators.IntegerValidator()))
+      );
+      var cmd = new Cmd("app", "--foo=1::x::3", "abc");
+
+      var it = cmd.iterateWith(spec);
+
+      var ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.argIndex()).isEqualTo(0);
+      assertThat(ev.name()).isEqualTo("foo");
+      assertThat(ev.value()).isEqualTo("1");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.INVALID_OPTION);
+      assertThat(ev.value()).isEqualTo("x");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.value()).isEqualTo("3");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.POSITIONAL);
+      assertThat(ev.name()).isEqualTo("abc");
+
+      assertThat(it.hasNext()).isFalse();
+    }
+
+    @Test
+    void should_return_any_options() {
+      var spec = spec(
+        new OptCfg(names("*"))
+      );
+      var cmd = new Cmd("app", "--foo=1", "-b");
+
+      var it = cmd.iterateWith(spec);
+
+      var ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.ANY_OPTION);
+      assertThat(ev.name()).isEqualTo("foo");
+      assertThat(ev.value()).isEqualTo("1");
+
+      ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.ANY_OPTION);
+      assertThat(ev.name()).isEqualTo("b");
+      assertThat(ev.value()).isNull();
+
+      assertThat(it.hasNext()).isFalse();
+    }
+
+    @Test
+    void should_parse_only_as_far_as_iterated() {
+      var spec = spec(
+        new OptCfg(names("version")),
+        new OptCfg(names("foo"), hasArg(true))
+      );
+
+      var accessed = new ArrayList<Integer>();
+      var osArgs = new AbstractList<String>() {
+        final List<String> list = List.of("--version", "--foo", "1", "--bar", "abc");
+        @Override
+        public String get(int index) {
+          accessed.add(index);
+          return list.get(index);
+        }
+        @Override
+        public int size() {
+          return list.size();
+        }
+      };
+
+      var it = Spliterators.iterator(new ArgEventSpliterator(osArgs.iterator(), spec, false));
+
+      var ev = it.next();
+      assertThat(ev.kind()).isEqualTo(Kind.OPTION);
+      assertThat(ev.nameIndex()).isEqualTo(0);
+      assertThat(accessed).containsExactly(0);
+    }
+  }
+
+  @Nested
+  class TestsOfStreamWith {
+    @Test
+    void should_stream_positionals() {
+      var spec = spec(
+        new OptCfg(names("v"))
+      );
+      var cmd = new Cmd("app", "a.txt", "-v", "b.txt", "--", "-c.txt");
+
+      var files = cmd.streamWith(spec)
+        .filter(ev -> ev.kind() == Kind.POSITIONAL)
+        .map(ArgEvent::name)
+        .collect(Collectors.toList());
+      assertThat(files).containsExactly("a.txt", "b.txt", "-c.txt");
+    }
+
+    @Test
+    void should_short_circuit() {
+      var spec = spec(
+        new OptCfg(names("version")),
+        new OptCfg(names("*"))
+      );
+      var cmd = new Cmd("app", "-a", "--version", "--x=1");
+
+      var found = cmd.streamWith(spec)
+        .anyMatch(ev -> ev.kind() == Kind.OPTION && ev.nameIndex() == 0);
+      assertThat(found).isTrue();
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sttk.cliargs.annotations.Opt;
+import com.github.sttk.cliargs.exceptions.ArgFileIsCyclic;
+import com.github.sttk.cliargs.exceptions.FailToReadArgFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ArgFilesTest {
+
+  @TempDir
+  Path dir;
+
+  String write(String name, String content) throws IOException {
+    var path = dir.resolve(name);
+    Files.writeString(path, content);
+    return "@" + path;
+  }
+
+  static List<String> expand(String ...args) {
+    var list = new ArrayList<String>();
+    var it = new ArgFiles(List.of(args).iterator());
+    while (it.hasNext()) {
+      list.add(it.next().toString());
+    }
+    return list;
+  }
+
+  @Nested
+  class TestsOfExpansion {
+    @Test
+    void should_expand_arg_file() {
+      try {
+        var f = write("args.txt", "--foo\nbar\n\n  baz\tqux\r\n");
+        assertThat(expand("a", f, "b")).containsExactly("a", "--foo", "bar", "baz", "qux", "b");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_expand_empty_arg_file() {
+      try {
+        var f = write("empty.txt", "");
+        var g = write("blank.txt", " \n\n");
+        assertThat(expand("a", f, g, "b")).containsExactly("a", "b");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_unquote_args() {
+      try {
+        var f = write("args.txt",
+          "'a b' \"c \\\"d\\\"\" e\\ f 'g\\h' x\"y z\"w \"\" 'é'\n");
+        assertThat(expand(f)).containsExactly(
+          "a b", "c \"d\"", "e f", "g\\h", "xy zw", "", "é");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_not_expand_single_at_mark() {
+      assertThat(expand("@", "a")).containsExactly("@", "a");
+    }
+
+    @Test
+    void should_expand_nested_arg_files() {
+      try {
+        var g = write("inner.txt", "x y");
+        var f = write("outer.txt", "a " + g + " b " + g);
+        assertThat(expand(f, "c")).containsExactly("a", "x", "y", "b", "x", "y", "c");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_expand_many_args() {
+      try {
+        var sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+          sb.append("--opt=").append(i).append('\n');
+        }
+        var f = write("many.txt", sb.toString());
+        var list = expand(f);
+        assertThat(list).hasSize(100_000);
+        assertThat(list.get(99_999)).isEqualTo("--opt=99999");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfCmd {
+    @Test
+    void should_parse_with_arg_files() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true), isArray(true)),
+        new OptCfg(names("v")),
+      };
+
+      try {
+        var f = write("args.txt", "--foo 1\n--foo=2\nabc\n");
+        var cmd = new Cmd("app", "-v", f, "def").expandArgFiles();
+        cmd.parseWith(optCfgs);
+        assertThat(cmd.hasOpt("v")).isTrue();
+        assertThat(cmd.optArgs("foo").get()).containsExactly("1", "2");
+        assertThat(cmd.args()).containsExactly("abc", "def");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    static class ArrayOptions {
+      @Opt(cfg="ids", sep=",")
+      int[] ids;
+      @Opt(cfg="rates")
+      double[] rates;
+    }
+
+    @Test
+    void should_keep_option_arguments_after_arg_file_is_changed() {
+      try {
+        var f = write("args.txt", "--ids=1,2,3 --ids 04 --rates=0.50\n");
+        var store = new ArrayOptions();
+        var cmd = new Cmd("app", f).expandArgFiles();
+        cmd.parseFor(store);
+        assertThat(store.ids).containsExactly(1, 2, 3, 4);
+
+        Files.writeString(dir.resolve("args.txt"), "");
+
+        assertThat(cmd.optArgs("ids").get()).containsExactly("1", "2", "3", "04");
+        assertThat(cmd.optArg("rates").get()).isEqualTo("0.50");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_not_expand_arg_files_if_not_enabled() {
+      try {
+        var f = write("args.txt", "--foo");
+        var cmd = new Cmd("app", f);
+        cmd.parse();
+        assertThat(cmd.args()).containsExactly(f);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_parse_sub_command_in_arg_file() {
+      try {
+        var g = write("inner.txt", "-c");
+        var f = write("args.txt", "-a sub -b " + g + "\n");
+        var cmd = new Cmd("app", f, "d").expandArgFiles();
+        var subCmd = cmd.parseUntilSubCmd();
+        assertThat(cmd.hasOpt("a")).isTrue();
+        assertThat(subCmd.get().name()).isEqualTo("sub");
+
+        subCmd.get().parse();
+        assertThat(subCmd.get().hasOpt("b")).isTrue();
+        assertThat(subCmd.get().hasOpt("c")).isTrue();
+        assertThat(subCmd.get().args()).containsExactly("d");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_arg_file_is_not_found() {
+      var f = "@" + dir.resolve("nothing.txt");
+      var cmd = new Cmd("app", "-a", f, "b").expandArgFiles();
+      try {
+        cmd.parse();
+        fail();
+      } catch (FailToReadArgFile e) {
+        assertThat(e.argFile).isEqualTo(f);
+        assertThat(e.option()).isEqualTo(f);
+        assertThat(e.getCause()).isInstanceOf(NoSuchFileException.class);
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(cmd.hasOpt("a")).isTrue();
+      assertThat(cmd.args()).isEmpty();
+    }
+
+    @Test
+    void should_throw_if_arg_file_is_cyclic() {
+      try {
+        var a = dir.resolve("a.txt");
+        var b = dir.resolve("b.txt");
+        Files.writeString(a, "x @" + b);
+        Files.writeString(b, "y @" + a);
+
+        var cmd = new Cmd("app", "@" + a).expandArgFiles();
+        try {
+          cmd.parse();
+          fail();
+        } catch (ArgFileIsCyclic e) {
+          assertThat(e.argFile).isEqualTo("@" + a);
+        }
+        assertThat(cmd.args()).containsExactly("x", "y");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_not_read_arg_files_after_iteration_stops() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("version")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var f = "@" + dir.resolve("nothing.txt");
+        var cmd = new Cmd("app", "--version", f).expandArgFiles();
+        var it = cmd.iterateWith(spec);
+        assertThat(it.next().nameIndex()).isEqualTo(0);
+
+        var events = new ArrayList<ArgEvent>();
+        cmd.iterateWith(spec).forEachRemaining(events::add);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1).kind()).isEqualTo(ArgEvent.Kind.INVALID_OPTION);
+        assertThat(events.get(1).exception()).isInstanceOf(FailToReadArgFile.class);
+        assertThat(events.get(1).name()).isEqualTo(f);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.OptionIsInArgStream;
+import com.github.sttk.cliargs.exceptions.UncheckedInvalidOption;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ArgStreamTest {
+
+  static InputStream input(String s) {
+    return new ByteArrayInputStream(s.getBytes(UTF_8));
+  }
+
+  static List<String> read(String s, byte delimiter) {
+    var list = new ArrayList<String>();
+    new ArgStream(input(s), delimiter, false).forEachRemaining(list::add);
+    return list;
+  }
+
+  @Nested
+  class TestsOfArgStream {
+    @Test
+    void should_read_lines() {
+      assertThat(read("a.txt\nb c.txt\r\n\n/d/é.txt", (byte) '\n'))
+        .containsExactly("a.txt", "b c.txt", "/d/é.txt");
+    }
+
+    @Test
+    void should_read_nul_separated_args() {
+      assertThat(read("a\nb\0c\0\0", (byte) 0)).containsExactly("a\nb", "c");
+    }
+
+    @Test
+    void should_read_nothing() {
+      assertThat(read("", (byte) '\n')).isEmpty();
+      assertThat(read("\n\n", (byte) '\n')).isEmpty();
+    }
+
+    @Test
+    void should_read_args_longer_than_buffer() {
+      var sb = new StringBuilder();
+      for (int i = 0; i < 3; i++) {
+        sb.append(String.valueOf((char) ('a' + i)).repeat(20000)).append('\n');
+      }
+      var list = read(sb.toString(), (byte) '\n');
+      assertThat(list).hasSize(3);
+      assertThat(list.get(0)).isEqualTo("a".repeat(20000));
+      assertThat(list.get(2)).isEqualTo("c".repeat(20000));
+    }
+
+    @Test
+    void should_read_many_args() {
+      var in = new InputStream() {
+        long n = 0;
+        final byte[] line = "path/to/file\n".getBytes(UTF_8);
+        @Override
+        public int read() {
+          if (n >= 1_000_000L * line.length) {
+            return -1;
+          }
+          return line[(int) (n++ % line.length)];
+        }
+      };
+      long count = 0;
+      var it = new ArgStream(in, (byte) '\n', false);
+      while (it.hasNext()) {
+        assertThat(it.next()).isEqualTo("path/to/file");
+        count++;
+      }
+      assertThat(count).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    void should_reject_options() {
+      var it = new ArgStream(input("a\n-\n--foo\nb"), (byte) '\n', false);
+      assertThat(it.next()).isEqualTo("a");
+      assertThat(it.next()).isEqualTo("-");
+      try {
+        it.next();
+        fail();
+      } catch (UncheckedInvalidOption e) {
+        assertThat(e.getCause()).isInstanceOf(OptionIsInArgStream.class);
+        assertThat(e.getCause().option()).isEqualTo("--foo");
+      }
+    }
+
+    @Test
+    void should_accept_options_after_end_of_options() {
+      assertThat(read("a\n--\n--foo\n--\n-b", (byte) '\n'))
+        .containsExactly("a", "--foo", "--", "-b");
+
+      var list = new ArrayList<String>();
+      new ArgStream(input("-a\n--"), (byte) '\n', true).forEachRemaining(list::add);
+      assertThat(list).containsExactly("-a", "--");
+    }
+
+    @Test
+    void should_throw_unchecked_io_exception() {
+      var in = new InputStream() {
+        @Override
+        public int read() throws IOException {
+          throw new IOException("broken");
+        }
+      };
+      try {
+        new ArgStream(in, (byte) '\n', false).hasNext();
+        fail();
+      } catch (UncheckedIOException e) {
+        assertThat(e.getCause().getMessage()).isEqualTo("broken");
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfCmd {
+    @Test
+    void should_parse_options_and_stream_args() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("n"), hasArg(true)),
+      };
+
+      try {
+        var cmd = new Cmd("app", "-n", "3", "x");
+        var stream = cmd.parseWithArgStream(
+          new CompiledSpec(optCfgs), input("a\nb\nc\n"), (byte) '\n');
+        assertThat(cmd.optArg("n").get()).isEqualTo("3");
+        assertThat(cmd.args()).containsExactly("x");
+        assertThat(stream.collect(Collectors.toList())).containsExactly("a", "b", "c");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_accept_options_in_stream_after_end_of_options() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("v")),
+      };
+
+      try {
+        var cmd = new Cmd("app", "-v", "--");
+        var stream = cmd.parseWithArgStream(
+          new CompiledSpec(optCfgs), input("-a\0--b\0"), (byte) 0);
+        assertThat(stream.collect(Collectors.toList())).containsExactly("-a", "--b");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_reject_options_in_stream() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("v")),
+      };
+
+      try {
+        var cmd = new Cmd("app", "-v");
+        var stream = cmd.parseWithArgStream(
+          new CompiledSpec(optCfgs), input("a\n-v\n"), (byte) '\n');
+        stream.forEach(a -> {});
+        fail();
+      } catch (UncheckedInvalidOption e) {
+        assertThat(e.getCause().option()).isEqualTo("-v");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,313 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.exceptions.OptionIsNotArray;
+import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+import com.github.sttk.cliargs.validators.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ArgVisitorTest {
+
+  static class Recorder implements ArgVisitor {
+    List<String> events = new ArrayList<>();
+
+    @Override
+    public void onOption(int nameIndex, CharSequence value) {
+      events.add("opt:" + nameIndex + "=" + value);
+    }
+
+    @Override
+    public void onPositional(CharSequence arg) {
+      events.add("arg:" + arg);
+    }
+
+    @Override
+    public void onEndOfOptions() {
+      events.add("--");
+    }
+
+    @Override
+    public void onSubCommand(CharSequence name) {
+      events.add("sub:" + name);
+    }
+
+    @Override
+    public void onAnyOption(String name, CharSequence value) {
+      events.add("any:" + name + "=" + value);
+    }
+  }
+
+  @Nested
+  class TestsOfVisitWith {
+    @Test
+    void should_visit_args_and_options_in_order() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(storeKey("fooBar"), names("f", "foo-bar")),
+        new OptCfg(names("baz", "z"), hasArg(true), isArray(true)),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "abc", "-f", "--baz=1", "-z", "2", "--", "-f", "def");
+        var visitor = new Recorder();
+        cmd.visitWith(spec, visitor);
+        assertThat(visitor.events).containsExactly(
+          "arg:abc", "opt:0=null", "opt:1=1", "opt:1=2", "--", "arg:-f", "arg:def");
+        assertThat(cmd.args()).isEmpty();
+        assertThat(cmd.hasOpt("fooBar")).isFalse();
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_pass_option_argument_as_view_of_command_line_argument() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+        new OptCfg(names("b"), hasArg(true)),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo=12345", "-b=xyz");
+        var values = new ArrayList<String>();
+        cmd.visitWith(spec, new ArgVisitor() {
+          @Override
+          public void onOption(int nameIndex, CharSequence value) {
+            assertThat(value.length()).isEqualTo(nameIndex == 0 ? 5 : 3);
+            assertThat(value.charAt(0)).isEqualTo(nameIndex == 0 ? '1' : 'x');
+            assertThat(value.subSequence(1, 3).toString()).isEqualTo(nameIndex == 0 ? "23" : "yz");
+            values.add(value.toString());
+          }
+          @Override
+          public void onPositional(CharSequence arg) {
+            fail(arg.toString());
+          }
+        });
+        assertThat(values).containsExactly("12345", "xyz");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_visit_defaults_of_options_not_given() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true), isArray(true), defaults("1", "2")),
+        new OptCfg(names("bar"), hasArg(true), defaults("B")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--bar", "X");
+        var visitor = new Recorder();
+        cmd.visitWith(spec, visitor);
+        assertThat(visitor.events).containsExactly("opt:1=X", "opt:0=1", "opt:0=2");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_visit_unconfigured_options_if_any_option_is_allowed() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+        new OptCfg(names("*")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo", "--bar=1", "-q");
+        var visitor = new Recorder();
+        cmd.visitWith(spec, visitor);
+        assertThat(visitor.events).containsExactly("opt:0=null", "any:bar=1", "any:q=null");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_first_exception_after_visiting_all() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+        new OptCfg(names("bar"), hasArg(true)),
+      };
+
+      var visitor = new Recorder();
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--baz", "--foo=1", "--foo=2", "--bar", "abc");
+        cmd.visitWith(spec, visitor);
+        fail();
+      } catch (UnconfiguredOption e) {
+        assertThat(e.option()).isEqualTo("baz");
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(visitor.events).containsExactly("opt:0=1", "opt:1=abc");
+    }
+
+    @Test
+    void should_throw_if_option_is_not_array() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo=1", "--foo=2");
+        cmd.visitWith(spec, new Recorder());
+        fail();
+      } catch (OptionIsNotArray e) {
+        assertThat(e.option()).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_option_needs_arg() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo");
+        cmd.visitWith(spec, new Recorder());
+        fail();
+      } catch (OptionNeedsArg e) {
+        assertThat(e.option()).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_validate_option_arguments() {
+      Validator validator = (storeKey, name, arg) -> {
+        if (! arg.equals("ok")) {
+          throw new OptionArgIsInvalid(storeKey, name, arg, "not ok", null);
+        }
+      };
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true), isArray(true), validator(validator)),
+      };
+
+      var visitor = new Recorder();
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo=ok", "--foo=ng");
+        cmd.visitWith(spec, visitor);
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.optArg).isEqualTo("ng");
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(visitor.events).containsExactly("opt:0=ok");
+    }
+
+    @Test
+    void should_throw_exception_from_visitor() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo", "abc");
+        cmd.visitWith(spec, new ArgVisitor() {
+          @Override
+          public void onOption(int nameIndex, CharSequence value) throws InvalidOption {
+            throw new UnconfiguredOption("foo");
+          }
+          @Override
+          public void onPositional(CharSequence arg) {}
+        });
+        fail();
+      } catch (UnconfiguredOption e) {
+        assertThat(e.option()).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfVisitUntilSubCmdWith {
+    @Test
+    void should_visit_until_sub_command() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+        new OptCfg(names("bar"), hasArg(true), defaults("B")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo", "sub", "--bar", "abc");
+        var visitor = new Recorder();
+        var subCmd = cmd.visitUntilSubCmdWith(spec, visitor);
+        assertThat(visitor.events).containsExactly("opt:0=null", "opt:1=B", "sub:sub");
+        assertThat(subCmd.get().name()).isEqualTo("sub");
+
+        subCmd.get().parse();
+        assertThat(subCmd.get().hasOpt("bar")).isTrue();
+        assertThat(subCmd.get().args()).containsExactly("abc");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_visit_sub_command_after_end_of_options() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--", "--foo", "-a");
+        var visitor = new Recorder();
+        var subCmd = cmd.visitUntilSubCmdWith(spec, visitor);
+        assertThat(visitor.events).containsExactly("--", "sub:--foo");
+
+        subCmd.get().parse();
+        assertThat(subCmd.get().args()).containsExactly("-a");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_return_empty_if_no_sub_command() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        var cmd = new Cmd("app", "--foo");
+        var visitor = new Recorder();
+        var subCmd = cmd.visitUntilSubCmdWith(spec, visitor);
+        assertThat(visitor.events).containsExactly("opt:0=null");
+        assertThat(subCmd).isEmpty();
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+}
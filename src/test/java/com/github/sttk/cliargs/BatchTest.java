@@ -0,0 +1,94 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class BatchTest {
+
+  static CompiledSpec spec() {
+    var optCfgs = new OptCfg[] {
+      new OptCfg(names("n"), hasArg(true)),
+      new OptCfg(names("v")),
+    };
+    try {
+      return new CompiledSpec(optCfgs);
+    } catch (Exception e) {
+      fail(e);
+      return null;
+    }
+  }
+
+  static List<List<String>> cmdLines(int count) {
+    var list = new ArrayList<List<String>>();
+    for (int i = 0; i < count; i++) {
+      switch (i % 3) {
+        case 0 -> list.add(List.of("/bin/job" + i, "-v", "-n", "" + i, "arg" + i));
+        case 1 -> list.add(List.of("job" + i, "--unknown", "-n=" + i));
+        default -> list.add(List.of("job" + i, "-n"));
+      }
+    }
+    return list;
+  }
+
+  static void assertItems(List<Batch.Item> items, int count) {
+    assertThat(items).hasSize(count);
+    for (int i = 0; i < count; i++) {
+      var item = items.get(i);
+      assertThat(item.cmd().name()).isEqualTo("job" + i);
+      switch (i % 3) {
+        case 0 -> {
+          assertThat(item.error()).isEmpty();
+          assertThat(item.cmd().hasOpt("v")).isTrue();
+          assertThat(item.cmd().optArg("n").get()).isEqualTo("" + i);
+          assertThat(item.cmd().args()).containsExactly("arg" + i);
+        }
+        case 1 -> {
+          assertThat(item.error().get()).isInstanceOf(UnconfiguredOption.class);
+          assertThat(item.cmd().optArg("n").get()).isEqualTo("" + i);
+        }
+        default -> {
+          assertThat(item.error().get()).isInstanceOf(OptionNeedsArg.class);
+        }
+      }
+    }
+  }
+
+  @Test
+  void should_parse_in_common_pool() {
+    var items = Batch.parseWith(spec(), cmdLines(1000));
+    assertItems(items, 1000);
+  }
+
+  @Test
+  void should_parse_with_parallelism() {
+    assertItems(Batch.parseWith(spec(), cmdLines(1000), 1), 1000);
+    assertItems(Batch.parseWith(spec(), cmdLines(1000), 4), 1000);
+  }
+
+  @Test
+  void should_parse_non_random_access_list() {
+    var items = Batch.parseWith(spec(), new LinkedList<>(cmdLines(300)), 2);
+    assertItems(items, 300);
+  }
+
+  @Test
+  void should_parse_empty_command_lines() {
+    assertThat(Batch.parseWith(spec(), List.of())).isEmpty();
+
+    var items = Batch.parseWith(spec(), List.of(List.of()));
+    assertThat(items.get(0).cmd().name()).isEqualTo("");
+    assertThat(items.get(0).error()).isEmpty();
+  }
+}
@@ -0,0 +1,269 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.ConfigHasDefaultsButHasNoArg;
+import com.github.sttk.cliargs.exceptions.ConfigIsArrayButHasNoArg;
+import com.github.sttk.cliargs.exceptions.ConfigIsNotArrayButHasSeparator;
+import com.github.sttk.cliargs.exceptions.OptionNameIsDuplicated;
+import com.github.sttk.cliargs.exceptions.StoreKeyIsDuplicated;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class CompiledSpecTest {
+
+  @Nested
+  class TestsOfConstructor {
+    @Test
+    void should_resolve_store_keys() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(storeKey("fooBar"), names("f", "foo")),
+        new OptCfg(names("", "baz")),
+        new OptCfg(storeKey("qux")),
+        new OptCfg(names("*")),
+        new OptCfg(),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        assertThat(spec.storeKeys).containsExactly("fooBar", "baz", "qux", null, null);
+        assertThat(spec.nameIndex.get("f")).isEqualTo(0);
+        assertThat(spec.nameIndex.get("foo")).isEqualTo(0);
+        assertThat(spec.nameIndex.get("baz")).isEqualTo(1);
+        assertThat(spec.nameIndex.get("qux")).isEqualTo(2);
+        assertThat(spec.nameIndex.get("fooBar")).isEqualTo(-1);
+        assertThat(spec.nameIndex.get("*")).isEqualTo(-1);
+        assertThat(spec.hasAnyOpt).isTrue();
+        assertThat(spec.optCfgs()).containsExactly(optCfgs);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_not_be_affected_by_modifying_the_source_array() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+        optCfgs[0] = new OptCfg(names("bar"));
+        assertThat(spec.optCfgs().get(0).names).containsExactly("foo");
+        assertThat(spec.cfgs[0].names).containsExactly("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_store_key_is_duplicated() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(storeKey("fooBar"), names("f", "foo")),
+        new OptCfg(storeKey("fooBar"), names("b", "bar")),
+      };
+
+      try {
+        new CompiledSpec(optCfgs);
+        fail();
+      } catch (StoreKeyIsDuplicated e) {
+        assertThat(e.storeKey).isEqualTo("fooBar");
+        assertThat(e.name).isEqualTo("b");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_option_name_is_duplicated() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("f", "foo")),
+        new OptCfg(names("b", "foo")),
+      };
+
+      try {
+        new CompiledSpec(optCfgs);
+        fail();
+      } catch (OptionNameIsDuplicated e) {
+        assertThat(e.storeKey).isEqualTo("b");
+        assertThat(e.option()).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_config_is_array_but_has_no_arg() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), isArray(true)),
+      };
+
+      try {
+        new CompiledSpec(optCfgs);
+        fail();
+      } catch (ConfigIsArrayButHasNoArg e) {
+        assertThat(e.storeKey).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_config_has_defaults_but_has_no_arg() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), defaults("x")),
+      };
+
+      try {
+        new CompiledSpec(optCfgs);
+        fail();
+      } catch (ConfigHasDefaultsButHasNoArg e) {
+        assertThat(e.storeKey).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_config_is_not_array_but_has_separator() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true), separator(",")),
+      };
+
+      try {
+        new CompiledSpec(optCfgs);
+        fail();
+      } catch (ConfigIsNotArrayButHasSeparator e) {
+        assertThat(e.storeKey).isEqualTo("foo");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfParsing {
+    @Test
+    void should_parse_with_compiled_spec() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(storeKey("fooBar"), names("f", "foo-bar")),
+        new OptCfg(names("baz", "z"), hasArg(true), isArray(true), defaults("1")),
+        new OptCfg(names("qux"), hasArg(true), defaults("Q")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+
+        var cmd = new Cmd("app", "-f", "--baz", "2", "-z=3", "abc");
+        cmd.parseWith(spec);
+        assertThat(cmd.args()).containsExactly("abc");
+        assertThat(cmd.hasOpt("fooBar")).isTrue();
+        assertThat(cmd.optArgs("baz").get()).containsExactly("2", "3");
+        assertThat(cmd.optArg("qux").get()).isEqualTo("Q");
+        assertThat(cmd.optCfgs()).isSameAs(spec.optCfgs());
+
+        cmd = new Cmd("app", "--qux", "X");
+        cmd.parseWith(spec);
+        assertThat(cmd.args()).isEmpty();
+        assertThat(cmd.hasOpt("fooBar")).isFalse();
+        assertThat(cmd.optArgs("baz").get()).containsExactly("1");
+        assertThat(cmd.optArg("qux").get()).isEqualTo("X");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_parse_errors_at_parsing() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      CompiledSpec spec = null;
+      try {
+        spec = new CompiledSpec(optCfgs);
+      } catch (Exception e) {
+        fail(e);
+      }
+
+      var cmd = new Cmd("app", "--bar", "abc");
+      try {
+        cmd.parseWith(spec);
+        fail();
+      } catch (UnconfiguredOption e) {
+        assertThat(e.option()).isEqualTo("bar");
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(cmd.args()).containsExactly("abc");
+      assertThat(cmd.optCfgs()).hasSize(1);
+    }
+
+    @Test
+    void should_parse_until_sub_command_with_compiled_spec() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+
+        var cmd = new Cmd("app", "--foo", "sub", "--bar");
+        var subCmd = cmd.parseUntilSubCmdWith(spec);
+        assertThat(cmd.hasOpt("foo")).isTrue();
+        assertThat(cmd.args()).isEmpty();
+        assertThat(subCmd.get().name()).isEqualTo("sub");
+
+        subCmd.get().parse();
+        assertThat(subCmd.get().hasOpt("bar")).isTrue();
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_be_shared_across_threads() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("n"), hasArg(true)),
+        new OptCfg(names("v")),
+      };
+
+      try {
+        var spec = new CompiledSpec(optCfgs);
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+          var futures = new ArrayList<Future<Cmd>>();
+          for (int i = 0; i < 100; i++) {
+            final var n = Integer.toString(i);
+            futures.add(executor.submit(() -> {
+              var cmd = new Cmd("app", "-v", "-n", n, "arg" + n);
+              cmd.parseWith(spec);
+              return cmd;
+            }));
+          }
+          for (int i = 0; i < 100; i++) {
+            var cmd = futures.get(i).get();
+            assertThat(cmd.hasOpt("v")).isTrue();
+            assertThat(cmd.optArg("n").get()).isEqualTo(Integer.toString(i));
+            assertThat(cmd.args()).containsExactly("arg" + i);
+          }
+        } finally {
+          executor.shutdown();
+        }
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class DoubleListTest {
+
+  @Test
+  void testOf() {
+    var list = DoubleList.of(3, 1, 2);
+    assertThat(list.size()).isEqualTo(3);
+    assertThat(list.isEmpty()).isFalse();
+    assertThat(list.get(0)).isEqualTo(3.0);
+    assertThat(list.get(2)).isEqualTo(2.0);
+    assertThat(list.toString()).isEqualTo("[3.0, 1.0, 2.0]");
+  }
+
+  @Test
+  void testOf_empty() {
+    var list = DoubleList.of();
+    assertThat(list.size()).isEqualTo(0);
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.toArray()).isEmpty();
+  }
+
+  @Test
+  void testGet_outOfRange() {
+    assertThatThrownBy(() -> DoubleList.of(1).get(1))
+      .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void testOf_copiesArray() {
+    var arr = new double[] { 1, 2 };
+    var list = DoubleList.of(arr);
+    arr[0] = 9;
+    assertThat(list.get(0)).isEqualTo(1.0);
+
+    var out = list.toArray();
+    out[1] = 9;
+    assertThat(list.get(1)).isEqualTo(2.0);
+  }
+
+  @Test
+  void testStream() {
+    assertThat(DoubleList.of(1, 2, 3).stream().sum()).isEqualTo(6.0);
+  }
+
+  @Test
+  void testEqualsAndHashCode() {
+    assertThat(DoubleList.of(1, 2)).isEqualTo(new DoubleList(new double[] { 1, 2 }));
+    assertThat(DoubleList.of(1, 2).hashCode()).isEqualTo(DoubleList.of(1, 2).hashCode());
+    assertThat(DoubleList.of(1, 2)).isNotEqualTo(DoubleList.of(2, 1));
+    assertThat(DoubleList.of(1)).isNotEqualTo(IntList.of(1));
+  }
+}
@@ -0,0 +1,164 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class IndexedResultTest {
+
+  static Parser parser(OptCfg ...optCfgs) {
+    try {
+      return new Parser(new CompiledSpec(optCfgs));
+    } catch (Exception e) {
+      fail(e);
+      return null;
+    }
+  }
+
+  static void assertSameAsParseResult(Parser parser, IndexedResult ir, List<String> names,
+    List<String> osArgs
+  ) throws InvalidOption {
+    var pr = parser.parse(osArgs);
+    assertThat(ir.args()).isEqualTo(pr.args());
+    for (var name : names) {
+      assertThat(ir.hasOpt(name)).as(name).isEqualTo(pr.hasOpt(name));
+      assertThat(ir.optArg(name)).as(name).isEqualTo(pr.optArg(name));
+      assertThat(ir.optArgs(name)).as(name).isEqualTo(pr.optArgs(name));
+    }
+    assertThat(ir.optCfgs()).isSameAs(pr.optCfgs());
+  }
+
+  @Test
+  void should_hold_positions_of_args() {
+    var parser = parser(
+      new OptCfg(names("foo", "f"), hasArg(true), isArray(true)),
+      new OptCfg(names("bar", "b")),
+      new OptCfg(names("baz"), hasArg(true), defaults("A", "B")),
+      new OptCfg(names("qux"), hasArg(true), defaults())
+    );
+    var osArgs = List.of("abc", "-f", "1", "--foo=2", "-bf=3", "--", "-x", "def");
+    try {
+      var r = parser.parseIndexed(osArgs);
+      assertThat(r.args()).containsExactly("abc", "-x", "def");
+      assertThat(r.argIndexOf(0)).isEqualTo(0);
+      assertThat(r.argIndexOf(1)).isEqualTo(6);
+      assertThat(r.argIndexOf(2)).isEqualTo(7);
+      assertThat(r.hasOpt("foo")).isTrue();
+      assertThat(r.optArg("foo").get()).isEqualTo("1");
+      assertThat(r.optArgs("foo").get()).containsExactly("1", "2", "3");
+      assertThat(r.hasOpt("bar")).isTrue();
+      assertThat(r.optArg("bar")).isEmpty();
+      assertThat(r.optArgs("bar").get()).isEmpty();
+      assertThat(r.optArgs("baz").get()).containsExactly("A", "B");
+      assertThat(r.hasOpt("qux")).isTrue();
+      assertThat(r.optArg("qux")).isEmpty();
+      assertThat(r.hasOpt("f")).isFalse();
+      assertThat(r.optArg("f")).isEmpty();
+      assertThat(r.optArgs("f")).isEmpty();
+      assertThat(r.toString()).isEqualTo(
+        "IndexedResult{args=[abc, -x, def], opts={foo=[1, 2, 3], bar=[], baz=[A, B], qux=[]}}");
+
+      assertSameAsParseResult(parser, r, List.of("foo", "bar", "baz", "qux", "f"), osArgs);
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_hold_positions_of_divided_option_args() {
+    var parser = parser(
+      new OptCfg(names("foo", "f"), hasArg(true), isArray(true), separator(","))
+    );
+    var osArgs = List.of("--foo=1,22,,333", "-f", "4", "-f=5,");
+    try {
+      var r = parser.parseIndexed(osArgs);
+      assertThat(r.optArgs("foo").get()).containsExactly("1", "22", "", "333", "4", "5", "");
+
+      assertSameAsParseResult(parser, r, List.of("foo"), osArgs);
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_hold_any_options() {
+    var parser = parser(
+      new OptCfg(names("foo"), hasArg(true)),
+      new OptCfg(names("*"))
+    );
+    var osArgs = List.of("--x=1", "-y", "--foo", "v", "--x", "-y=2", "--x=3", "a");
+    try {
+      var r = parser.parseIndexed(osArgs);
+      assertThat(r.optArgs("x").get()).containsExactly("3");
+      assertThat(r.optArgs("y").get()).containsExactly("2");
+      assertThat(r.optArg("foo").get()).isEqualTo("v");
+      assertThat(r.args()).containsExactly("a");
+      assertSameAsParseResult(parser, r, List.of("foo", "x", "y", "z"), osArgs);
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_hold_many_args() {
+    var parser = parser(new OptCfg(names("n"), hasArg(true), isArray(true)));
+    var osArgs = new ArrayList<String>();
+    for (int i = 0; i < 10000; i++) {
+      osArgs.add("-n=" + i);
+      osArgs.add("arg" + i);
+    }
+    try {
+      var r = parser.parseIndexed(osArgs);
+      assertThat(r.args()).hasSize(10000);
+      assertThat(r.args().get(9999)).isEqualTo("arg9999");
+      var values = r.optArgs("n").get();
+      assertThat(values).hasSize(10000);
+      assertThat(values.get(5000)).isEqualTo("5000");
+      assertSameAsParseResult(parser, r, List.of("n"), osArgs);
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_hold_args_in_list_without_random_access() {
+    var parser = parser(new OptCfg(names("n"), hasArg(true)));
+    try {
+      var r = parser.parseIndexed(new LinkedList<>(List.of("a", "-n", "1", "b")));
+      assertThat(r.args()).containsExactly("a", "b");
+      assertThat(r.optArg("n").get()).isEqualTo("1");
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_throw_and_be_reusable() {
+    var parser = parser(new OptCfg(names("n"), hasArg(true)));
+    try {
+      parser.parseIndexed(List.of("-n"));
+      fail();
+    } catch (OptionNeedsArg e) {
+      assertThat(e.option()).isEqualTo("n");
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+    try {
+      var r = parser.parseIndexed(List.of("-n", "1"));
+      assertThat(r.optArg("n").get()).isEqualTo("1");
+    } catch (InvalidOption e) {
+      fail(e);
+    }
+  }
+}
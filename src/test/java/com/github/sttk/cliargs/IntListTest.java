@@ -0,0 +1,59 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class IntListTest {
+
+  @Test
+  void testOf() {
+    var list = IntList.of(3, 1, 2);
+    assertThat(list.size()).isEqualTo(3);
+    assertThat(list.isEmpty()).isFalse();
+    assertThat(list.get(0)).isEqualTo(3);
+    assertThat(list.get(2)).isEqualTo(2);
+    assertThat(list.toString()).isEqualTo("[3, 1, 2]");
+  }
+
+  @Test
+  void testOf_empty() {
+    var list = IntList.of();
+    assertThat(list.size()).isEqualTo(0);
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.toArray()).isEmpty();
+  }
+
+  @Test
+  void testGet_outOfRange() {
+    assertThatThrownBy(() -> IntList.of(1).get(1))
+      .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void testOf_copiesArray() {
+    var arr = new int[] { 1, 2 };
+    var list = IntList.of(arr);
+    arr[0] = 9;
+    assertThat(list.get(0)).isEqualTo(1);
+
+    var out = list.toArray();
+    out[1] = 9;
+    assertThat(list.get(1)).isEqualTo(2);
+  }
+
+  @Test
+  void testStream() {
+    assertThat(IntList.of(1, 2, 3).stream().sum()).isEqualTo(6);
+  }
+
+  @Test
+  void testEqualsAndHashCode() {
+    assertThat(IntList.of(1, 2)).isEqualTo(new IntList(new int[] { 1, 2 }));
+    assertThat(IntList.of(1, 2).hashCode()).isEqualTo(IntList.of(1, 2).hashCode());
+    assertThat(IntList.of(1, 2)).isNotEqualTo(IntList.of(2, 1));
+    assertThat(IntList.of(1)).isNotEqualTo(LongList.of(1L));
+  }
+}
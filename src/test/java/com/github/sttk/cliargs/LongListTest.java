@@ -0,0 +1,59 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class LongListTest {
+
+  @Test
+  void testOf() {
+    var list = LongList.of(3, 1, 2);
+    assertThat(list.size()).isEqualTo(3);
+    assertThat(list.isEmpty()).isFalse();
+    assertThat(list.get(0)).isEqualTo(3L);
+    assertThat(list.get(2)).isEqualTo(2L);
+    assertThat(list.toString()).isEqualTo("[3, 1, 2]");
+  }
+
+  @Test
+  void testOf_empty() {
+    var list = LongList.of();
+    assertThat(list.size()).isEqualTo(0);
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.toArray()).isEmpty();
+  }
+
+  @Test
+  void testGet_outOfRange() {
+    assertThatThrownBy(() -> LongList.of(1).get(1))
+      .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void testOf_copiesArray() {
+    var arr = new long[] { 1, 2 };
+    var list = LongList.of(arr);
+    arr[0] = 9;
+    assertThat(list.get(0)).isEqualTo(1L);
+
+    var out = list.toArray();
+    out[1] = 9;
+    assertThat(list.get(1)).isEqualTo(2L);
+  }
+
+  @Test
+  void testStream() {
+    assertThat(LongList.of(1, 2, 3).stream().sum()).isEqualTo(6L);
+  }
+
+  @Test
+  void testEqualsAndHashCode() {
+    assertThat(LongList.of(1, 2)).isEqualTo(new LongList(new long[] { 1, 2 }));
+    assertThat(LongList.of(1, 2).hashCode()).isEqualTo(LongList.of(1, 2).hashCode());
+    assertThat(LongList.of(1, 2)).isNotEqualTo(LongList.of(2, 1));
+    assertThat(LongList.of(1)).isNotEqualTo(IntList.of(1));
+  }
+}
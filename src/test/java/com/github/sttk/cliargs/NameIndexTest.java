@@ -0,0 +1,87 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class NameIndexTest {
+
+  @Test
+  void should_find_nothing_if_empty() {
+    var index = new NameIndex(Map.of());
+    assertThat(index.get("")).isEqualTo(-1);
+    assertThat(index.get("foo")).isEqualTo(-1);
+  }
+
+  @Test
+  void should_find_names() {
+    var map = new HashMap<String, Integer>();
+    map.put("f", 0);
+    map.put("foo-bar", 0);
+    map.put("b", 1);
+    map.put("baz", 2);
+
+    var index = new NameIndex(map);
+    assertThat(index.get("f")).isEqualTo(0);
+    assertThat(index.get("foo-bar")).isEqualTo(0);
+    assertThat(index.get("b")).isEqualTo(1);
+    assertThat(index.get("baz")).isEqualTo(2);
+    assertThat(index.get("")).isEqualTo(-1);
+    assertThat(index.get("foo")).isEqualTo(-1);
+    assertThat(index.get("bazz")).isEqualTo(-1);
+    assertThat(index.get("F")).isEqualTo(-1);
+  }
+
+  @Test
+  void should_find_names_in_regions() {
+    var map = new HashMap<String, Integer>();
+    map.put("foo-bar", 0);
+    map.put("b", 1);
+
+    var index = new NameIndex(map);
+    assertThat(index.get("--foo-bar=123", 2, 9)).isEqualTo(0);
+    assertThat(index.get("--foo-bar=123", 2, 8)).isEqualTo(-1);
+    assertThat(index.get("--foo-bar=123", 2, 10)).isEqualTo(-1);
+    assertThat(index.get("-abc", 2, 3)).isEqualTo(1);
+    assertThat(index.get(new StringBuilder("-abc"), 2, 3)).isEqualTo(1);
+  }
+
+  @Test
+  void should_find_single_char_names() {
+    var map = new HashMap<String, Integer>();
+    map.put("v", 0);
+    map.put("x", 1);
+    map.put("\u00e9", 2);
+    map.put("xz", 3);
+
+    var index = new NameIndex(map);
+    assertThat(index.get("-vvxz", 1, 2)).isEqualTo(0);
+    assertThat(index.get("-vvxz", 2, 3)).isEqualTo(0);
+    assertThat(index.get("-vvxz", 3, 4)).isEqualTo(1);
+    assertThat(index.get("-vvxz", 4, 5)).isEqualTo(-1);
+    assertThat(index.get("-vvxz", 3, 5)).isEqualTo(3);
+    assertThat(index.get("-\u00e9", 1, 2)).isEqualTo(2);
+    assertThat(index.get("\u007f")).isEqualTo(-1);
+    assertThat(index.get("z")).isEqualTo(-1);
+  }
+
+  @Test
+  void should_find_many_names() {
+    var map = new HashMap<String, Integer>();
+    for (int i = 0; i < 5000; i++) {
+      map.put("option-" + i, i);
+    }
+
+    var index = new NameIndex(map);
+    for (int i = 0; i < 5000; i++) {
+      assertThat(index.get("--option-" + i + "=x", 2, 9 + Integer.toString(i).length()))
+        .isEqualTo(i);
+    }
+    assertThat(index.get("option-5000")).isEqualTo(-1);
+    assertThat(index.get("option-")).isEqualTo(-1);
+  }
+}
@@ -207,6 +207,18 @@ public class OptCfgTest {
       assertThat(cfg.argInHelp).isEqualTo("");
       assertThat(cfg.validator).isInstanceOf(LongValidator.class);
     }
+
+    @Test
+    void testOfSeparator() {
+      var cfg = new OptCfg(separator(","));
+      assertThat(cfg.storeKey).isEqualTo("");
+      assertThat(cfg.isArray).isFalse();
+      assertThat(cfg.validator).isNull();
+      assertThat(cfg.separator).isEqualTo(",");
+
+      cfg = new OptCfg(names("foo"));
+      assertThat(cfg.separator).isEqualTo("");
+    }
   }
 
   @Test
@@ -0,0 +1,196 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class OptKeyTest {
+
+  static CompiledSpec spec() {
+    var optCfgs = new OptCfg[] {
+      new OptCfg(names("port", "p"), hasArg(true)),
+      new OptCfg(names("size"), hasArg(true), isArray(true)),
+      new OptCfg(names("rate"), hasArg(true), defaults("0.5")),
+      new OptCfg(names("verbose", "v")),
+      new OptCfg(names("price"), hasArg(true)),
+    };
+    try {
+      return new CompiledSpec(optCfgs);
+    } catch (Exception e) {
+      fail(e);
+      return null;
+    }
+  }
+
+  @Nested
+  class TestsOfCreatingKeys {
+    @Test
+    void should_create_keys_by_store_keys() {
+      var spec = spec();
+      try {
+        assertThat(spec.intKey("port").storeKey()).isEqualTo("port");
+        assertThat(spec.longKey("size").storeKey()).isEqualTo("size");
+        assertThat(spec.doubleKey("rate").toString()).isEqualTo("OfDouble{storeKey=rate}");
+        assertThat(spec.key("verbose").toString()).isEqualTo("OptKey{storeKey=verbose}");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_store_key_is_not_configured() {
+      var spec = spec();
+      try {
+        spec.intKey("p");
+        fail();
+      } catch (UnconfiguredOption e) {
+        assertThat(e.option()).isEqualTo("p");
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfRetrievingValues {
+    @Test
+    void should_retrieve_typed_values() {
+      var spec = spec();
+      var cmd = new Cmd("app", "-p", "8080", "--size=1", "--size=2", "-v", "--price=12.30");
+      try {
+        var port = spec.intKey("port");
+        var size = spec.longKey("size");
+        var rate = spec.doubleKey("rate");
+        var verbose = spec.key("verbose");
+        var price = spec.key("price", (k, n, a) -> new BigDecimal(a));
+
+        cmd.parseWith(spec);
+
+        assertThat(cmd.optInt(port, -1)).isEqualTo(8080);
+        assertThat(cmd.optInt(port, -1)).isEqualTo(8080);
+        assertThat(cmd.optLong(size, -1L)).isEqualTo(1L);
+        assertThat(cmd.optDouble(rate, -1.0)).isEqualTo(0.5);
+        assertThat(cmd.hasOpt(verbose)).isTrue();
+        assertThat(cmd.optValue(verbose, "none")).isEqualTo("none");
+        assertThat(cmd.optValue(price, null)).isEqualTo(new BigDecimal("12.30"));
+        assertThat(cmd.optValue(price, null)).isSameAs(cmd.optValue(price, null));
+        assertThat(cmd.optValue(port, 0)).isEqualTo(8080);
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_return_else_value_if_option_is_not_specified() {
+      var spec = spec();
+      try {
+        var r = new Parser(spec).parse(List.of("abc"));
+        assertThat(r.hasOpt(spec.intKey("port"))).isFalse();
+        assertThat(r.optInt(spec.intKey("port"), 80)).isEqualTo(80);
+        assertThat(r.optLong(spec.longKey("size"), 3L)).isEqualTo(3L);
+        assertThat(r.optValue(spec.key("price"), "x")).isEqualTo("x");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_retrieve_same_option_in_different_types() {
+      var spec = spec();
+      try {
+        var r = new Parser(spec).parse(List.of("--port=12"));
+        var portInt = spec.intKey("port");
+        var portLong = spec.longKey("port");
+        var portDouble = spec.doubleKey("port");
+        var portString = spec.key("port");
+        for (int i = 0; i < 2; i++) {
+          assertThat(r.optInt(portInt, 0)).isEqualTo(12);
+          assertThat(r.optLong(portLong, 0L)).isEqualTo(12L);
+          assertThat(r.optDouble(portDouble, 0.0)).isEqualTo(12.0);
+          assertThat(r.optValue(portString, null)).isEqualTo("12");
+          assertThat(r.optValue(portInt, null)).isEqualTo(12);
+        }
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_value_cannot_be_converted() {
+      var spec = spec();
+      try {
+        var r = new Parser(spec).parse(List.of("--port=abc"));
+        r.optInt(spec.intKey("port"), 0);
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("port");
+        assertThat(e.optArg).isEqualTo("abc");
+        assertThat(e.details).isEqualTo("invalid Integer");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_key_is_of_other_spec() {
+      var spec = spec();
+      try {
+        var r = new Parser(spec).parse(List.of("--port=1"));
+        var key = spec().intKey("port");
+        assertThatThrownBy(() -> r.optInt(key, 0))
+          .isInstanceOf(IllegalArgumentException.class);
+
+        var cmd = new Cmd("app", "--port=1");
+        cmd.parse();
+        assertThatThrownBy(() -> cmd.optInt(spec.intKey("port"), 0))
+          .isInstanceOf(IllegalArgumentException.class);
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_retrieve_values_from_multiple_threads() throws Exception {
+      var spec = spec();
+      var r = new Parser(spec).parse(List.of("--port=443", "--size=9", "--rate=1.5"));
+      var port = spec.intKey("port");
+      var size = spec.longKey("size");
+      var rate = spec.doubleKey("rate");
+
+      var pool = Executors.newFixedThreadPool(4);
+      try {
+        var futures = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 16; i++) {
+          futures.add(pool.submit(() -> {
+            for (int j = 0; j < 1000; j++) {
+              if (r.optInt(port, 0) != 443 || r.optLong(size, 0L) != 9L ||
+                r.optDouble(rate, 0.0) != 1.5) {
+                return false;
+              }
+            }
+            return true;
+          }));
+        }
+        for (var f : futures) {
+          assertThat(f.get()).isTrue();
+        }
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+import com.github.sttk.cliargs.annotations.Opt;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class OptStoreBinderTest {
+
+  static class Options {
+    @Opt(cfg="foo-bar,f=abc", desc="The FooBar.", arg="<s>")
+    String fooBar;
+    @Opt(cfg="n=[1,2]")
+    int[] nums;
+    @Opt(cfg="d", sep=":")
+    double[] ds;
+    @Opt(cfg="i=-1")
+    Integer i;
+    @Opt(cfg="v")
+    boolean verbose;
+  }
+
+  static class NoBinderOptions {
+    @Opt(cfg="foo-bar,f=abc")
+    String fooBar;
+  }
+
+  @Test
+  void should_find_the_generated_binder() {
+    var binder = OptStoreBinder.find(Options.class);
+    assertThat(binder).isInstanceOf(OptStoreBinderTest_Options_OptStoreBinder.class);
+    assertThat(binder.optCfgsFor(NoBinderOptions.class)).isNull();
+
+    assertThat(OptStoreBinder.find(NoBinderOptions.class)).isNull();
+    assertThat(OptStoreBinder.find(String.class)).isNull();
+  }
+
+  @Test
+  void should_make_the_same_option_configurations_as_reflection() {
+    var cfgs = OptStoreBinding.of(Options.class).cfgs;
+    var expected = ParseFor.makeOptCfgsFor(Options.class);
+
+    assertThat(cfgs).hasSize(expected.length);
+    for (int i = 0; i < cfgs.length; i++) {
+      assertThat(cfgs[i].toString()).isEqualTo(expected[i].toString());
+      assertThat(cfgs[i].separator).isEqualTo(expected[i].separator);
+      assertThat(cfgs[i].type).isEqualTo(expected[i].type);
+      if (expected[i].validator == null) {
+        assertThat(cfgs[i].validator).isNull();
+      } else {
+        assertThat(cfgs[i].validator).isInstanceOf(expected[i].validator.getClass());
+      }
+    }
+  }
+
+  @Test
+  void should_parse_for_with_the_generated_binder() {
+    try {
+      var store = new Options();
+      var cmd = new Cmd("app", "-f", "xyz", "-d", "1.5:2.5", "-v");
+      cmd.parseFor(store);
+
+      assertThat(store.fooBar).isEqualTo("xyz");
+      assertThat(store.nums).containsExactly(1, 2);
+      assertThat(store.ds).containsExactly(1.5, 2.5);
+      assertThat(store.i).isEqualTo(-1);
+      assertThat(store.verbose).isTrue();
+      assertThat(cmd.optCfgs()).containsExactly(OptStoreBinding.of(Options.class).cfgs);
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+}
+
+// The binder which is generated by OptStoreBinderProcessor, except that it is not public here.
+/**
+ * Is the binder of {@link com.github.sttk.cliargs.OptStoreBinderTest.Options}, which is generated by
+ * {@code com.github.sttk.cliargs.processor.OptStoreBinderProcessor}.
+ */
+final class OptStoreBinderTest_Options_OptStoreBinder extends com.github.sttk.cliargs.OptStoreBinder<com.github.sttk.cliargs.OptStoreBinderTest.Options> {
+
+  /**
+   * Is the constructor which is called by {@code Cmd#parseFor}.
+   */
+  public OptStoreBinderTest_Options_OptStoreBinder() {
+    super(com.github.sttk.cliargs.OptStoreBinderTest.Options.class);
+  }
+
+  @Override
+  protected com.github.sttk.cliargs.OptCfg[] optCfgs() {
+    return new com.github.sttk.cliargs.OptCfg[] {
+      optCfg(0, "fooBar", java.lang.String.class,
+        java.util.List.of("foo-bar", "f"), java.util.List.of("abc"),
+        "The FooBar.", "<s>", ""),
+      optCfg(1, "nums", int[].class,
+        java.util.List.of("n"), java.util.List.of("1", "2"),
+        "", "", ""),
+      optCfg(2, "ds", double[].class,
+        java.util.List.of("d"), null,
+        "", "", ":"),
+      optCfg(3, "i", java.lang.Integer.class,
+        java.util.List.of("i"), java.util.List.of("-1"),
+        "", "", ""),
+      optCfg(4, "verbose", boolean.class,
+        java.util.List.of("v"), null,
+        "", "", ""),
+    };
+  }
+
+  @Override
+  protected void setFieldValue(com.github.sttk.cliargs.OptStoreBinderTest.Options optStore, int index,
+    java.util.List<java.lang.String> optArgs) throws java.lang.Exception
+  {
+    switch (index) {
+      case 0 -> {
+        if (! optArgs.isEmpty()) {
+          optStore.fooBar = optArgs.get(0);
+        }
+      }
+      case 1 -> {
+        var arr = new int[optArgs.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = java.lang.Integer.parseInt(optArgs.get(i));
+        }
+        optStore.nums = arr;
+      }
+      case 2 -> {
+        var arr = new double[optArgs.size()];
+        for (int i = 0; i < arr.length; i++) {
+          arr[i] = java.lang.Double.parseDouble(optArgs.get(i));
+        }
+        optStore.ds = arr;
+      }
+      case 3 -> {
+        if (! optArgs.isEmpty()) {
+          optStore.i = java.lang.Integer.valueOf(optArgs.get(0));
+        }
+      }
+      case 4 -> optStore.verbose = true;
+      default -> {}
+    }
+  }
+
+  @Override
+  protected void setConvertedValue(com.github.sttk.cliargs.OptStoreBinderTest.Options optStore, int index,
+    java.lang.Object value) throws java.lang.Exception
+  {
+    switch (index) {
+      case 0 -> optStore.fooBar = (java.lang.String) value;
+      case 1 -> optStore.nums = (int[]) value;
+      case 2 -> optStore.ds = (double[]) value;
+      case 3 -> optStore.i = (java.lang.Integer) value;
+      default -> throw new java.lang.IllegalArgumentException("index: " + index);
+    }
+  }
+}
@@ -9,11 +9,20 @@ import org.junit.jupiter.api.Test;
 import com.github.sttk.cliargs.annotations.Opt;
 import com.github.sttk.cliargs.exceptions.FailToSetOptionStoreField;
 import com.github.sttk.cliargs.exceptions.BadFieldType;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @SuppressWarnings("missing-explicit-ctor")
 public class ParseForTest {
@@ -2389,4 +2398,645 @@ public class ParseForTest {
       }
     }
   }
+
+  @Nested
+  class TestsPrimitiveArrays {
+    class PrimitiveArrayOptions {
+      @Opt(cfg="i")
+      int[] ints;
+      @Opt(cfg="l=[1,2]")
+      long[] longs;
+      @Opt(cfg="d")
+      double[] doubles;
+    }
+    class SeparatedOptions {
+      @Opt(cfg="ids", sep=",")
+      int[] ids;
+      @Opt(cfg="n", sep=";")
+      String[] names;
+      @Opt(cfg="w=10,20,30", sep=",")
+      long[] weights;
+      @Opt(cfg="t=/[x/y/]")
+      String[] tags;
+    }
+    class ConvertedOptions {
+      @Opt(cfg="r")
+      BigDecimal rate;
+      @Opt(cfg="n")
+      BigInteger[] nums;
+      @Opt(cfg="b")
+      Integer boxed;
+      @Opt(cfg="f")
+      float[] floats;
+      @Opt(cfg="s=[1,2]")
+      Short[] shorts;
+    }
+    class BadDefaultsOptions {
+      @Opt(cfg="i")
+      int[] ints;
+      @Opt(cfg="x=[a]")
+      int[] badDefaults;
+    }
+
+    @Test
+    void should_parse_many_values_into_primitive_arrays() {
+      var args = new String[200_000 + 2];
+      for (int i = 0; i < 100_000; i++) {
+        args[i * 2] = "-i";
+        args[i * 2 + 1] = Integer.toString(i - 50_000);
+      }
+      args[200_000] = "-d=0.25";
+      args[200_001] = "-d=-1e3";
+
+      var store = new PrimitiveArrayOptions();
+      var cmd = new Cmd("app", args);
+      try {
+        cmd.parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+
+      assertThat(store.ints).hasSize(100_000);
+      assertThat(store.ints[0]).isEqualTo(-50_000);
+      assertThat(store.ints[99_999]).isEqualTo(49_999);
+      assertThat(store.longs).containsExactly(1L, 2L);
+      assertThat(store.doubles).containsExactly(0.25, -1000.0);
+
+      assertThat(cmd.optArgs("ints").get()).hasSize(100_000);
+      assertThat(cmd.optArg("ints").get()).isEqualTo("-50000");
+      assertThat(cmd.optArgs("longs").get()).containsExactly("1", "2");
+      assertThat(cmd.optArgs("doubles").get()).containsExactly("0.25", "-1e3");
+    }
+
+    @Test
+    void should_keep_option_arguments_as_they_are_given() {
+      var store = new SeparatedOptions();
+      var cmd = new Cmd("app", "--ids=007,+8", "--ids", "09");
+      try {
+        cmd.parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+
+      assertThat(store.ids).containsExactly(7, 8, 9);
+      assertThat(cmd.optArgs("ids").get()).containsExactly("007", "+8", "09");
+      assertThat(cmd.optArg("ids").get()).isSameAs(cmd.optArgs("ids").get().get(0));
+      assertThat(store.weights).containsExactly(10L, 20L, 30L);
+      assertThat(cmd.optArgs("weights").get()).containsExactly("10", "20", "30");
+
+      var store2 = new PrimitiveArrayOptions();
+      var cmd2 = new Cmd("app", "-d=1", "-d", "2.50");
+      try {
+        cmd2.parseFor(store2);
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(store2.doubles).containsExactly(1.0, 2.5);
+      assertThat(cmd2.optArgs("doubles").get()).containsExactly("1", "2.50");
+    }
+
+    @Test
+    void should_read_option_arguments_from_multiple_threads() throws Exception {
+      var store = new SeparatedOptions();
+      var cmd = new Cmd("app", "--ids=1,2,3", "--ids", "04,5");
+      cmd.parseFor(store);
+      var r = cmd.result();
+
+      var pool = Executors.newFixedThreadPool(4);
+      try {
+        var futures = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 16; i++) {
+          futures.add(pool.submit(() -> {
+            for (int j = 0; j < 1000; j++) {
+              if (! r.optArgs("ids").get().equals(List.of("1", "2", "3", "04", "5"))) {
+                return false;
+              }
+            }
+            return true;
+          }));
+        }
+        for (var f : futures) {
+          assertThat(f.get()).isTrue();
+        }
+      } finally {
+        pool.shutdown();
+      }
+      assertThat(r.opts().get("ids")).isUnmodifiable();
+    }
+
+    @Test
+    void should_throw_if_value_is_invalid() {
+      var store = new PrimitiveArrayOptions();
+      var cmd = new Cmd("app", "-i", "1", "-i", "x");
+      try {
+        cmd.parseFor(store);
+        fail();
+      } catch (com.github.sttk.cliargs.exceptions.OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("ints");
+        assertThat(e.optArg).isEqualTo("x");
+        assertThat(e.option).isEqualTo("i");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_divide_values_by_separator() {
+      var store = new SeparatedOptions();
+      var cmd = new Cmd("app", "--ids=1,2", "--ids", "3", "-n", "a;b;;c");
+      try {
+        cmd.parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(store.ids).containsExactly(1, 2, 3);
+      assertThat(store.names).containsExactly("a", "b", "", "c");
+      assertThat(store.weights).containsExactly(10L, 20L, 30L);
+      assertThat(store.tags).containsExactly("x", "y");
+      assertThat(cmd.optCfgs().get(0).separator).isEqualTo(",");
+    }
+
+    @Test
+    void should_set_values_converted_while_parsing() {
+      var store = new ConvertedOptions();
+      var cmd = new Cmd("app", "-r", "1e3", "-n", "12345678901234567890", "-n", "-1",
+        "-b", "7", "-f", "0.5", "-f", "2");
+      try {
+        cmd.parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(store.rate).isEqualTo(new BigDecimal("1e3"));
+      assertThat(store.nums).containsExactly(
+        new BigInteger("12345678901234567890"), new BigInteger("-1"));
+      assertThat(store.boxed).isEqualTo(7);
+      assertThat(store.floats).containsExactly(0.5f, 2.0f);
+      assertThat(store.shorts).containsExactly((short) 1, (short) 2);
+      assertThat(cmd.optArg("rate").get()).isEqualTo("1e3");
+      assertThat(cmd.optArgs("floats").get()).containsExactly("0.5", "2");
+
+      cmd = new Cmd("app", "-r", "1e3", "-f", "0.5", "-f", "x");
+      try {
+        cmd.parseFor(new ConvertedOptions());
+        fail();
+      } catch (com.github.sttk.cliargs.exceptions.OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("floats");
+        assertThat(e.option).isEqualTo("f");
+        assertThat(e.optArg).isEqualTo("x");
+        assertThat(e.details).isEqualTo("invalid Float");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_default_is_invalid() {
+      var store = new BadDefaultsOptions();
+      var cmd = new Cmd("app", "-i", "1");
+      try {
+        cmd.parseFor(store);
+        fail();
+      } catch (FailToSetOptionStoreField e) {
+        assertThat(e.field).isEqualTo("badDefaults");
+        assertThat(e.optArgs).containsExactly("a");
+        assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsBindingCache {
+    class CachedOptions {
+      @Opt(cfg="foo-bar,f")
+      String fooBar;
+      @Opt(cfg="n=[1,2]")
+      int[] nums;
+    }
+
+    @Test
+    void should_make_option_configurations_once_per_class() {
+      var binding = OptStoreBinding.of(CachedOptions.class);
+      assertThat(OptStoreBinding.of(CachedOptions.class)).isSameAs(binding);
+      assertThat(binding.spec).isNotNull();
+
+      var cfgs = makeOptCfgsFor(new CachedOptions());
+      assertThat(cfgs).isNotSameAs(binding.cfgs).containsExactly(binding.cfgs);
+    }
+
+    @Test
+    void should_parse_for_new_stores_with_cached_configurations() {
+      try {
+        var store1 = new CachedOptions();
+        var cmd1 = new Cmd("app", "-f", "x", "-n", "3");
+        cmd1.parseFor(store1);
+
+        var store2 = new CachedOptions();
+        var cmd2 = new Cmd("app", "--foo-bar=y");
+        cmd2.parseFor(store2);
+
+        assertThat(store1.fooBar).isEqualTo("x");
+        assertThat(store1.nums).containsExactly(3);
+        assertThat(store2.fooBar).isEqualTo("y");
+        assertThat(store2.nums).containsExactly(1, 2);
+        assertThat(cmd2.optCfgs()).isSameAs(cmd1.optCfgs());
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsFieldBinder {
+    class BoundOptions {
+      @Opt(cfg="b")
+      private final byte b = 0;
+      @Opt(cfg="s")
+      private short s;
+      @Opt(cfg="f")
+      private float f;
+      @Opt(cfg="bb=[1,2]")
+      private Byte[] bb;
+      @Opt(cfg="ff")
+      private float[] ff;
+      @Opt(cfg="flag")
+      private Boolean flag;
+      @Opt(cfg="c=9")
+      static int c;
+    }
+
+    class BadDefaultOptions {
+      @Opt(cfg="s=99999")
+      private short s;
+    }
+
+    @Test
+    void should_set_private_and_final_fields_with_method_handles() {
+      try {
+        var store = new BoundOptions();
+        var cmd = new Cmd("app", "-b", "7", "-s", "-3", "-f", "1.5", "--ff", "2.5", "--flag");
+        cmd.parseFor(store);
+
+        var fld = BoundOptions.class.getDeclaredField("b");
+        fld.setAccessible(true);
+        assertThat(fld.get(store)).isEqualTo((byte) 7);
+        assertThat(store.s).isEqualTo((short) -3);
+        assertThat(store.f).isEqualTo(1.5f);
+        assertThat(store.bb).containsExactly((byte) 1, (byte) 2);
+        assertThat(store.ff).containsExactly(2.5f);
+        assertThat(store.flag).isTrue();
+        assertThat(BoundOptions.c).isEqualTo(9);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_the_same_exception_as_reflection() {
+      var store = new BadDefaultOptions();
+      var cmd = new Cmd("app");
+      try {
+        cmd.parseFor(store);
+        fail();
+      } catch (FailToSetOptionStoreField e) {
+        assertThat(e.field).isEqualTo("s");
+        assertThat(e.type).isEqualTo(short.class);
+        assertThat(e.optArgs).containsExactly("99999");
+        assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsRecords {
+    record Config(
+      @Opt(cfg="host,h=localhost", desc="The host name.")
+      String host,
+      @Opt(cfg="port,p=8080")
+      int port,
+      @Opt(cfg="id", sep=",")
+      int[] ids,
+      @Opt(cfg="v")
+      boolean verbose,
+      @Opt(cfg="price")
+      BigDecimal price,
+      @Opt(cfg="ratio")
+      double ratio
+    ) {}
+
+    record Checked(
+      @Opt(cfg="n")
+      int n
+    ) {
+      Checked {
+        if (n < 0) {
+          throw new IllegalArgumentException("n < 0");
+        }
+      }
+    }
+
+    record BadDefault(
+      @Opt(cfg="n=x")
+      int n
+    ) {}
+
+    @Test
+    void should_create_a_record_with_option_values() {
+      try {
+        var cmd = new Cmd("app", "-p", "443", "--id=1,2", "--id", "3", "-v", "--price=1.5", "x");
+        var config = cmd.parseFor(Config.class);
+
+        assertThat(config.host()).isEqualTo("localhost");
+        assertThat(config.port()).isEqualTo(443);
+        assertThat(config.ids()).containsExactly(1, 2, 3);
+        assertThat(config.verbose()).isTrue();
+        assertThat(config.price()).isEqualTo(new BigDecimal("1.5"));
+        assertThat(config.ratio()).isEqualTo(0.0);
+        assertThat(cmd.args()).containsExactly("x");
+        assertThat(cmd.optCfgs()).hasSize(6);
+        assertThat(cmd.optCfgs().get(0).names).containsExactly("host", "h");
+        assertThat(cmd.optCfgs().get(0).desc).isEqualTo("The host name.");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_create_a_record_with_default_values_of_types() {
+      try {
+        var config = new Cmd("app").parseFor(Config.class);
+
+        assertThat(config.host()).isEqualTo("localhost");
+        assertThat(config.port()).isEqualTo(8080);
+        assertThat(config.ids()).isNull();
+        assertThat(config.verbose()).isFalse();
+        assertThat(config.price()).isNull();
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_the_exception_of_the_canonical_constructor() {
+      try {
+        new Cmd("app", "-n", "-1").parseFor(Checked.class);
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertThat(e.getMessage()).isEqualTo("n < 0");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_if_failing_to_convert_a_default_value() {
+      try {
+        new Cmd("app").parseFor(BadDefault.class);
+        fail();
+      } catch (FailToSetOptionStoreField e) {
+        assertThat(e.field).isEqualTo("n");
+        assertThat(e.type).isEqualTo(int.class);
+        assertThat(e.getCause()).isInstanceOf(NumberFormatException.class);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsConverters {
+    enum Level { LOW, HIGH }
+
+    public record Size(long bytes) {
+      public static Size of(String s) {
+        if (s.endsWith("k")) {
+          return new Size(Long.parseLong(s.substring(0, s.length() - 1)) * 1024);
+        }
+        return new Size(Long.parseLong(s));
+      }
+    }
+
+    class Options {
+      @Opt(cfg="dir=/tmp")
+      Path dir;
+      @Opt(cfg="timeout=PT30S")
+      Duration timeout;
+      @Opt(cfg="id")
+      UUID id;
+      @Opt(cfg="level=LOW")
+      Level level;
+      @Opt(cfg="size")
+      Size size;
+      @Opt(cfg="path=[a,b]")
+      Path[] paths;
+    }
+
+    class StaticConverterOptions {
+      @Opt(cfg="timeout")
+      static Duration timeout;
+    }
+
+    record Config(
+      @Opt(cfg="level=HIGH")
+      Level level,
+      @Opt(cfg="size")
+      Size[] sizes
+    ) {}
+
+    @Test
+    void should_set_values_of_types_with_static_factories() {
+      var uuid = UUID.randomUUID();
+      var store = new Options();
+      try {
+        var cmd = new Cmd("app", "--timeout=PT1M", "--id", uuid.toString(), "--level=HIGH",
+          "--size=2k");
+        cmd.parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(store.dir).isEqualTo(Path.of("/tmp"));
+      assertThat(store.timeout).isEqualTo(Duration.ofMinutes(1));
+      assertThat(store.id).isEqualTo(uuid);
+      assertThat(store.level).isEqualTo(Level.HIGH);
+      assertThat(store.size).isEqualTo(new Size(2048));
+      assertThat(store.paths).containsExactly(Path.of("a"), Path.of("b"));
+    }
+
+    @Test
+    void should_set_arrays_of_types_with_static_factories() {
+      try {
+        var config = new Cmd("app", "--size=1", "--size=1k").parseFor(Config.class);
+        assertThat(config.level()).isEqualTo(Level.HIGH);
+        assertThat(config.sizes()).containsExactly(new Size(1), new Size(1024));
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_exception_if_option_arg_is_invalid() {
+      try {
+        new Cmd("app", "--level=MIDDLE").parseFor(new Options());
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("level");
+        assertThat(e.option).isEqualTo("level");
+        assertThat(e.optArg).isEqualTo("MIDDLE");
+        assertThat(e.details).isEqualTo("invalid Level");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_set_values_with_the_converter_of_a_static_field() {
+      var opts = new HashMap<String, List<String>>();
+      opts.put("timeout", List.of("PT2S"));
+      try {
+        ParseFor.setOptionStoreFieldValues(new StaticConverterOptions(),
+          makeOptCfgsFor(new StaticConverterOptions()), opts);
+        assertThat(StaticConverterOptions.timeout).isEqualTo(Duration.ofSeconds(2));
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsCollections {
+    class Options {
+      @Opt(cfg="id", sep=",")
+      List<Integer> ids;
+      @Opt(cfg="tag=[a,b,a]")
+      Set<String> tags;
+      @Opt(cfg="path")
+      Collection<Path> paths;
+      @Opt(cfg="count=[1,2]")
+      IntList counts;
+      @Opt(cfg="size")
+      LongList sizes;
+      @Opt(cfg="ratio", sep=",")
+      DoubleList ratios;
+      @Opt(cfg="name")
+      @SuppressWarnings("rawtypes")
+      List names;
+    }
+
+    class BadOptions {
+      @Opt(cfg="date")
+      List<Date> dates;
+    }
+
+    class StaticOptions {
+      @Opt(cfg="n=[3,4]")
+      static IntList n;
+    }
+
+    record Config(
+      @Opt(cfg="port=[80,443]")
+      IntList ports,
+      @Opt(cfg="timeout")
+      List<Duration> timeouts
+    ) {}
+
+    @Test
+    void should_set_collections_and_primitive_lists() {
+      var store = new Options();
+      try {
+        var cmd = new Cmd("app", "--id=1,2", "--id", "3", "--path=a", "--path=b", "--size=5",
+          "--ratio=0.5,1.5", "--name=x");
+        cmd.parseFor(store);
+
+        assertThat(cmd.optCfgs().get(0).isArray).isTrue();
+        assertThat(cmd.optCfgs().get(3).isArray).isTrue();
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(store.ids).containsExactly(1, 2, 3);
+      assertThat(store.tags).containsExactly("a", "b");
+      assertThat(store.paths).containsExactly(Path.of("a"), Path.of("b"));
+      assertThat(store.counts).isEqualTo(IntList.of(1, 2));
+      assertThat(store.sizes).isEqualTo(LongList.of(5L));
+      assertThat(store.ratios).isEqualTo(DoubleList.of(0.5, 1.5));
+      assertThat(store.names).containsExactly("x");
+    }
+
+    @Test
+    void should_set_unmodifiable_collections() {
+      var store = new Options();
+      try {
+        new Cmd("app", "--id=1").parseFor(store);
+      } catch (Exception e) {
+        fail(e);
+      }
+      try {
+        store.ids.add(2);
+        fail();
+      } catch (UnsupportedOperationException e) {
+        assertThat(store.ids).containsExactly(1);
+      }
+    }
+
+    @Test
+    void should_throw_exception_if_an_element_is_invalid() {
+      try {
+        new Cmd("app", "--id=1,x").parseFor(new Options());
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("ids");
+        assertThat(e.optArg).isEqualTo("x");
+        assertThat(e.details).isEqualTo("invalid Integer");
+      } catch (Exception e) {
+        fail(e);
+      }
+
+      try {
+        new Cmd("app", "--count=y").parseFor(new Options());
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("counts");
+        assertThat(e.optArg).isEqualTo("y");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_throw_exception_if_element_type_is_not_supported() {
+      try {
+        new Cmd("app", "--date=2024-01-02").parseFor(new BadOptions());
+        fail();
+      } catch (FailToSetOptionStoreField e) {
+        assertThat(e.field).isEqualTo("dates");
+        assertThat(e.type).isEqualTo(List.class);
+        assertThat(e.getCause()).isInstanceOf(BadFieldType.class);
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_set_a_static_primitive_list() {
+      try {
+        new Cmd("app").parseFor(new StaticOptions());
+        assertThat(StaticOptions.n).isEqualTo(IntList.of(3, 4));
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_create_a_record_with_collections() {
+      try {
+        var config = new Cmd("app", "--timeout=PT1S").parseFor(Config.class);
+        assertThat(config.ports()).isEqualTo(IntList.of(80, 443));
+        assertThat(config.timeouts()).containsExactly(Duration.ofSeconds(1));
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+  }
 }
@@ -0,0 +1,226 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ParseResultTest {
+
+  @Test
+  void should_be_empty_before_parsing() {
+    var cmd = new Cmd("app", "--foo");
+    assertThat(cmd.result()).isSameAs(ParseResult.EMPTY);
+    assertThat(cmd.result().args()).isEmpty();
+    assertThat(cmd.result().hasOpt("foo")).isFalse();
+    assertThat(cmd.result().optCfgs()).isEmpty();
+  }
+
+  @Test
+  void should_hold_results_of_parsing() {
+    var optCfgs = new OptCfg[] {
+      new OptCfg(names("foo"), hasArg(true), isArray(true)),
+      new OptCfg(names("bar")),
+      new OptCfg(names("baz"), hasArg(true), defaults("B")),
+    };
+
+    var cmd = new Cmd("app", "--foo=1", "abc", "--bar", "--foo", "2", "--foo=3");
+    try {
+      cmd.parseWith(optCfgs);
+    } catch (Exception e) {
+      fail(e);
+    }
+
+    var result = cmd.result();
+    assertThat(result.args()).containsExactly("abc");
+    assertThat(result.optArgs("foo").get()).containsExactly("1", "2", "3");
+    assertThat(result.optArg("foo").get()).isEqualTo("1");
+    assertThat(result.hasOpt("bar")).isTrue();
+    assertThat(result.optArgs("bar").get()).isEmpty();
+    assertThat(result.optArg("bar")).isEmpty();
+    assertThat(result.optArg("baz").get()).isEqualTo("B");
+    assertThat(result.optArgs("qux")).isEmpty();
+    assertThat(result.optCfgs()).containsExactly(optCfgs);
+    assertThat(result.toString())
+      .startsWith("ParseResult{args=[abc], opts={")
+      .contains("foo=[1, 2, 3]");
+  }
+
+  @Test
+  void should_be_unmodifiable() {
+    var cmd = new Cmd("app", "-a=1", "-a=2", "-b=3", "-c", "abc");
+    try {
+      cmd.parse();
+    } catch (Exception e) {
+      fail(e);
+    }
+
+    var result = cmd.result();
+    try {
+      result.args().add("x");
+      fail();
+    } catch (UnsupportedOperationException e) {}
+    try {
+      result.optArgs("a").get().add("x");
+      fail();
+    } catch (UnsupportedOperationException e) {}
+    try {
+      result.optArgs("b").get().add("x");
+      fail();
+    } catch (UnsupportedOperationException e) {}
+    try {
+      result.optArgs("c").get().add("x");
+      fail();
+    } catch (UnsupportedOperationException e) {}
+    try {
+      result.opts().put("d", List.of());
+      fail();
+    } catch (UnsupportedOperationException e) {}
+
+    assertThat(result.optArgs("a").get()).containsExactly("1", "2");
+    assertThat(result.optArgs("b").get()).containsExactly("3");
+  }
+
+  @Test
+  void should_not_be_affected_by_reparsing() {
+    var cmd = new Cmd("app", "-a", "abc");
+    try {
+      cmd.parse();
+      var result = cmd.result();
+      cmd.parseWith(new OptCfg[] { new OptCfg(names("*")) });
+      assertThat(cmd.result()).isNotSameAs(result);
+      assertThat(result.hasOpt("a")).isTrue();
+      assertThat(result.args()).containsExactly("abc");
+      assertThat(result.optCfgs()).isEmpty();
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_add_opt_args() {
+    var opts = new HashMap<String, List<String>>();
+    ParseResult.addOptArg(opts, "a", "1");
+    assertThat(opts.get("a")).containsExactly("1");
+    ParseResult.addOptArg(opts, "a", "2");
+    ParseResult.addOptArg(opts, "a", "3");
+    assertThat(opts.get("a")).isInstanceOf(ArrayList.class).containsExactly("1", "2", "3");
+
+    opts.put("b", List.of());
+    ParseResult.addOptArg(opts, "b", "1");
+    assertThat(opts.get("b")).containsExactly("1");
+
+    var result = new ParseResult(List.of(), opts, List.of());
+    assertThat(result.optArgs("a").get()).isNotInstanceOf(ArrayList.class);
+  }
+
+  @Test
+  void should_retrieve_typed_values_by_names() {
+    var optCfgs = new OptCfg[] {
+      new OptCfg(names("port", "p"), hasArg(true)),
+      new OptCfg(names("size"), hasArg(true), isArray(true)),
+      new OptCfg(names("rate"), hasArg(true), defaults("0.5")),
+      new OptCfg(names("verbose", "v")),
+      new OptCfg(names("dry-run"), hasArg(true)),
+      new OptCfg(storeKey("*")),
+    };
+
+    var cmd = new Cmd("app", "-p", "8080", "--size=1", "--size=2", "-v", "--dry-run=FALSE",
+      "--price=12.30", "--bad=x");
+    try {
+      cmd.parseWith(optCfgs);
+
+      assertThat(cmd.optInt("port", 0)).isEqualTo(8080);
+      assertThat(cmd.optInt("port", 0)).isEqualTo(8080);
+      assertThat(cmd.optLong("port", 0L)).isEqualTo(8080L);
+      assertThat(cmd.optLong("size", 0L)).isEqualTo(1L);
+      assertThat(cmd.optDouble("rate", 0.0)).isEqualTo(0.5);
+      assertThat(cmd.optBoolean("verbose", false)).isTrue();
+      assertThat(cmd.optBoolean("dry-run", true)).isFalse();
+      assertThat(cmd.optBoolean("quiet", true)).isTrue();
+      assertThat(cmd.optBigDecimal("price", null)).isEqualTo(new java.math.BigDecimal("12.30"));
+      assertThat(cmd.optBigDecimal("price", null))
+        .isSameAs(cmd.optBigDecimal("price", null));
+      assertThat(cmd.optInt("verbose", -1)).isEqualTo(-1);
+      assertThat(cmd.optInt("unknown", -1)).isEqualTo(-1);
+
+      var sizes = cmd.optLongs("size", null);
+      assertThat(sizes).containsExactly(1L, 2L);
+      sizes[0] = 9L;
+      assertThat(cmd.optLongs("size", null)).containsExactly(1L, 2L);
+      assertThat(cmd.optInts("size", null)).containsExactly(1, 2);
+      assertThat(cmd.optDoubles("rate", null)).containsExactly(0.5);
+      assertThat(cmd.optInts("verbose", null)).isEmpty();
+      assertThat(cmd.optInts("unknown", new int[]{3})).containsExactly(3);
+    } catch (Exception e) {
+      fail(e);
+    }
+
+    try {
+      cmd.optInt("bad", 0);
+      fail();
+    } catch (com.github.sttk.cliargs.exceptions.OptionArgIsInvalid e) {
+      assertThat(e.storeKey).isEqualTo("bad");
+      assertThat(e.optArg).isEqualTo("x");
+      assertThat(e.details).isEqualTo("invalid Integer");
+    }
+
+    try {
+      cmd.optBoolean("port", false);
+      fail();
+    } catch (com.github.sttk.cliargs.exceptions.OptionArgIsInvalid e) {
+      assertThat(e.storeKey).isEqualTo("port");
+      assertThat(e.details).isEqualTo("invalid Boolean");
+    }
+  }
+
+  @Test
+  void should_retrieve_typed_values_by_names_without_configurations() {
+    var cmd = new Cmd("app", "--port=443", "--size=9");
+    try {
+      cmd.parse();
+      assertThat(cmd.optInt("port", 0)).isEqualTo(443);
+      assertThat(cmd.optLongs("size", null)).containsExactly(9L);
+      assertThat(cmd.optDouble("rate", 1.5)).isEqualTo(1.5);
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void should_retrieve_typed_values_by_names_from_multiple_threads() throws Exception {
+    var cmd = new Cmd("app", "--port=443", "--size=9", "--rate=1.5", "-v");
+    cmd.parse();
+    var r = cmd.result();
+
+    var pool = Executors.newFixedThreadPool(4);
+    try {
+      var futures = new ArrayList<Future<Boolean>>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(pool.submit(() -> {
+          for (int j = 0; j < 1000; j++) {
+            if (r.optInt("port", 0) != 443 || r.optLongs("size", null)[0] != 9L ||
+              r.optDouble("rate", 0.0) != 1.5 || ! r.optBoolean("v", false)) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (var f : futures) {
+        assertThat(f.get()).isTrue();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
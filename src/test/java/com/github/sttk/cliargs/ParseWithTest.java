@@ -17,6 +17,8 @@ import com.github.sttk.cliargs.exceptions.OptionIsNotArray;
 import com.github.sttk.cliargs.exceptions.ConfigHasDefaultsButHasNoArg;
 import com.github.sttk.cliargs.exceptions.OptionNameIsDuplicated;
 import com.github.sttk.cliargs.exceptions.StoreKeyIsDuplicated;
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+import com.github.sttk.cliargs.validators.IntegerValidator;
 
 @SuppressWarnings("missing-explicit-ctor")
 public class ParseWithTest {
@@ -1566,6 +1568,39 @@ public class ParseWithTest {
       assertThat(cmd.optCfgs().get(1).desc).isEqualTo("");
       assertThat(cmd.optCfgs().get(1).argInHelp).isEqualTo("");
     }
+
+    @Test
+    void divideOptArgsBySeparator() {
+      var optCfgs = new OptCfg[]{
+        new OptCfg(names("ids", "i"), hasArg(true), isArray(true), separator(","),
+          validator(new IntegerValidator())),
+        new OptCfg(names("path"), hasArg(true), isArray(true), separator(":")),
+      };
+
+      var cmd = new Cmd("app", "--ids=1,2,3", "-i", "4", "--path", "/a:/b", "abc");
+      try {
+        cmd.parseWith(optCfgs);
+      } catch (Exception e) {
+        fail(e);
+      }
+
+      assertThat(cmd.args()).containsExactly("abc");
+      assertThat(cmd.optArgs("ids").get()).containsExactly("1", "2", "3", "4");
+      assertThat(cmd.optArgs("path").get()).containsExactly("/a", "/b");
+      assertThat(cmd.optCfgs().get(0).separator).isEqualTo(",");
+
+      cmd = new Cmd("app", "--ids=1,x,3");
+      try {
+        cmd.parseWith(optCfgs);
+        fail();
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("ids");
+        assertThat(e.option).isEqualTo("ids");
+        assertThat(e.optArg).isEqualTo("x");
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
   }
 
   @Nested
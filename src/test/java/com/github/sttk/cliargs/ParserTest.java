@@ -0,0 +1,172 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.InvalidOption;
+import com.github.sttk.cliargs.exceptions.OptionIsNotArray;
+import com.github.sttk.cliargs.exceptions.OptionNeedsArg;
+import com.github.sttk.cliargs.exceptions.UnconfiguredOption;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ParserTest {
+
+  static CompiledSpec spec() {
+    var optCfgs = new OptCfg[] {
+      new OptCfg(names("foo", "f"), hasArg(true)),
+      new OptCfg(names("bar", "b")),
+      new OptCfg(names("baz"), hasArg(true), isArray(true), defaults("A", "B")),
+    };
+    try {
+      return new CompiledSpec(optCfgs);
+    } catch (Exception e) {
+      fail(e);
+      return null;
+    }
+  }
+
+  @Nested
+  class TestsOfParse {
+    @Test
+    void should_parse_like_cmd() {
+      var parser = new Parser(spec());
+      try {
+        var r = parser.parse(List.of("-f", "1", "abc", "--bar", "--", "-x"));
+        assertThat(r.hasOpt("foo")).isTrue();
+        assertThat(r.optArg("foo").get()).isEqualTo("1");
+        assertThat(r.hasOpt("bar")).isTrue();
+        assertThat(r.optArgs("baz").get()).containsExactly("A", "B");
+        assertThat(r.args()).containsExactly("abc", "-x");
+        assertThat(r.optCfgs()).isEqualTo(parser.spec().cfgList);
+
+        var cmd = new Cmd("app", "-f", "1", "abc", "--bar", "--", "-x");
+        cmd.parseWith(parser.spec());
+        assertThat(r.toString()).isEqualTo(cmd.result().toString());
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_return_independent_results_when_reused() {
+      var parser = new Parser(spec());
+      try {
+        var r1 = parser.parse(List.of("--baz=1", "--baz", "2", "x"));
+        var r2 = parser.parse(List.of("-b", "y", "z"));
+        var r3 = parser.parse(List.of());
+
+        assertThat(r1.optArgs("baz").get()).containsExactly("1", "2");
+        assertThat(r1.hasOpt("bar")).isFalse();
+        assertThat(r1.args()).containsExactly("x");
+
+        assertThat(r2.optArgs("baz").get()).containsExactly("A", "B");
+        assertThat(r2.hasOpt("bar")).isTrue();
+        assertThat(r2.args()).containsExactly("y", "z");
+
+        assertThat(r3.optArgs("baz").get()).containsExactly("A", "B");
+        assertThat(r3.hasOpt("bar")).isFalse();
+        assertThat(r3.args()).isEmpty();
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_reset_option_counts_when_reused() {
+      var parser = new Parser(spec());
+      try {
+        parser.parse(List.of("-f", "1"));
+        var r = parser.parse(List.of("--foo=2"));
+        assertThat(r.optArg("foo").get()).isEqualTo("2");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+      try {
+        parser.parse(List.of("-f", "1", "-f", "2"));
+        fail();
+      } catch (OptionIsNotArray e) {
+        assertThat(e.option()).isEqualTo("f");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_be_reusable_after_failure() {
+      var parser = new Parser(spec());
+      try {
+        parser.parse(List.of("-f"));
+        fail();
+      } catch (OptionNeedsArg e) {
+        assertThat(e.option()).isEqualTo("f");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+      try {
+        parser.parse(List.of("--unknown", "-b"));
+        fail();
+      } catch (UnconfiguredOption e) {
+        assertThat(e.option()).isEqualTo("unknown");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+      try {
+        var r = parser.parse(List.of("-b", "c"));
+        assertThat(r.hasOpt("bar")).isTrue();
+        assertThat(r.args()).containsExactly("c");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_parse_list_without_random_access() {
+      var parser = new Parser(spec());
+      try {
+        var r = parser.parse(new LinkedList<>(List.of("a", "-f", "1", "b")));
+        assertThat(r.optArg("foo").get()).isEqualTo("1");
+        assertThat(r.args()).containsExactly("a", "b");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfVisit {
+    @Test
+    void should_visit_args_and_options() {
+      var parser = new Parser(spec());
+      var list = new ArrayList<String>();
+      var visitor = new ArgVisitor() {
+        @Override
+        public void onOption(int nameIndex, CharSequence value) {
+          list.add(parser.spec().storeKeys[nameIndex] + "=" + value);
+        }
+        @Override
+        public void onPositional(CharSequence arg) {
+          list.add(arg.toString());
+        }
+      };
+      try {
+        parser.visit(List.of("-bf=1", "x", "--baz", "2"), visitor);
+        assertThat(list).containsExactly("bar=null", "foo=1", "x", "baz=2");
+
+        list.clear();
+        parser.visit(List.of("y"), visitor);
+        assertThat(list).containsExactly("y", "baz=A", "baz=B");
+      } catch (InvalidOption e) {
+        fail(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.github.sttk.cliargs.Tokenizer.END;
+import static com.github.sttk.cliargs.Tokenizer.ARG;
+import static com.github.sttk.cliargs.Tokenizer.OPTION;
+import static com.github.sttk.cliargs.Tokenizer.END_OF_OPTIONS;
+import static com.github.sttk.cliargs.Tokenizer.INVALID_CHAR;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class TokenizerTest {
+
+  static Tokenizer tokenizer(String ...args) {
+    return new Tokenizer(List.of(args).iterator(), (s, start, end) -> false, false);
+  }
+
+  @Nested
+  class TestsOfLongOptions {
+    @Test
+    void should_report_name_region() {
+      var t = tokenizer("--foo-bar");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.argIndex).isEqualTo(0);
+      assertThat(t.start).isEqualTo(2);
+      assertThat(t.end).isEqualTo(9);
+      assertThat(t.name()).isEqualTo("foo-bar");
+      assertThat(t.value).isNull();
+      assertThat(t.value()).isNull();
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_value_region() {
+      var t = tokenizer("--foo=123");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("foo");
+      assertThat(t.value).isSameAs(t.arg);
+      assertThat(t.valueIndex).isEqualTo(0);
+      assertThat(t.valueStart).isEqualTo(6);
+      assertThat(t.valueEnd).isEqualTo(9);
+      assertThat(t.value()).isEqualTo("123");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_empty_value() {
+      var t = tokenizer("--foo=");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("foo");
+      assertThat(t.value()).isEqualTo("");
+    }
+
+    @Test
+    void should_take_next_arg_as_value_without_copying() {
+      var value = new String("a value");
+      var t = new Tokenizer(List.of("--foo", value, "bar").iterator(),
+        (s, start, end) -> true, false);
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.argIndex).isEqualTo(0);
+      assertThat(t.name()).isEqualTo("foo");
+      assertThat(t.valueIndex).isEqualTo(1);
+      assertThat(t.value()).isSameAs(value);
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argIndex).isEqualTo(2);
+      assertThat(t.argString()).isEqualTo("bar");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_not_take_value_if_last_arg() {
+      var t = new Tokenizer(List.of("--foo").iterator(), (s, start, end) -> true, false);
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.value).isNull();
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_invalid_chars() {
+      var t = tokenizer("--1abc", "--a$c=1", "--=x");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("1abc");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("a$c=1");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("=x");
+      assertThat(t.next()).isEqualTo(END);
+    }
+  }
+
+  @Nested
+  class TestsOfShortOptions {
+    @Test
+    void should_report_each_option_in_cluster() {
+      var t = tokenizer("-abc");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.start).isEqualTo(1);
+      assertThat(t.name()).isEqualTo("a");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.start).isEqualTo(2);
+      assertThat(t.name()).isEqualTo("b");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.start).isEqualTo(3);
+      assertThat(t.name()).isEqualTo("c");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_value_of_last_option_in_cluster() {
+      var t = tokenizer("-ab=xyz");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("a");
+      assertThat(t.value).isNull();
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("b");
+      assertThat(t.valueStart).isEqualTo(4);
+      assertThat(t.value()).isEqualTo("xyz");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_take_next_arg_as_value_only_for_last_option() {
+      var t = new Tokenizer(List.of("-ab", "xyz").iterator(),
+        (s, start, end) -> true, false);
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("a");
+      assertThat(t.value).isNull();
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("b");
+      assertThat(t.value()).isEqualTo("xyz");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_invalid_chars_and_continue() {
+      var t = tokenizer("-a1b", "-=c", "-1=x");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("a");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("1");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("b");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("=");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("c");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("1");
+      assertThat(t.next()).isEqualTo(END);
+    }
+  }
+
+  @Nested
+  class TestsOfNonAsciiChars {
+    @Test
+    void should_report_long_option_containing_non_ascii_chars() {
+      var t = tokenizer("--f\u00f6o", "--\u00e9t\u00e9=1", "--foo=\u00e9t\u00e9");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("f\u00f6o");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("\u00e9t\u00e9=1");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("foo");
+      assertThat(t.value()).isEqualTo("\u00e9t\u00e9");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_report_whole_code_point_in_short_options() {
+      var t = tokenizer("-a\u3042b", "-\ud83d\ude00c");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("a");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("\u3042");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("b");
+      assertThat(t.next()).isEqualTo(INVALID_CHAR);
+      assertThat(t.name()).isEqualTo("\ud83d\ude00");
+      assertThat(t.next()).isEqualTo(OPTION);
+      assertThat(t.name()).isEqualTo("c");
+      assertThat(t.next()).isEqualTo(END);
+    }
+  }
+
+  @Nested
+  class TestsOfCommandArgs {
+    @Test
+    void should_report_args_and_end_of_options() {
+      var t = tokenizer("abc", "-", "--", "-a", "--b");
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("abc");
+      assertThat(t.isAfterNonOpt).isFalse();
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("-");
+      assertThat(t.next()).isEqualTo(END_OF_OPTIONS);
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("-a");
+      assertThat(t.isAfterNonOpt).isTrue();
+      assertThat(t.argIndex).isEqualTo(3);
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("--b");
+      assertThat(t.next()).isEqualTo(END);
+    }
+
+    @Test
+    void should_treat_all_as_args_if_after_non_option() {
+      var t = new Tokenizer(List.of("-a", "--").iterator(), (s, start, end) -> false, true);
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("-a");
+      assertThat(t.next()).isEqualTo(ARG);
+      assertThat(t.argString()).isEqualTo("--");
+      assertThat(t.next()).isEqualTo(END);
+    }
+  }
+}
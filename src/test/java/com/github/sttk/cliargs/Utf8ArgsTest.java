@@ -0,0 +1,193 @@
+package com.github.sttk.cliargs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.github.sttk.cliargs.OptCfg.Param.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class Utf8ArgsTest {
+
+  static ByteBuffer bytes(String s) {
+    return ByteBuffer.wrap(s.getBytes(UTF_8));
+  }
+
+  static ByteBuffer directBytes(String s) {
+    var b = s.getBytes(UTF_8);
+    var buf = ByteBuffer.allocateDirect(b.length);
+    buf.put(b).flip();
+    return buf;
+  }
+
+  @Nested
+  class TestsOfSplitting {
+    @Test
+    void should_split_by_nul() {
+      var args = new Utf8Args(bytes("app\0--foo\0bar\0"));
+      assertThat(args).hasSize(3);
+      assertThat(args.get(0).toString()).isEqualTo("app");
+      assertThat(args.get(1).toString()).isEqualTo("--foo");
+      assertThat(args.get(2).toString()).isEqualTo("bar");
+    }
+
+    @Test
+    void should_split_without_trailing_nul() {
+      var args = new Utf8Args(bytes("app\0--foo\0bar"));
+      assertThat(args).hasSize(3);
+      assertThat(args.get(2).toString()).isEqualTo("bar");
+    }
+
+    @Test
+    void should_keep_empty_args() {
+      var args = new Utf8Args(bytes("app\0\0x\0\0"));
+      assertThat(args).hasSize(4);
+      assertThat(args.get(1).toString()).isEqualTo("");
+      assertThat(args.get(2).toString()).isEqualTo("x");
+      assertThat(args.get(3).toString()).isEqualTo("");
+    }
+
+    @Test
+    void should_be_empty() {
+      assertThat(new Utf8Args(bytes(""))).isEmpty();
+    }
+
+    @Test
+    void should_split_many_args() {
+      var sb = new StringBuilder();
+      for (int i = 0; i < 1000; i++) {
+        sb.append("arg").append(i).append('\0');
+      }
+      var args = new Utf8Args(bytes(sb.toString()));
+      assertThat(args).hasSize(1000);
+      assertThat(args.get(999).toString()).isEqualTo("arg999");
+    }
+
+    @Test
+    void should_not_change_position_of_buffer() {
+      var buf = bytes("xx\0app\0--foo");
+      buf.position(3);
+      var args = new Utf8Args(buf);
+      assertThat(buf.position()).isEqualTo(3);
+      assertThat(args).hasSize(2);
+      assertThat(args.get(0).toString()).isEqualTo("app");
+    }
+  }
+
+  @Nested
+  class TestsOfArg {
+    @Test
+    void should_read_ascii_arg() {
+      var arg = new Utf8Args(directBytes("--foo=bar")).get(0);
+      assertThat(arg.length()).isEqualTo(9);
+      assertThat(arg.charAt(2)).isEqualTo('f');
+      assertThat(arg.subSequence(6, 9).toString()).isEqualTo("bar");
+      assertThat(arg.toString()).isEqualTo("--foo=bar");
+    }
+
+    @Test
+    void should_decode_non_ascii_arg() {
+      var arg = new Utf8Args(directBytes("--foo=あ😀")).get(0);
+      assertThat(arg.length()).isEqualTo(9);
+      assertThat(arg.charAt(6)).isEqualTo('あ');
+      assertThat(arg.subSequence(6, 9).toString()).isEqualTo("あ😀");
+      assertThat(arg.toString()).isEqualTo("--foo=あ😀");
+    }
+
+    @Test
+    void should_throw_if_index_is_out_of_bounds() {
+      var arg = new Utf8Args(bytes("abc")).get(0);
+      try {
+        arg.charAt(3);
+        fail();
+      } catch (IndexOutOfBoundsException e) {
+      }
+      try {
+        arg.subSequence(2, 4);
+        fail();
+      } catch (IndexOutOfBoundsException e) {
+      }
+    }
+  }
+
+  @Nested
+  class TestsOfCmd {
+    @Test
+    void should_parse_cmdline_bytes() {
+      var cmd = new Cmd(bytes("/usr/bin/app\0--foo=123\0-ab\0あ\0"));
+      try {
+        cmd.parse();
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(cmd.name()).isEqualTo("app");
+      assertThat(cmd.optArg("foo").get()).isEqualTo("123");
+      assertThat(cmd.hasOpt("a")).isTrue();
+      assertThat(cmd.hasOpt("b")).isTrue();
+      assertThat(cmd.args()).containsExactly("あ");
+    }
+
+    @Test
+    void should_parse_empty_cmdline_bytes() {
+      var cmd = new Cmd(bytes(""));
+      try {
+        cmd.parse();
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(cmd.name()).isEqualTo("");
+      assertThat(cmd.args()).isEmpty();
+    }
+
+    @Test
+    void should_parse_cmdline_bytes_with_configurations() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+        new OptCfg(names("bar")),
+      };
+      var cmd = new Cmd(directBytes("app\0--foo\0été\0sub\0--baz\0"));
+      try {
+        var subCmd = cmd.parseUntilSubCmdWith(optCfgs);
+        assertThat(cmd.optArg("foo").get()).isEqualTo("été");
+        assertThat(subCmd.get().name()).isEqualTo("sub");
+        subCmd.get().parse();
+        assertThat(subCmd.get().hasOpt("baz")).isTrue();
+      } catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    @Test
+    void should_visit_values_without_decoding() {
+      var optCfgs = new OptCfg[] {
+        new OptCfg(names("foo"), hasArg(true)),
+      };
+      var cmd = new Cmd(directBytes("app\0--foo=123\0abc\0"));
+      var values = new ArrayList<CharSequence>();
+      try {
+        cmd.visitWith(new CompiledSpec(optCfgs), new ArgVisitor() {
+          @Override
+          public void onOption(int nameIndex, CharSequence value) {
+            assertThat(value.length()).isEqualTo(3);
+            assertThat(value.charAt(0)).isEqualTo('1');
+            values.add(value.toString());
+          }
+          @Override
+          public void onPositional(CharSequence arg) {
+            assertThat(arg).isInstanceOf(Utf8Args.Arg.class);
+            values.add(arg.toString());
+          }
+        });
+      } catch (Exception e) {
+        fail(e);
+      }
+      assertThat(values).containsExactly("123", "abc");
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.github.sttk.cliargs.exceptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ArgFileIsCyclicTest {
+
+  @Test
+  void testConstructor() {
+    var exc = new ArgFileIsCyclic("@foo/args.txt");
+    assertThat(exc.argFile).isEqualTo("@foo/args.txt");
+    assertThat(exc.getMessage()).isEqualTo("ArgFileIsCyclic{argFile:@foo/args.txt}");
+    assertThat(exc.toString()).isEqualTo(
+      "com.github.sttk.cliargs.exceptions.ArgFileIsCyclic: ArgFileIsCyclic{argFile:@foo/args.txt}");
+    assertThat(exc.getCause()).isNull();
+  }
+
+  @Test
+  void testBehaviorAsInvalidOption() {
+    InvalidOption exc = new ArgFileIsCyclic("@foo/args.txt");
+    assertThat(exc.option()).isEqualTo("@foo/args.txt");
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.sttk.cliargs.exceptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.NoSuchFileException;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class FailToReadArgFileTest {
+
+  @Test
+  void testConstructor() {
+    var cause = new NoSuchFileException("foo/args.txt");
+    var exc = new FailToReadArgFile("@foo/args.txt", cause);
+    assertThat(exc.argFile).isEqualTo("@foo/args.txt");
+    assertThat(exc.getMessage()).isEqualTo("FailToReadArgFile{argFile:@foo/args.txt," +
+      "cause:java.nio.file.NoSuchFileException: foo/args.txt}");
+    assertThat(exc.toString()).isEqualTo(
+      "com.github.sttk.cliargs.exceptions.FailToReadArgFile: FailToReadArgFile{" +
+      "argFile:@foo/args.txt,cause:java.nio.file.NoSuchFileException: foo/args.txt}");
+    assertThat(exc.getCause()).isSameAs(cause);
+  }
+
+  @Test
+  void testBehaviorAsInvalidOption() {
+    InvalidOption exc = new FailToReadArgFile("@foo/args.txt", null);
+    assertThat(exc.option()).isEqualTo("@foo/args.txt");
+    assertThat(exc.getMessage()).isEqualTo("FailToReadArgFile{argFile:@foo/args.txt,cause:null}");
+  }
+}
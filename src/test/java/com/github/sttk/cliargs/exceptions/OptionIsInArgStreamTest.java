@@ -0,0 +1,25 @@
+package com.github.sttk.cliargs.exceptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class OptionIsInArgStreamTest {
+
+  @Test
+  void testConstructor() {
+    var exc = new OptionIsInArgStream("--foo-bar");
+    assertThat(exc.option).isEqualTo("--foo-bar");
+    assertThat(exc.getMessage()).isEqualTo("OptionIsInArgStream{option:--foo-bar}");
+    assertThat(exc.toString()).isEqualTo(
+      "com.github.sttk.cliargs.exceptions.OptionIsInArgStream: OptionIsInArgStream{option:--foo-bar}");
+    assertThat(exc.getCause()).isNull();
+  }
+
+  @Test
+  void testBehaviorAsInvalidOption() {
+    InvalidOption exc = new OptionIsInArgStream("--foo-bar");
+    assertThat(exc.option()).isEqualTo("--foo-bar");
+  }
+}
@@ -0,0 +1,35 @@
+package com.github.sttk.cliargs.exceptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class UncheckedInvalidOptionTest {
+
+  @Test
+  void testConstructor() {
+    var cause = new OptionIsInArgStream("--foo-bar");
+    var exc = new UncheckedInvalidOption(cause);
+    assertThat(exc.getCause()).isSameAs(cause);
+    assertThat(exc.getMessage()).isEqualTo("OptionIsInArgStream{option:--foo-bar}");
+    assertThat(exc.toString()).isEqualTo(
+      "com.github.sttk.cliargs.exceptions.UncheckedInvalidOption: " +
+      "OptionIsInArgStream{option:--foo-bar}");
+  }
+
+  @Test
+  void testGetCause() {
+    InvalidOption cause = new UnconfiguredOption("foo-bar");
+    RuntimeException exc = new UncheckedInvalidOption(cause);
+    assertThat(exc.getCause()).isSameAs(cause);
+    assertThat(new UncheckedInvalidOption(cause).getCause().option()).isEqualTo("foo-bar");
+  }
+
+  @Test
+  void testConstructor_nullCause() {
+    assertThatThrownBy(() -> new UncheckedInvalidOption(null))
+      .isInstanceOf(NullPointerException.class);
+  }
+}
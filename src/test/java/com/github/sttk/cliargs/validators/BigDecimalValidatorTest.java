@@ -18,6 +18,16 @@ public class BigDecimalValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new BigDecimalValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "9876543210.5")).isEqualTo(new java.math.BigDecimal("9876543210.5"));
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
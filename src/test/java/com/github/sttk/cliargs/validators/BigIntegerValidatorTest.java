@@ -18,6 +18,16 @@ public class BigIntegerValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new BigIntegerValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "9876543210")).isEqualTo(new java.math.BigInteger("9876543210"));
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
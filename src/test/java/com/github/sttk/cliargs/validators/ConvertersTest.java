@@ -0,0 +1,101 @@
+package com.github.sttk.cliargs.validators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class ConvertersTest {
+
+  enum Color { RED, GREEN }
+
+  public record Port(int number) {
+    public static Port parse(String s) {
+      return new Port(Integer.parseInt(s));
+    }
+  }
+
+  public record Label(String text) {}
+
+  @Test
+  void testFind_builtIn() {
+    assertThat(Converters.find(int.class)).isInstanceOf(IntegerValidator.class);
+    assertThat(Converters.find(Integer.class)).isInstanceOf(IntegerValidator.class);
+    assertThat(Converters.find(short.class)).isInstanceOf(ShortValidator.class);
+    assertThat(Converters.find(java.math.BigDecimal.class))
+      .isInstanceOf(BigDecimalValidator.class);
+    assertThat(Converters.find(InetAddress.class)).isInstanceOf(InetAddressValidator.class);
+  }
+
+  @Test
+  void testFind_discovered() {
+    try {
+      assertThat(Converters.find(Path.class).convert("k", "k", "a/b")).isEqualTo(Path.of("a/b"));
+      assertThat(Converters.find(Duration.class).convert("k", "k", "PT1M"))
+        .isEqualTo(Duration.ofMinutes(1));
+      var uuid = UUID.randomUUID();
+      assertThat(Converters.find(UUID.class).convert("k", "k", uuid.toString())).isEqualTo(uuid);
+      assertThat(Converters.find(Color.class).convert("k", "k", "GREEN")).isEqualTo(Color.GREEN);
+      assertThat(Converters.find(Port.class).convert("k", "k", "80")).isEqualTo(new Port(80));
+      assertThat(Converters.find(InetAddress.class).convert("k", "k", "127.0.0.1"))
+        .isEqualTo(InetAddress.getByName("127.0.0.1"));
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void testFind_sameInstance() {
+    assertThat(Converters.find(Duration.class)).isSameAs(Converters.find(Duration.class));
+  }
+
+  @Test
+  void testFind_notFound() {
+    assertThat(Converters.find(Date.class)).isNull();
+    assertThat(Converters.find(char.class)).isNull();
+    assertThat(Converters.find(Path[].class)).isNull();
+  }
+
+  @Test
+  void testConvert_fail() {
+    try {
+      Converters.find(Color.class).convert("fooBar", "foo-bar", "BLUE");
+      fail();
+    } catch (OptionArgIsInvalid e) {
+      assertThat(e.storeKey).isEqualTo("fooBar");
+      assertThat(e.option).isEqualTo("foo-bar");
+      assertThat(e.optArg).isEqualTo("BLUE");
+      assertThat(e.details).isEqualTo("invalid Color");
+      assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void testRegister() {
+    assertThat(Converters.find(Label.class)).isNull();
+    Converters.register(Label.class, (storeKey, name, arg) -> new Label(arg.toUpperCase()));
+    try {
+      assertThat(Converters.find(Label.class).convert("k", "k", "abc"))
+        .isEqualTo(new Label("ABC"));
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void testRegister_nativeType() {
+    assertThatThrownBy(() -> Converters.register(Integer.class, (k, n, a) -> 0))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Converters.register(String.class, (k, n, a) -> a))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -18,6 +18,16 @@ public class DoubleValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new DoubleValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "-1.5")).isEqualTo(-1.5);
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
@@ -18,6 +18,16 @@ public class FloatValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new FloatValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "-1.5")).isEqualTo(-1.5f);
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
@@ -0,0 +1,80 @@
+package com.github.sttk.cliargs.validators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+import com.github.sttk.cliargs.exceptions.OptionArgIsInvalid;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+@SuppressWarnings("missing-explicit-ctor")
+public class InetAddressValidatorTest {
+
+  @Test
+  void testValidate_ok() {
+    try {
+      new InetAddressValidator().validate("fooBar", "foo-bar", "192.168.0.1");
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new InetAddressValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "127.0.0.1"))
+        .isEqualTo(InetAddress.getByAddress(new byte[] { 127, 0, 0, 1 }));
+      assertThat(converter.convert("fooBar", "foo-bar", "0.0.0.0"))
+        .isEqualTo(InetAddress.getByAddress(new byte[] { 0, 0, 0, 0 }));
+      assertThat(converter.convert("fooBar", "foo-bar", "::1"))
+        .isEqualTo(InetAddress.getByName("[::1]"));
+      assertThat(converter.convert("fooBar", "foo-bar", "[fe80::1]"))
+        .isEqualTo(InetAddress.getByName("[fe80::1]"));
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void testValidate_fail_hostName() {
+    // A resolvable host name is rejected before a name service is looked up.
+    for (var arg : new String[] { "localhost", "cafe.example", "1.2.3.4.example", "" }) {
+      try {
+        new InetAddressValidator().validate("fooBar", "foo-bar", arg);
+        fail(arg);
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.storeKey).isEqualTo("fooBar");
+        assertThat(e.option).isEqualTo("foo-bar");
+        assertThat(e.optArg).isEqualTo(arg);
+        assertThat(e.details).isEqualTo("invalid InetAddress");
+        assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+      }
+    }
+  }
+
+  @Test
+  void testValidate_fail_notLiteral() {
+    for (var arg : new String[] { "1.2.3", "1.2.3.4.", "256.0.0.1", "01234.0.0.1", "1..2.3" }) {
+      try {
+        new InetAddressValidator().validate("fooBar", "foo-bar", arg);
+        fail(arg);
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.optArg).isEqualTo(arg);
+        assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+      }
+    }
+
+    for (var arg : new String[] { "1:zz", "host:80", "[::1" }) {
+      try {
+        new InetAddressValidator().validate("fooBar", "foo-bar", arg);
+        fail(arg);
+      } catch (OptionArgIsInvalid e) {
+        assertThat(e.optArg).isEqualTo(arg);
+        assertThat(e.getCause()).isInstanceOf(UnknownHostException.class);
+      }
+    }
+  }
+}
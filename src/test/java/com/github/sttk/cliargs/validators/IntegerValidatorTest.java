@@ -18,6 +18,16 @@ public class IntegerValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new IntegerValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "-123")).isEqualTo(-123);
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
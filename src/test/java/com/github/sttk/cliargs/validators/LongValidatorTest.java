@@ -18,6 +18,16 @@ public class LongValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new LongValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "9876543210")).isEqualTo(9876543210L);
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {
@@ -18,6 +18,16 @@ public class ShortValidatorTest {
     }
   }
 
+  @Test
+  void testConvert_ok() {
+    try {
+      Converter<?> converter = new ShortValidator();
+      assertThat(converter.convert("fooBar", "foo-bar", "-123")).isEqualTo((short) -123);
+    } catch (OptionArgIsInvalid e) {
+      fail(e);
+    }
+  }
+
   @Test
   void testValidate_fail() {
     try {